@@ -0,0 +1,27 @@
+plugins {
+    application
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    implementation(projects.shared)
+    implementation("com.google.guava:guava:31.1-jre")
+    implementation("net.kyori:adventure-api:4.13.0")
+    implementation("net.kyori:adventure-text-serializer-legacy:4.13.0")
+    implementation("net.kyori:adventure-text-serializer-gson:4.13.0")
+    implementation("net.kyori:adventure-text-minimessage:4.13.0")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+application {
+    mainClass.set("me.neznamy.tab.benchmark.ScenarioRunner")
+}
+
+jmh {
+    profilers.add("gc")
+}
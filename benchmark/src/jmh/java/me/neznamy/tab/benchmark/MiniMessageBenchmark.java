@@ -0,0 +1,40 @@
+package me.neznamy.tab.benchmark;
+
+import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.chat.rgb.format.MiniMessageFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting MiniMessage text directly into components with
+ * serializing it into legacy text and parsing that text again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiniMessageBenchmark {
+
+    @Param({
+            "<red>Red</red> and <blue>blue",
+            "<#123456>Hex <bold>bold</bold> text",
+            "<gradient:#FF0000:#0000FF>Gradient text in a scoreboard title</gradient>",
+            "<rainbow>[Owner]</rainbow> <gray>%player%"
+    })
+    public String text;
+
+    private final MiniMessageFormat format = new MiniMessageFormat();
+
+    @Benchmark
+    public TabComponent direct() {
+        return format.toComponent(text);
+    }
+
+    @Benchmark
+    public TabComponent roundTrip() {
+        return TabComponent.fromColoredText(format.reformat(text));
+    }
+}
@@ -0,0 +1,77 @@
+package me.neznamy.tab.benchmark;
+
+import me.neznamy.tab.benchmark.Simulation.Sample;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs load scenarios on a headless simulation. Time of each scenario run is measured
+ * by JMH, allocations are reported by the {@code gc} profiler and packets per second
+ * with CPU time of plugin threads are printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScenarioBenchmark {
+
+    @Param({"MASS_JOIN", "CHURN", "VANISH_STORM", "PLACEHOLDER_CHURN"})
+    public Scenario scenario;
+
+    @Param("1000")
+    public int players;
+
+    private Path folder;
+    private Simulation simulation;
+    private Sample before;
+
+    private long packets;
+    private long cpuTime;
+    private long time;
+
+    @Setup(Level.Invocation)
+    public void setup() throws Exception {
+        folder = Files.createTempDirectory("tab-simulation");
+        simulation = new Simulation(folder.toFile(), false);
+        scenario.setup(simulation, players);
+        before = simulation.sample();
+    }
+
+    @Benchmark
+    public void run() throws InterruptedException {
+        scenario.run(simulation, players, new Random(0));
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception {
+        Sample after = simulation.sample();
+        for (PacketType type : PacketType.values()) {
+            packets += after.getPackets().get(type) - before.getPackets().get(type);
+        }
+        cpuTime += after.getCpuTime() - before.getCpuTime();
+        time += after.getTime() - before.getTime();
+        simulation.close();
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf(Locale.US, "%n%s: %,.0f packets/s, %.1f ms plugin thread CPU time per run%n",
+                scenario, packets / (time / 1e9), cpuTime / 1e6);
+        packets = 0;
+        cpuTime = 0;
+        time = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package me.neznamy.tab.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counter of packets "sent" to simulated players.
+ */
+public class PacketCounter {
+
+    /** Counters by packet type */
+    private final LongAdder[] counters = new LongAdder[PacketType.values().length];
+
+    /**
+     * Constructs new instance with all counters set to 0.
+     */
+    public PacketCounter() {
+        for (int i=0; i<counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts a packet of given type.
+     *
+     * @param   type
+     *          Type of the packet
+     */
+    public void count(@NotNull PacketType type) {
+        counters[type.ordinal()].increment();
+    }
+
+    /**
+     * Returns current value of all counters.
+     *
+     * @return  Amount of packets by type
+     */
+    @NotNull
+    public Map<PacketType, Long> snapshot() {
+        Map<PacketType, Long> values = new EnumMap<>(PacketType.class);
+        for (PacketType type : PacketType.values()) {
+            values.put(type, counters[type.ordinal()].sum());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,29 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Types of packets counted by the simulated platform.
+ */
+@Getter
+@AllArgsConstructor
+public enum PacketType {
+
+    TABLIST_ADD("TabList entry add"),
+    TABLIST_REMOVE("TabList entry remove"),
+    TABLIST_DISPLAY_NAME("TabList display name"),
+    TABLIST_LATENCY("TabList latency"),
+    TABLIST_GAME_MODE("TabList game mode"),
+    TABLIST_LISTED("TabList listed"),
+    TABLIST_HEADER_FOOTER("TabList header/footer"),
+    SCOREBOARD_DISPLAY_SLOT("Scoreboard display slot"),
+    SCOREBOARD_OBJECTIVE("Scoreboard objective"),
+    SCOREBOARD_SCORE("Scoreboard score"),
+    SCOREBOARD_TEAM("Scoreboard team"),
+    BOSSBAR("BossBar"),
+    CHAT("Chat message");
+
+    /** Name displayed in reports */
+    private final String displayName;
+}
@@ -0,0 +1,120 @@
+package me.neznamy.tab.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Load scenarios which can be run on a {@link Simulation}. Each scenario
+ * has an untimed setup phase and a measured phase.
+ */
+public enum Scenario {
+
+    /** All players join at once */
+    MASS_JOIN {
+        @Override
+        public void setup(@NotNull Simulation simulation, int players) {
+            // Nobody is online before
+        }
+
+        @Override
+        public void run(@NotNull Simulation simulation, int players, @NotNull Random random) throws InterruptedException {
+            for (int i=0; i<players; i++) {
+                simulation.join();
+            }
+            simulation.awaitIdle();
+        }
+    },
+
+    /** 10% of players leave and the same amount of new players joins, 10 times */
+    CHURN {
+        @Override
+        public void run(@NotNull Simulation simulation, int players, @NotNull Random random) throws InterruptedException {
+            for (int round=0; round<ROUNDS; round++) {
+                List<SimulatedPlayer> leaving = pick(simulation, players / 10, random);
+                for (SimulatedPlayer player : leaving) {
+                    simulation.quit(player);
+                }
+                for (int i=0; i<leaving.size(); i++) {
+                    simulation.join();
+                }
+                simulation.awaitIdle();
+            }
+        }
+    },
+
+    /** 25% of players vanish and then appear again, 10 times */
+    VANISH_STORM {
+        @Override
+        public void run(@NotNull Simulation simulation, int players, @NotNull Random random) throws InterruptedException {
+            for (int round=0; round<ROUNDS; round++) {
+                List<SimulatedPlayer> vanishing = pick(simulation, players / 4, random);
+                for (SimulatedPlayer player : vanishing) {
+                    simulation.setVanished(player, true);
+                }
+                simulation.awaitIdle();
+                for (SimulatedPlayer player : vanishing) {
+                    simulation.setVanished(player, false);
+                }
+                simulation.awaitIdle();
+            }
+        }
+    },
+
+    /** Placeholder used in prefix and suffix changes for every player, 10 times */
+    PLACEHOLDER_CHURN {
+        @Override
+        public void run(@NotNull Simulation simulation, int players, @NotNull Random random) throws InterruptedException {
+            for (int round=0; round<ROUNDS; round++) {
+                for (SimulatedPlayer player : simulation.getPlayers()) {
+                    simulation.setValue(player, String.valueOf(random.nextInt(1000)));
+                }
+                simulation.awaitIdle();
+            }
+        }
+    };
+
+    /** Amount of rounds in repeated scenarios */
+    private static final int ROUNDS = 10;
+
+    /**
+     * Prepares simulation for the scenario. By default, connects all players.
+     *
+     * @param   simulation
+     *          Simulation to prepare
+     * @param   players
+     *          Amount of players
+     * @throws  InterruptedException
+     *          If thread was interrupted
+     */
+    public void setup(@NotNull Simulation simulation, int players) throws InterruptedException {
+        for (int i=0; i<players; i++) {
+            simulation.join();
+        }
+        simulation.awaitIdle();
+    }
+
+    /**
+     * Runs the measured part of the scenario and waits until it is fully processed.
+     *
+     * @param   simulation
+     *          Simulation to run scenario on
+     * @param   players
+     *          Amount of players
+     * @param   random
+     *          Random to pick players and values with
+     * @throws  InterruptedException
+     *          If thread was interrupted
+     */
+    public abstract void run(@NotNull Simulation simulation, int players, @NotNull Random random) throws InterruptedException;
+
+    @NotNull
+    private static List<SimulatedPlayer> pick(@NotNull Simulation simulation, int amount, @NotNull Random random) {
+        List<SimulatedPlayer> online = new ArrayList<>(simulation.getPlayers());
+        Collections.shuffle(online, random);
+        return new ArrayList<>(online.subList(0, Math.min(amount, online.size())));
+    }
+}
@@ -0,0 +1,95 @@
+package me.neznamy.tab.benchmark;
+
+import me.neznamy.tab.benchmark.Simulation.Sample;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point running load scenarios on a headless simulation.
+ * Usage: {@code ScenarioRunner [scenario|all] [players]}, default is all scenarios
+ * with 1000 players.
+ */
+public class ScenarioRunner {
+
+    /**
+     * Runs requested scenarios and prints results.
+     *
+     * @param   args
+     *          Scenario name (or "all") and amount of players
+     * @throws  Exception
+     *          If scenario fails
+     */
+    public static void main(String[] args) throws Exception {
+        String name = args.length > 0 ? args[0] : "all";
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        List<Scenario> scenarios = name.equalsIgnoreCase("all") ? Arrays.asList(Scenario.values()) :
+                Collections.singletonList(Scenario.valueOf(name.toUpperCase(Locale.US)));
+        for (Scenario scenario : scenarios) {
+            print(scenario, players, run(scenario, players));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs scenario in a new simulation and returns samples taken before and after
+     * the measured phase.
+     *
+     * @param   scenario
+     *          Scenario to run
+     * @param   players
+     *          Amount of players
+     * @return  Samples before and after the measured phase
+     * @throws  Exception
+     *          If scenario fails
+     */
+    @NotNull
+    public static Sample[] run(@NotNull Scenario scenario, int players) throws Exception {
+        Path folder = Files.createTempDirectory("tab-simulation");
+        try (Simulation simulation = new Simulation(folder.toFile(), true)) {
+            scenario.setup(simulation, players);
+            Sample before = simulation.sample();
+            scenario.run(simulation, players, new Random(0));
+            Sample after = simulation.sample();
+            return new Sample[] {before, after};
+        } finally {
+            delete(folder);
+        }
+    }
+
+    private static void print(@NotNull Scenario scenario, int players, @NotNull Sample[] samples) {
+        Sample before = samples[0];
+        Sample after = samples[1];
+        double seconds = (after.getTime() - before.getTime()) / 1e9;
+        long total = 0;
+        StringBuilder types = new StringBuilder();
+        for (PacketType type : PacketType.values()) {
+            long count = after.getPackets().get(type) - before.getPackets().get(type);
+            if (count == 0) continue;
+            total += count;
+            types.append(String.format(Locale.US, "    %-24s %,d%n", type.getDisplayName(), count));
+        }
+        System.out.printf(Locale.US, "%s (%d players)%n", scenario, players);
+        System.out.printf(Locale.US, "  Duration:                %.1f ms%n", seconds * 1000);
+        System.out.printf(Locale.US, "  Plugin thread CPU time:  %.1f ms%n", (after.getCpuTime() - before.getCpuTime()) / 1e6);
+        System.out.printf(Locale.US, "  Allocated:               %.1f MB%n", (after.getAllocated() - before.getAllocated()) / 1048576d);
+        System.out.printf(Locale.US, "  Packets:                 %,d (%,.0f/s)%n", total, total / seconds);
+        System.out.print(types);
+    }
+
+    private static void delete(@NotNull Path folder) throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.api.bossbar.BarColor;
+import me.neznamy.tab.api.bossbar.BarStyle;
+import me.neznamy.tab.shared.platform.BossBar;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * BossBar which only counts packets.
+ */
+@RequiredArgsConstructor
+public class SimulatedBossBar implements BossBar {
+
+    /** Counter to count packets with */
+    @NotNull private final PacketCounter packets;
+
+    @Override
+    public void create(@NotNull UUID id, @NotNull String title, float progress, @NotNull BarColor color, @NotNull BarStyle style) {
+        packets.count(PacketType.BOSSBAR);
+    }
+
+    @Override
+    public void update(@NotNull UUID id, @NotNull String title) {
+        packets.count(PacketType.BOSSBAR);
+    }
+
+    @Override
+    public void update(@NotNull UUID id, float progress) {
+        packets.count(PacketType.BOSSBAR);
+    }
+
+    @Override
+    public void update(@NotNull UUID id, @NotNull BarStyle style) {
+        packets.count(PacketType.BOSSBAR);
+    }
+
+    @Override
+    public void update(@NotNull UUID id, @NotNull BarColor color) {
+        packets.count(PacketType.BOSSBAR);
+    }
+
+    @Override
+    public void remove(@NotNull UUID id) {
+        packets.count(PacketType.BOSSBAR);
+    }
+}
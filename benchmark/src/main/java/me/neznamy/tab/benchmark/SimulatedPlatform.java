@@ -0,0 +1,132 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.GroupManager;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.backend.BackendPlatform;
+import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.features.injection.PipelineInjector;
+import me.neznamy.tab.shared.features.nametags.NameTag;
+import me.neznamy.tab.shared.features.types.TabFeature;
+import me.neznamy.tab.shared.hook.AdventureHook;
+import me.neznamy.tab.shared.placeholders.expansion.EmptyTabExpansion;
+import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+/**
+ * Platform implementation without a server. Players are created by {@link Simulation}
+ * and all packets they would receive are only counted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SimulatedPlatform implements BackendPlatform {
+
+    /** Placeholder with a value set by scenarios for each player */
+    public static final String VALUE_PLACEHOLDER = "%sim_value%";
+
+    /** Folder with configuration files */
+    @NotNull private final File dataFolder;
+
+    /** Counter of packets sent to all players */
+    @NotNull private final PacketCounter packets;
+
+    /** Whether warnings logged by the plugin are printed or not */
+    private final boolean printWarnings;
+
+    @Override
+    @NotNull
+    public GroupManager detectPermissionPlugin() {
+        return new GroupManager("Simulation", p -> ((SimulatedPlayer) p).getGroup());
+    }
+
+    @Override
+    public void registerPlaceholders() {
+        BackendPlatform.super.registerPlaceholders();
+        TAB.getInstance().getPlaceholderManager().registerPlayerPlaceholder(VALUE_PLACEHOLDER, -1,
+                p -> ((SimulatedPlayer) p).getValue());
+    }
+
+    @Override
+    public void registerUnknownPlaceholder(@NotNull String identifier) {
+        registerDummyPlaceholder(identifier);
+    }
+
+    @Override
+    public void loadPlayers() {
+        // Players only join through simulation
+    }
+
+    @Override
+    @Nullable
+    public PipelineInjector createPipelineInjector() {
+        return null;
+    }
+
+    @Override
+    @NotNull
+    public NameTag getUnlimitedNameTags() {
+        return new NameTag();
+    }
+
+    @Override
+    @NotNull
+    public TabExpansion createTabExpansion() {
+        return new EmptyTabExpansion();
+    }
+
+    @Override
+    @Nullable
+    public TabFeature getPerWorldPlayerList() {
+        return null;
+    }
+
+    @Override
+    public void logInfo(@NotNull TabComponent message) {
+        // Not interesting in benchmarks
+    }
+
+    @Override
+    public void logWarn(@NotNull TabComponent message) {
+        if (printWarnings) System.out.println("[TAB] [WARN] " + message.toLegacyText());
+    }
+
+    @Override
+    @NotNull
+    public String getServerVersionInfo() {
+        return "[Simulation]";
+    }
+
+    @Override
+    public void registerListener() {
+        // Events are called directly by simulation
+    }
+
+    @Override
+    public void registerCommand() {
+        // No commands
+    }
+
+    @Override
+    public void startMetrics() {
+        // No metrics
+    }
+
+    @Override
+    public Object convertComponent(@NotNull TabComponent component, boolean modern) {
+        return AdventureHook.toAdventureComponent(component, modern);
+    }
+
+    @Override
+    public double getTPS() {
+        return 20;
+    }
+
+    @Override
+    public double getMSPT() {
+        return 5;
+    }
+}
@@ -0,0 +1,112 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.Getter;
+import lombok.Setter;
+import me.neznamy.tab.shared.ProtocolVersion;
+import me.neznamy.tab.shared.backend.BackendTabPlayer;
+import me.neznamy.tab.shared.backend.entityview.EntityView;
+import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.platform.TabList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Player without a connection. Everything sent to it is only counted.
+ */
+@Getter
+public class SimulatedPlayer extends BackendTabPlayer {
+
+    private final SimulatedPlatform platform;
+    private final SimulatedScoreboard scoreboard;
+    private final SimulatedTabList tabList;
+    private final SimulatedBossBar bossBar;
+
+    /** Permission group of the player */
+    @NotNull private final String group;
+
+    /** Whether player has all permissions or not */
+    private final boolean operator;
+
+    /** Value of {@link SimulatedPlatform#VALUE_PLACEHOLDER} */
+    @Setter private volatile String value = "0";
+
+    @Setter private volatile boolean vanished;
+    @Setter private volatile int gamemode;
+    @Setter private volatile int ping;
+
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   platform
+     *          Simulated platform
+     * @param   uniqueId
+     *          Player's UUID
+     * @param   name
+     *          Player's name
+     * @param   world
+     *          Player's world
+     * @param   group
+     *          Player's permission group
+     * @param   operator
+     *          Whether player has all permissions or not
+     */
+    public SimulatedPlayer(@NotNull SimulatedPlatform platform, @NotNull UUID uniqueId, @NotNull String name,
+                           @NotNull String world, @NotNull String group, boolean operator) {
+        super(platform, uniqueId, uniqueId, name, world, ProtocolVersion.LATEST_KNOWN_VERSION.getNetworkId());
+        this.platform = platform;
+        this.group = group;
+        this.operator = operator;
+        scoreboard = new SimulatedScoreboard(this);
+        tabList = new SimulatedTabList(this);
+        bossBar = new SimulatedBossBar(platform.getPackets());
+    }
+
+    @Override
+    public UUID getPlayer() {
+        return (UUID) player;
+    }
+
+    @Override
+    public boolean isDisguised() {
+        return false;
+    }
+
+    @Override
+    public boolean hasInvisibilityPotion() {
+        return false;
+    }
+
+    @Override
+    @Nullable
+    public TabList.Skin getSkin() {
+        return null;
+    }
+
+    @Override
+    public void sendMessage(@NotNull TabComponent message) {
+        platform.getPackets().count(PacketType.CHAT);
+    }
+
+    @Override
+    public boolean hasPermission(@NotNull String permission) {
+        return operator;
+    }
+
+    @Override
+    public double getHealth() {
+        return 20;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return getName();
+    }
+
+    @Override
+    @Nullable
+    public EntityView getEntityView() {
+        return null; // Unlimited nametag mode is not simulated
+    }
+}
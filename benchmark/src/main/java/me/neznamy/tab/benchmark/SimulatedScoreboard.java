@@ -0,0 +1,81 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.chat.EnumChatFormat;
+import me.neznamy.tab.shared.platform.Scoreboard;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Scoreboard which only counts packets.
+ */
+public class SimulatedScoreboard extends Scoreboard<SimulatedPlayer, Object> {
+
+    /** Counter to count packets with */
+    @NotNull private final PacketCounter packets;
+
+    /**
+     * Constructs new instance for given player.
+     *
+     * @param   player
+     *          Player this scoreboard belongs to
+     */
+    public SimulatedScoreboard(@NotNull SimulatedPlayer player) {
+        super(player);
+        packets = player.getPlatform().getPackets();
+    }
+
+    @Override
+    protected void setDisplaySlot0(int slot, @NonNull String objective) {
+        packets.count(PacketType.SCOREBOARD_DISPLAY_SLOT);
+    }
+
+    @Override
+    protected void setScore0(@NonNull String objective, @NonNull String scoreHolder, int score,
+                             @Nullable Object displayName, @Nullable Object numberFormat) {
+        packets.count(PacketType.SCOREBOARD_SCORE);
+    }
+
+    @Override
+    protected void removeScore0(@NonNull String objective, @NonNull String scoreHolder) {
+        packets.count(PacketType.SCOREBOARD_SCORE);
+    }
+
+    @Override
+    protected void registerObjective0(@NonNull String objectiveName, @NonNull String title, int display,
+                                      @Nullable Object numberFormat) {
+        packets.count(PacketType.SCOREBOARD_OBJECTIVE);
+    }
+
+    @Override
+    protected void unregisterObjective0(@NonNull String objectiveName) {
+        packets.count(PacketType.SCOREBOARD_OBJECTIVE);
+    }
+
+    @Override
+    protected void updateObjective0(@NonNull String objectiveName, @NonNull String title, int display,
+                                    @Nullable Object numberFormat) {
+        packets.count(PacketType.SCOREBOARD_OBJECTIVE);
+    }
+
+    @Override
+    protected void registerTeam0(@NonNull String name, @NonNull String prefix, @NonNull String suffix,
+                                 @NonNull NameVisibility visibility, @NonNull CollisionRule collision,
+                                 @NonNull Collection<String> players, int options, @NonNull EnumChatFormat color) {
+        packets.count(PacketType.SCOREBOARD_TEAM);
+    }
+
+    @Override
+    protected void unregisterTeam0(@NonNull String name) {
+        packets.count(PacketType.SCOREBOARD_TEAM);
+    }
+
+    @Override
+    protected void updateTeam0(@NonNull String name, @NonNull String prefix, @NonNull String suffix,
+                               @NonNull NameVisibility visibility, @NonNull CollisionRule collision,
+                               int options, @NonNull EnumChatFormat color) {
+        packets.count(PacketType.SCOREBOARD_TEAM);
+    }
+}
@@ -0,0 +1,76 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.platform.TabList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TabList which only tracks entries and counts packets.
+ */
+public class SimulatedTabList extends TabList<SimulatedPlayer, Object> {
+
+    /** Counter to count packets with */
+    @NotNull private final PacketCounter packets;
+
+    /** Entries in the tablist */
+    private final Set<UUID> entries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs new instance for given player.
+     *
+     * @param   player
+     *          Player this tablist belongs to
+     */
+    public SimulatedTabList(@NotNull SimulatedPlayer player) {
+        super(player);
+        packets = player.getPlatform().getPackets();
+    }
+
+    @Override
+    public void removeEntry(@NonNull UUID entry) {
+        entries.remove(entry);
+        packets.count(PacketType.TABLIST_REMOVE);
+    }
+
+    @Override
+    public void updateDisplayName0(@NonNull UUID entry, @Nullable Object displayName) {
+        packets.count(PacketType.TABLIST_DISPLAY_NAME);
+    }
+
+    @Override
+    public void updateLatency(@NonNull UUID entry, int latency) {
+        packets.count(PacketType.TABLIST_LATENCY);
+    }
+
+    @Override
+    public void updateGameMode(@NonNull UUID entry, int gameMode) {
+        packets.count(PacketType.TABLIST_GAME_MODE);
+    }
+
+    @Override
+    public void updateListed(@NonNull UUID entry, boolean listed) {
+        packets.count(PacketType.TABLIST_LISTED);
+    }
+
+    @Override
+    public void addEntry0(@NonNull UUID id, @NonNull String name, @Nullable Skin skin, boolean listed, int latency,
+                          int gameMode, @Nullable Object displayName) {
+        entries.add(id);
+        packets.count(PacketType.TABLIST_ADD);
+    }
+
+    @Override
+    public void setPlayerListHeaderFooter0(@NonNull Object header, @NonNull Object footer) {
+        packets.count(PacketType.TABLIST_HEADER_FOOTER);
+    }
+
+    @Override
+    public boolean containsEntry(@NonNull UUID entry) {
+        return entries.contains(entry);
+    }
+}
@@ -0,0 +1,220 @@
+package me.neznamy.tab.benchmark;
+
+import lombok.Getter;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.config.file.ConfigurationFile;
+import me.neznamy.tab.shared.config.file.YamlConfigurationFile;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless instance of the plugin running on {@link SimulatedPlatform}. Player events
+ * are forwarded to features on the processing thread the same way platform listeners do,
+ * so everything is measured under real threading.
+ */
+public class Simulation implements AutoCloseable {
+
+    /** Worlds players are spread across */
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    /** Groups players are spread across */
+    private static final String[] GROUPS = {"default", "vip", "admin", "owner"};
+
+    /** Thread MX bean for measuring time and allocations of plugin threads */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Counter of all sent packets */
+    @Getter private final PacketCounter packets = new PacketCounter();
+
+    /** Simulated platform */
+    private final SimulatedPlatform platform;
+
+    /** Players currently online */
+    @Getter private final List<SimulatedPlayer> players = new ArrayList<>();
+
+    /** Counter for generating player names */
+    private int nextId;
+
+    /**
+     * Prepares configuration in given folder and loads the plugin. Apart from default
+     * features, belowname, scoreboard and bossbar are enabled and prefix/suffix
+     * contain {@link SimulatedPlatform#VALUE_PLACEHOLDER}. Layout is left disabled,
+     * because its default skin needs to be downloaded.
+     *
+     * @param   dataFolder
+     *          Folder to use as plugin folder
+     * @param   printWarnings
+     *          Whether warnings of the plugin should be printed or not
+     * @throws  IOException
+     *          If configuration files could not be created
+     */
+    public Simulation(@NotNull File dataFolder, boolean printWarnings) throws IOException {
+        ConfigurationFile config = new YamlConfigurationFile(
+                getClass().getClassLoader().getResourceAsStream("config/config.yml"), new File(dataFolder, "config.yml"));
+        config.set("belowname-objective.enabled", true);
+        config.set("scoreboard.enabled", true);
+        config.set("bossbar.enabled", true);
+        ConfigurationFile groups = new YamlConfigurationFile(
+                getClass().getClassLoader().getResourceAsStream("config/groups.yml"), new File(dataFolder, "groups.yml"));
+        groups.set("_DEFAULT_.tabsuffix", " &7" + SimulatedPlatform.VALUE_PLACEHOLDER);
+        groups.set("_DEFAULT_.tagsuffix", " &7" + SimulatedPlatform.VALUE_PLACEHOLDER);
+        platform = new SimulatedPlatform(dataFolder, packets, printWarnings);
+        TAB.create(platform);
+        if (TAB.getInstance().isPluginDisabled()) throw new IllegalStateException("Plugin failed to load");
+    }
+
+    /**
+     * Connects a new player. Every 20th player has all permissions.
+     *
+     * @return  Connected player
+     */
+    @NotNull
+    public SimulatedPlayer join() {
+        int id = nextId++;
+        SimulatedPlayer player = new SimulatedPlayer(platform, new UUID(0, id), "Player" + id,
+                WORLDS[id % WORLDS.length], GROUPS[id % GROUPS.length], id % 20 == 0);
+        players.add(player);
+        TAB.getInstance().getCPUManager().runTask(() -> TAB.getInstance().getFeatureManager().onJoin(player));
+        return player;
+    }
+
+    /**
+     * Disconnects given player.
+     *
+     * @param   player
+     *          Player to disconnect
+     */
+    public void quit(@NotNull SimulatedPlayer player) {
+        players.remove(player);
+        TAB.getInstance().getCPUManager().runTask(() -> TAB.getInstance().getFeatureManager().onQuit(player));
+    }
+
+    /**
+     * Changes vanish status of player and processes it immediately instead of
+     * waiting for the placeholder refresh.
+     *
+     * @param   player
+     *          Player to change vanish status of
+     * @param   vanished
+     *          New vanish status
+     */
+    public void setVanished(@NotNull SimulatedPlayer player, boolean vanished) {
+        player.setVanished(vanished);
+        TAB.getInstance().getCPUManager().runTask(() -> {
+            if (!player.isOnline()) return;
+            updatePlaceholder(TabConstants.Placeholder.VANISHED, player, vanished);
+            TAB.getInstance().getFeatureManager().onVanishStatusChange(player);
+        });
+    }
+
+    /**
+     * Changes value of {@link SimulatedPlatform#VALUE_PLACEHOLDER} for player
+     * and processes it immediately instead of waiting for placeholder refresh.
+     *
+     * @param   player
+     *          Player to change value for
+     * @param   value
+     *          New value
+     */
+    public void setValue(@NotNull SimulatedPlayer player, @NotNull String value) {
+        player.setValue(value);
+        TAB.getInstance().getCPUManager().runTask(() -> {
+            if (player.isOnline()) updatePlaceholder(SimulatedPlatform.VALUE_PLACEHOLDER, player, value);
+        });
+    }
+
+    private void updatePlaceholder(@NotNull String identifier, @NotNull SimulatedPlayer player, @NotNull Object value) {
+        ((PlayerPlaceholderImpl) TAB.getInstance().getPlaceholderManager().getPlaceholder(identifier)).updateValue(player, value);
+    }
+
+    /**
+     * Waits until all tasks submitted so far are processed.
+     *
+     * @throws  InterruptedException
+     *          If thread was interrupted
+     */
+    public void awaitIdle() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TAB.getInstance().getCPUManager().runTask(latch::countDown);
+        if (!latch.await(5, TimeUnit.MINUTES)) throw new IllegalStateException("Processing thread did not finish in time");
+    }
+
+    /**
+     * Takes a sample of current packet counts and resources used by plugin threads.
+     *
+     * @return  Current sample
+     */
+    @NotNull
+    public Sample sample() {
+        long cpuTime = 0;
+        long allocated = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!thread.getName().startsWith("TAB ")) continue;
+            long time = THREADS.getThreadCpuTime(thread.getId());
+            long bytes = THREADS.getThreadAllocatedBytes(thread.getId());
+            if (time > 0) cpuTime += time;
+            if (bytes > 0) allocated += bytes;
+        }
+        return new Sample(System.nanoTime(), cpuTime, allocated, packets.snapshot());
+    }
+
+    /**
+     * Unloads the plugin on the processing thread, so it does not run concurrently
+     * with tasks still in progress, and waits for it to finish.
+     *
+     * @throws  InterruptedException
+     *          If thread was interrupted
+     */
+    @Override
+    public void close() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TAB.getInstance().getCPUManager().runTask(() -> {
+            try {
+                TAB.getInstance().unload();
+            } finally {
+                latch.countDown();
+            }
+        });
+        latch.await(1, TimeUnit.MINUTES);
+        players.clear();
+    }
+
+    /**
+     * Snapshot of measured values at a point in time.
+     */
+    @Getter
+    public static class Sample {
+
+        /** Time of the sample from {@link System#nanoTime()} */
+        private final long time;
+
+        /** Total CPU time of plugin threads in nanoseconds */
+        private final long cpuTime;
+
+        /** Total bytes allocated by plugin threads */
+        private final long allocated;
+
+        /** Sent packets by type */
+        @NotNull private final Map<PacketType, Long> packets;
+
+        private Sample(long time, long cpuTime, long allocated, @NotNull Map<PacketType, Long> packets) {
+            this.time = time;
+            this.cpuTime = cpuTime;
+            this.allocated = allocated;
+            this.packets = Collections.unmodifiableMap(packets);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package me.neznamy.tab.benchmark;
+
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.config.file.ConfigurationFile;
+import me.neznamy.tab.shared.config.file.YamlConfigurationFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationTest {
+
+    private static final Set<String> FRAMES = new HashSet<>(Arrays.asList("first", "second"));
+
+    @TempDir
+    File dataFolder;
+
+    @Test
+    void placeholdersContainingAnimationFollowFrames() throws Exception {
+        Files.write(new File(dataFolder, "animations.yml").toPath(), Arrays.asList(
+                "Frames:",
+                "  change-interval: 50",
+                "  texts:",
+                "    - 'first'",
+                "    - 'second'",
+                "Outer:",
+                "  change-interval: 1000",
+                "  texts:",
+                "    - '%animation:Frames%'"
+        ), StandardCharsets.UTF_8);
+        ConfigurationFile config = new YamlConfigurationFile(
+                getClass().getClassLoader().getResourceAsStream("config/config.yml"), new File(dataFolder, "config.yml"));
+        Map<Object, Object> condition = new LinkedHashMap<>();
+        condition.put("conditions", Collections.singletonList("%player%=Player0"));
+        // yes and no keys are read as booleans
+        condition.put(true, "%animation:Frames%");
+        condition.put(false, "never");
+        config.set("conditions.wrap", condition);
+        config.set("placeholder-output-replacements.%world%", Collections.singletonMap("world", "%animation:Frames%"));
+        ConfigurationFile groups = new YamlConfigurationFile(
+                getClass().getClassLoader().getResourceAsStream("config/groups.yml"), new File(dataFolder, "groups.yml"));
+        groups.set("_DEFAULT_.tabprefix", "%condition:wrap%");
+        groups.set("_DEFAULT_.tagprefix", "%animation:Outer%");
+        groups.set("_DEFAULT_.customtabname", "%world%");
+
+        try (Simulation simulation = new Simulation(dataFolder, false)) {
+            SimulatedPlayer player = simulation.join();
+            simulation.awaitIdle();
+            String[] properties = {TabConstants.Property.TABPREFIX, TabConstants.Property.TAGPREFIX, TabConstants.Property.CUSTOMTABNAME};
+            Map<String, Set<String>> values = new HashMap<>();
+            long end = System.currentTimeMillis() + 3000;
+            while (System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+                simulation.awaitIdle();
+                for (String property : properties) {
+                    values.computeIfAbsent(property, p -> new HashSet<>()).add(player.getProperty(property).get());
+                }
+                if (values.values().stream().allMatch(FRAMES::equals)) break;
+            }
+            for (String property : properties) {
+                assertEquals(FRAMES, values.get(property), property);
+            }
+        }
+    }
+}
@@ -25,11 +25,11 @@ public class PacketTabList1193 extends PacketTabList18 {
     private static Enum actionAddPlayer;
     private static Enum actionUpdateDisplayName;
     private static Enum actionUpdateLatency;
+    private static Enum actionUpdateGameMode;
 
     private static Constructor<?> newRemovePacket;
 
     private static Field PlayerInfoData_UUID;
-    private static Field PlayerInfoData_GameMode;
     private static Field PlayerInfoData_Listed;
     private static Field PlayerInfoData_RemoteChatSession;
 
@@ -68,7 +68,6 @@ public class PacketTabList1193 extends PacketTabList18 {
         loadSharedContent(playerInfoDataClass, EnumGamemodeClass);
 
         PlayerInfoData_Listed = ReflectionUtils.getOnlyField(playerInfoDataClass, boolean.class);
-        PlayerInfoData_GameMode = ReflectionUtils.getOnlyField(playerInfoDataClass, EnumGamemodeClass);
         Class<?> RemoteChatSession$Data = BukkitReflection.getClass("network.chat.RemoteChatSession$Data", "network.chat.RemoteChatSession$a");
         PlayerInfoData_RemoteChatSession = ReflectionUtils.getOnlyField(playerInfoDataClass, RemoteChatSession$Data);
         PlayerInfoData_UUID = ReflectionUtils.getOnlyField(playerInfoDataClass, UUID.class);
@@ -77,9 +76,10 @@ public class PacketTabList1193 extends PacketTabList18 {
         actionAddPlayer = Enum.valueOf(ActionClass, Action.ADD_PLAYER.name());
         actionUpdateDisplayName = Enum.valueOf(ActionClass, Action.UPDATE_DISPLAY_NAME.name());
         actionUpdateLatency = Enum.valueOf(ActionClass, Action.UPDATE_LATENCY.name());
+        actionUpdateGameMode = Enum.valueOf(ActionClass, Action.UPDATE_GAME_MODE.name());
 
         actionToEnumSet.put(Action.ADD_PLAYER, EnumSet.allOf(ActionClass));
-        actionToEnumSet.put(Action.UPDATE_GAME_MODE, EnumSet.of(Enum.valueOf(ActionClass, Action.UPDATE_GAME_MODE.name())));
+        actionToEnumSet.put(Action.UPDATE_GAME_MODE, EnumSet.of(actionUpdateGameMode));
         actionToEnumSet.put(Action.UPDATE_DISPLAY_NAME, EnumSet.of(actionUpdateDisplayName));
         actionToEnumSet.put(Action.UPDATE_LATENCY, EnumSet.of(actionUpdateLatency));
         actionToEnumSet.put(Action.UPDATE_LISTED, EnumSet.of(Enum.valueOf(ActionClass, Action.UPDATE_LISTED.name())));
@@ -128,6 +128,7 @@ public class PacketTabList1193 extends PacketTabList18 {
             GameProfile profile = (GameProfile) PlayerInfoData_Profile.get(nmsData);
             Object displayName = PlayerInfoData_DisplayName.get(nmsData);
             int latency = PlayerInfoData_Latency.getInt(nmsData);
+            Object gameMode = PlayerInfoData_GameMode.get(nmsData);
             if (actions.contains(actionUpdateDisplayName)) {
                 Object expectedName = getExpectedDisplayName(id);
                 if (expectedName != null && expectedName != displayName) {
@@ -142,6 +143,14 @@ public class PacketTabList1193 extends PacketTabList18 {
                     rewriteEntry = rewritePacket = true;
                 }
             }
+            if (actions.contains(actionUpdateGameMode)) {
+                int gameModeId = toGameModeId(gameMode);
+                int newGameModeId = TAB.getInstance().getFeatureManager().onEntryGameModeChange(player, id, gameModeId);
+                if (newGameModeId != gameModeId) {
+                    gameMode = gameModes[newGameModeId];
+                    rewriteEntry = rewritePacket = true;
+                }
+            }
             if (actions.contains(actionAddPlayer)) {
                 TAB.getInstance().getFeatureManager().onEntryAdd(player, id, profile.getName());
             }
@@ -151,7 +160,7 @@ public class PacketTabList1193 extends PacketTabList18 {
                     profile,
                     PlayerInfoData_Listed.getBoolean(nmsData),
                     latency,
-                    PlayerInfoData_GameMode.get(nmsData),
+                    gameMode,
                     displayName,
                     PlayerInfoData_RemoteChatSession.get(nmsData)) : nmsData);
         }
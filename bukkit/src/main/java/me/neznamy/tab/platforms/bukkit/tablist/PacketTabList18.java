@@ -36,6 +36,7 @@ public class PacketTabList18 extends TabListBase<Object> {
     protected static Field PlayerInfoData_Profile;
     protected static Field PlayerInfoData_Latency;
     protected static Field PlayerInfoData_DisplayName;
+    protected static Field PlayerInfoData_GameMode;
 
     protected static Object[] gameModes;
 
@@ -91,6 +92,7 @@ public class PacketTabList18 extends TabListBase<Object> {
         PlayerInfoData_Profile = ReflectionUtils.getOnlyField(infoData, GameProfile.class);
         PlayerInfoData_Latency = ReflectionUtils.getOnlyField(infoData, int.class);
         PlayerInfoData_DisplayName = ReflectionUtils.getOnlyField(infoData, IChatBaseComponent);
+        PlayerInfoData_GameMode = ReflectionUtils.getOnlyField(infoData, gameMode);
         gameModes = new Object[] {
                 Enum.valueOf(gameMode, "SURVIVAL"),
                 Enum.valueOf(gameMode, "CREATIVE"),
@@ -202,6 +204,20 @@ public class PacketTabList18 extends TabListBase<Object> {
         return profile;
     }
 
+    /**
+     * Converts NMS game mode into its id.
+     *
+     * @param   gameMode
+     *          NMS game mode
+     * @return  Game mode id or {@code -1} if not set
+     */
+    protected static int toGameModeId(@Nullable Object gameMode) {
+        for (int i=0; i<gameModes.length; i++) {
+            if (gameModes[i] == gameMode) return i;
+        }
+        return -1;
+    }
+
     @Override
     @SneakyThrows
     public void onPacketSend(@NonNull Object packet) {
@@ -218,6 +234,11 @@ public class PacketTabList18 extends TabListBase<Object> {
                 int latency = TAB.getInstance().getFeatureManager().onLatencyChange(player, id, PlayerInfoData_Latency.getInt(nmsData));
                 PlayerInfoData_Latency.set(nmsData, latency);
             }
+            if (action.equals(Action.UPDATE_GAME_MODE.name()) || action.equals(Action.ADD_PLAYER.name())) {
+                int gameMode = toGameModeId(PlayerInfoData_GameMode.get(nmsData));
+                int newGameMode = TAB.getInstance().getFeatureManager().onEntryGameModeChange(player, id, gameMode);
+                if (newGameMode != gameMode) PlayerInfoData_GameMode.set(nmsData, gameModes[newGameMode]);
+            }
             if (action.equals(Action.ADD_PLAYER.name())) {
                 TAB.getInstance().getFeatureManager().onEntryAdd(player, id, profile.getName());
             }
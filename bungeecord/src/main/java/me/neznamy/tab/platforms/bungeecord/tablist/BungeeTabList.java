@@ -127,6 +127,9 @@ public abstract class BungeeTabList extends TabList<BungeeTabPlayer, BaseCompone
                 if (listItem.getAction() == PlayerListItem.Action.UPDATE_LATENCY || listItem.getAction() == PlayerListItem.Action.ADD_PLAYER) {
                     item.setPing(TAB.getInstance().getFeatureManager().onLatencyChange(player, item.getUuid(), item.getPing()));
                 }
+                if (listItem.getAction() == PlayerListItem.Action.UPDATE_GAMEMODE || listItem.getAction() == PlayerListItem.Action.ADD_PLAYER) {
+                    item.setGamemode(TAB.getInstance().getFeatureManager().onEntryGameModeChange(player, item.getUuid(), item.getGamemode()));
+                }
                 if (listItem.getAction() == PlayerListItem.Action.ADD_PLAYER) {
                     TAB.getInstance().getFeatureManager().onEntryAdd(player, item.getUuid(), item.getUsername());
                 }
@@ -141,6 +144,9 @@ public abstract class BungeeTabList extends TabList<BungeeTabPlayer, BaseCompone
                 if (update.getActions().contains(PlayerListItemUpdate.Action.UPDATE_LATENCY)) {
                     item.setPing(TAB.getInstance().getFeatureManager().onLatencyChange(player, item.getUuid(), item.getPing()));
                 }
+                if (update.getActions().contains(PlayerListItemUpdate.Action.UPDATE_GAMEMODE)) {
+                    item.setGamemode(TAB.getInstance().getFeatureManager().onEntryGameModeChange(player, item.getUuid(), item.getGamemode()));
+                }
                 if (update.getActions().contains(PlayerListItemUpdate.Action.ADD_PLAYER)) {
                     TAB.getInstance().getFeatureManager().onEntryAdd(player, item.getUuid(), item.getUsername());
                 }
@@ -7,7 +7,6 @@ import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundMoveEntityPacket;
 import net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket;
 import net.minecraft.network.protocol.game.ClientboundTeleportEntityPacket;
-import net.minecraft.world.entity.decoration.ArmorStand;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
@@ -22,9 +21,6 @@ public class FabricEntityView implements EntityView {
     @NotNull
     private final FabricTabPlayer player;
 
-    @NotNull
-    private final ArmorStand dummyEntity;
-
     /**
      * Constructs new instance.
      *
@@ -33,9 +29,6 @@ public class FabricEntityView implements EntityView {
      */
     public FabricEntityView(@NotNull FabricTabPlayer player) {
         this.player = player;
-
-        // Make level not null, because some mods hacking deep into the server code cause NPE
-        dummyEntity = new ArmorStand(FabricMultiVersion.getLevel(player.getPlayer()), 0, 0, 0);
     }
 
     @Override
@@ -54,9 +47,7 @@ public class FabricEntityView implements EntityView {
 
     @Override
     public void teleportEntity(int entityId, @NotNull Location location) {
-        dummyEntity.setId(entityId);
-        dummyEntity.setPos(location.getX(), location.getY(), location.getZ());
-        player.sendPacket(new ClientboundTeleportEntityPacket(dummyEntity));
+        player.sendPacket(FabricMultiVersion.newTeleportPacket(entityId, location));
     }
 
     @Override
@@ -27,6 +27,9 @@ import net.minecraft.world.scores.criteria.ObjectiveCriteria.RenderType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.UUID;
 
 /**
@@ -38,12 +41,52 @@ public class FabricMultiVersion {
     public static final Loader loaderNew = new Loader_1_20_5();
     public static final Loader loaderOld = createOldLoader();
 
+    /** Component#setStyle for 1.16 - 1.18.2, where neither loader has compatible signature, {@code null} on other versions */
+    @Nullable
+    private static final MethodHandle setStyle1_16 = findBetween16And18(Component.class, "method_10862", void.class, Style.class);
+
+    /** ServerPlayer#sendMessage for 1.16 - 1.18.2, where neither loader has compatible signature, {@code null} on other versions */
+    @Nullable
+    private static final MethodHandle sendMessage1_16 = findBetween16And18(ServerPlayer.class, "method_9203", void.class, Component.class, UUID.class);
+
+    /** Sender UUID used in chat messages on 1.16 - 1.18.2 */
+    private static final UUID NIL_UUID = new UUID(0, 0);
+
     @SneakyThrows
     private static Loader createOldLoader() {
         return (Loader) Class.forName("me.neznamy.tab.platforms.fabric.loader.Loader_1_14_4")
                 .getConstructor(ProtocolVersion.class).newInstance(serverVersion);
     }
 
+    /**
+     * Resolves public method by intermediary name and converts it into a method handle
+     * of given type if server version is between 1.16 and 1.18.2. Returns {@code null}
+     * on other versions, where the method is not used.
+     *
+     * @param   owner
+     *          Class (or superclass) of the instance the method will be invoked on
+     * @param   name
+     *          Intermediary name of the method
+     * @param   returnType
+     *          Return type to adapt the handle to
+     * @param   parameterTypes
+     *          Parameter types of the method
+     * @return  Method handle adapted to {@code (owner, parameterTypes) -> returnType} or {@code null}
+     */
+    @Nullable
+    @SneakyThrows
+    private static MethodHandle findBetween16And18(@NotNull Class<?> owner, @NotNull String name,
+                                                   @NotNull Class<?> returnType, @NotNull Class<?>... parameterTypes) {
+        if (serverVersion.getMinorVersion() < 16 || serverVersion.getMinorVersion() >= 19) return null;
+        Class<?> declaringClass = owner;
+        if (owner == Component.class) {
+            // Setter was moved into MutableComponent in 1.16
+            declaringClass = Class.forName("net.minecraft.class_5250");
+        }
+        MethodHandle handle = MethodHandles.publicLookup().unreflect(declaringClass.getMethod(name, parameterTypes));
+        return handle.asType(MethodType.methodType(returnType, owner, parameterTypes));
+    }
+
     public static boolean isSneaking(@NotNull ServerPlayer player) {
         if (serverVersion.getMinorVersion() >= 15) return loaderNew.isSneaking(player);
         return loaderOld.isSneaking(player);
@@ -130,18 +173,23 @@ public class FabricMultiVersion {
     @SneakyThrows
     public static void setStyle(@NotNull Component component, @NotNull Style style) {
         if (serverVersion.getMinorVersion() >= 19) loaderNew.setStyle(component, style);
-        else if (serverVersion.getMinorVersion() >= 16) component.getClass().getMethod("method_10862", Style.class).invoke(component, style);
+        else if (setStyle1_16 != null) setStyle1_16.invokeExact(component, style);
         else loaderOld.setStyle(component, style);
     }
 
     @SneakyThrows
     public static void sendMessage(@NotNull ServerPlayer player, @NotNull Component message) {
         if (serverVersion.getMinorVersion() >= 19) loaderNew.sendMessage(player, message);
-        else if (serverVersion.getMinorVersion() >= 16)
-                player.getClass().getMethod("method_9203", Component.class, UUID.class).invoke(player, message, new UUID(0, 0));
+        else if (sendMessage1_16 != null) sendMessage1_16.invokeExact(player, message, NIL_UUID);
         else loaderOld.sendMessage(player, message);
     }
 
+    @NotNull
+    public static Packet<ClientGamePacketListener> newTeleportPacket(int entityId, @NotNull Location location) {
+        if (serverVersion.getMinorVersion() >= 17) return loaderNew.newTeleportPacket(entityId, location);
+        return loaderOld.newTeleportPacket(entityId, location);
+    }
+
     @NotNull
     public static Packet<ClientGamePacketListener> newEntityMetadata(int entityId, @NotNull EntityData data) {
         if (serverVersion.getNetworkId() >= ProtocolVersion.V1_19_3.getNetworkId()) return loaderNew.newEntityMetadata(entityId, data);
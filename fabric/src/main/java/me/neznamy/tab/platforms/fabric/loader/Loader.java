@@ -1,6 +1,7 @@
 package me.neznamy.tab.platforms.fabric.loader;
 
 import com.mojang.authlib.properties.Property;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import me.neznamy.tab.platforms.fabric.FabricScoreboard;
 import me.neznamy.tab.platforms.fabric.FabricTabList;
@@ -11,6 +12,7 @@ import me.neznamy.tab.shared.chat.TabComponent;
 import me.neznamy.tab.shared.platform.TabList;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.Style;
 import net.minecraft.network.protocol.Packet;
@@ -69,6 +71,9 @@ public interface Loader {
     @NotNull
     Packet<ClientGamePacketListener> spawnEntity(@NotNull Level level, int id, @NotNull UUID uuid, @NotNull Object type, @NotNull Location location);
 
+    @NotNull
+    Packet<ClientGamePacketListener> newTeleportPacket(int entityId, @NotNull Location location);
+
     @NotNull
     Packet<ClientGamePacketListener> newEntityMetadata(int entityId, @NotNull EntityData data);
 
@@ -124,4 +129,28 @@ public interface Loader {
     void logInfo(@NotNull TabComponent message);
 
     void logWarn(@NotNull TabComponent message);
+
+    /**
+     * Writes content of entity teleport packet into a new buffer. The format
+     * is the same on all supported versions, which allows building the packet
+     * without going through an entity.
+     *
+     * @param   entityId
+     *          Entity id
+     * @param   location
+     *          Location to teleport to
+     * @return  Buffer with teleport packet content
+     */
+    @NotNull
+    static FriendlyByteBuf writeTeleport(int entityId, @NotNull Location location) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(32));
+        buf.writeVarInt(entityId);
+        buf.writeDouble(location.getX());
+        buf.writeDouble(location.getY());
+        buf.writeDouble(location.getZ());
+        buf.writeByte(0); // Yaw
+        buf.writeByte(0); // Pitch
+        buf.writeBoolean(false); // On ground
+        return buf;
+    }
 }
@@ -159,6 +159,12 @@ public class Loader_1_20_5 implements Loader {
                 0, 0, (EntityType<?>) type, 0, Vec3.ZERO, 0);
     }
 
+    @Override
+    @NotNull
+    public Packet<ClientGamePacketListener> newTeleportPacket(int entityId, @NotNull Location location) {
+        return new ClientboundTeleportEntityPacket(Loader.writeTeleport(entityId, location));
+    }
+
     @Override
     @NotNull
     public Packet<ClientGamePacketListener> newEntityMetadata(int entityId, @NotNull EntityData data) {
@@ -191,6 +197,7 @@ public class Loader_1_20_5 implements Loader {
             GameProfile profile = nmsData.profile();
             Component displayName = nmsData.displayName();
             int latency = nmsData.latency();
+            GameType gameMode = nmsData.gameMode();
             if (actions.contains(ClientboundPlayerInfoUpdatePacket.Action.UPDATE_DISPLAY_NAME)) {
                 Component expectedDisplayName = ((FabricTabPlayer)receiver).getTabList().getExpectedDisplayName(nmsData.profileId());
                 if (expectedDisplayName != null) displayName = expectedDisplayName;
@@ -198,10 +205,13 @@ public class Loader_1_20_5 implements Loader {
             if (actions.contains(ClientboundPlayerInfoUpdatePacket.Action.UPDATE_LATENCY)) {
                 latency = TAB.getInstance().getFeatureManager().onLatencyChange(receiver, nmsData.profileId(), latency);
             }
+            if (actions.contains(ClientboundPlayerInfoUpdatePacket.Action.UPDATE_GAME_MODE)) {
+                gameMode = GameType.byId(TAB.getInstance().getFeatureManager().onEntryGameModeChange(receiver, nmsData.profileId(), gameMode.getId()));
+            }
             if (actions.contains(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER)) {
                 TAB.getInstance().getFeatureManager().onEntryAdd(receiver, nmsData.profileId(), profile.getName());
             }
-            updatedList.add(new ClientboundPlayerInfoUpdatePacket.Entry(nmsData.profileId(), profile, nmsData.listed(), latency, nmsData.gameMode(), displayName, nmsData.chatSession()));
+            updatedList.add(new ClientboundPlayerInfoUpdatePacket.Entry(nmsData.profileId(), profile, nmsData.listed(), latency, gameMode, displayName, nmsData.chatSession()));
         }
         packet.entries = updatedList;
     }
@@ -44,6 +44,9 @@ import net.minecraft.world.scores.criteria.ObjectiveCriteria.RenderType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.*;
@@ -60,21 +63,40 @@ import java.util.*;
 public class Loader_1_14_4 implements Loader {
 
     private final ProtocolVersion serverVersion;
+
+    /** Entity used to create spawn packets, guarded by this loader */
     private ArmorStand dummyEntity;
-    private Class<Enum> tablistActionClass;
 
-    @SneakyThrows
-    private ClientboundPlayerInfoPacket createInfoPacket(@NotNull ProtocolVersion serverVersion, @NotNull TabList.Action action) {
-        if (tablistActionClass == null) {
-            if (serverVersion.getMinorVersion() >= 17) {
-                tablistActionClass = (Class<Enum>) Class.forName("net.minecraft.class_2703$class_5893");
-            } else {
-                tablistActionClass = (Class<Enum>) Class.forName("net.minecraft.class_2703$class_2704");
-            }
-        }
-        Class<?> classType = serverVersion.getMinorVersion() >= 17 ? Collection.class : Iterable.class;
-        return ClientboundPlayerInfoPacket.class.getConstructor(tablistActionClass, classType)
-                .newInstance(Enum.valueOf(tablistActionClass, action.name()), Collections.emptyList());
+    // Members below are resolved on first use, because some of them do not exist on all versions
+    // this loader is used for. Fields are volatile, because they are first used from both the main
+    // thread and netty threads. Resolving a member twice in a race is harmless.
+
+    /** Tablist packet members, does not exist on 1.19.3+ */
+    private volatile PlayerInfo playerInfo;
+
+    /** Team packet members */
+    private volatile TeamPacket teamPacket;
+
+    /** Header/footer packet members */
+    private volatile HeaderFooter headerFooter;
+
+    /** Logger members */
+    private volatile Logger logger;
+
+    /** Field with entity ids in destroy packet */
+    private volatile MethodHandle destroyedEntities;
+
+    /** Field with entity id in player spawn packet */
+    private volatile MethodHandle spawnedPlayerId;
+
+    /** Field with display slot in display objective packet */
+    private volatile MethodHandle displaySlot;
+
+    @NotNull
+    private PlayerInfo playerInfo() {
+        PlayerInfo info = playerInfo;
+        if (info == null) playerInfo = info = new PlayerInfo(serverVersion);
+        return info;
     }
 
     @Override
@@ -152,10 +174,11 @@ public class Loader_1_14_4 implements Loader {
     @NotNull
     @SneakyThrows
     public Packet<?> newHeaderFooter(@NotNull Component header, @NotNull Component footer) {
-        ClientboundTabListPacket packet = ClientboundTabListPacket.class.getConstructor().newInstance();
-        List<Field> fields = ReflectionUtils.getFields(ClientboundTabListPacket.class, Component.class);
-        fields.get(0).set(packet, header);
-        fields.get(1).set(packet, footer);
+        HeaderFooter headerFooter = this.headerFooter;
+        if (headerFooter == null) this.headerFooter = headerFooter = new HeaderFooter();
+        ClientboundTabListPacket packet = new ClientboundTabListPacket();
+        headerFooter.header.invoke(packet, header);
+        headerFooter.footer.invoke(packet, footer);
         return packet;
     }
 
@@ -163,18 +186,19 @@ public class Loader_1_14_4 implements Loader {
     @SneakyThrows
     public void checkTeamPacket(@NotNull Packet<?> packet, @NotNull FabricScoreboard scoreboard) {
         if (packet instanceof ClientboundSetPlayerTeamPacket) {
-            int action = ReflectionUtils.getInstanceFields(packet.getClass(), int.class).get(0).getInt(packet);
+            TeamPacket teamPacket = this.teamPacket;
+            if (teamPacket == null) this.teamPacket = teamPacket = new TeamPacket();
+            int action = (int) teamPacket.method.invoke(packet);
             if (action == Scoreboard.TeamAction.REMOVE || action == Scoreboard.TeamAction.UPDATE) return;
-            Field playersField = ReflectionUtils.getFields(packet.getClass(), Collection.class).get(0);
-            Collection<String> players = (Collection<String>) playersField.get(packet);
-            String teamName = String.valueOf(ReflectionUtils.getFields(packet.getClass(), String.class).get(0).get(packet));
-            playersField.set(packet, scoreboard.onTeamPacket(action, teamName, players));
+            Collection<String> players = (Collection<String>) teamPacket.getPlayers.invoke(packet);
+            String teamName = String.valueOf(teamPacket.name.invoke(packet));
+            teamPacket.setPlayers.invoke(packet, scoreboard.onTeamPacket(action, teamName, players));
         }
     }
 
     @Override
     @NotNull
-    public Packet<ClientGamePacketListener> spawnEntity(@NotNull Level level, int id, @NotNull UUID uuid, @NotNull Object type, @NotNull Location location) {
+    public synchronized Packet<ClientGamePacketListener> spawnEntity(@NotNull Level level, int id, @NotNull UUID uuid, @NotNull Object type, @NotNull Location location) {
         if (dummyEntity == null) dummyEntity = new ArmorStand(level, 0, 0, 0);
         dummyEntity.setId(id);
         dummyEntity.setUUID(uuid);
@@ -182,6 +206,15 @@ public class Loader_1_14_4 implements Loader {
         return new ClientboundAddMobPacket(dummyEntity);
     }
 
+    @Override
+    @NotNull
+    @SneakyThrows
+    public Packet<ClientGamePacketListener> newTeleportPacket(int entityId, @NotNull Location location) {
+        ClientboundTeleportEntityPacket packet = new ClientboundTeleportEntityPacket();
+        packet.read(Loader.writeTeleport(entityId, location));
+        return packet;
+    }
+
     @Override
     @NotNull
     public Packet<ClientGamePacketListener> newEntityMetadata(int entityId, @NotNull EntityData data) {
@@ -208,20 +241,27 @@ public class Loader_1_14_4 implements Loader {
     @Override
     @SneakyThrows
     public void onPlayerInfo(@NotNull TabPlayer receiver, @NotNull Object packet) {
-        Enum action = (Enum) ReflectionUtils.getFields(packet.getClass(), tablistActionClass).get(0).get(packet);
-        List<PlayerUpdate> players = (List<PlayerUpdate>) ReflectionUtils.getFields(packet.getClass(), List.class).get(0).get(packet);
+        PlayerInfo info = playerInfo();
+        TabList.Action action = info.actionsByOrdinal[((Enum) info.action.invoke(packet)).ordinal()];
+        List<PlayerUpdate> players = (List<PlayerUpdate>) info.getPlayers.invoke(packet);
         for (PlayerUpdate nmsData : players) {
             GameProfile profile = nmsData.getProfile();
-            Field displayNameField = ReflectionUtils.getFields(PlayerUpdate.class, Component.class).get(0);
-            Field latencyField = ReflectionUtils.getFields(PlayerUpdate.class, int.class).get(0);
-            if (action.name().equals(TabList.Action.UPDATE_DISPLAY_NAME.name()) || action.name().equals(TabList.Action.ADD_PLAYER.name())) {
+            if (action == TabList.Action.UPDATE_DISPLAY_NAME || action == TabList.Action.ADD_PLAYER) {
                 Object expectedName = ((FabricTabPlayer)receiver).getTabList().getExpectedDisplayName(profile.getId());
-                if (expectedName != null) displayNameField.set(nmsData, expectedName);
+                if (expectedName != null) info.setDisplayName.invoke(nmsData, expectedName);
+            }
+            if (action == TabList.Action.UPDATE_LATENCY || action == TabList.Action.ADD_PLAYER) {
+                int latency = (int) info.getLatency.invoke(nmsData);
+                info.setLatency.invoke(nmsData, TAB.getInstance().getFeatureManager().onLatencyChange(receiver, profile.getId(), latency));
             }
-            if (action.name().equals(TabList.Action.UPDATE_LATENCY.name()) || action.name().equals(TabList.Action.ADD_PLAYER.name())) {
-                latencyField.set(nmsData, TAB.getInstance().getFeatureManager().onLatencyChange(receiver, profile.getId(), latencyField.getInt(nmsData)));
+            if (action == TabList.Action.UPDATE_GAME_MODE || action == TabList.Action.ADD_PLAYER) {
+                GameType gameMode = (GameType) info.getGameMode.invoke(nmsData);
+                if (gameMode != null) {
+                    int newGameMode = TAB.getInstance().getFeatureManager().onEntryGameModeChange(receiver, profile.getId(), gameMode.getId());
+                    if (newGameMode != gameMode.getId()) info.setGameMode.invoke(nmsData, GameType.byId(newGameMode));
+                }
             }
-            if (action.name().equals(TabList.Action.ADD_PLAYER.name())) {
+            if (action == TabList.Action.ADD_PLAYER) {
                 TAB.getInstance().getFeatureManager().onEntryAdd(receiver, profile.getId(), profile.getName());
             }
         }
@@ -231,26 +271,25 @@ public class Loader_1_14_4 implements Loader {
     @NotNull
     @SneakyThrows
     public Packet<?> buildTabListPacket(TabList.@NotNull Action action, @NotNull FabricTabList.Builder entry) {
-        ClientboundPlayerInfoPacket packet = createInfoPacket(serverVersion, action);
-        ReflectionUtils.getFields(ClientboundPlayerInfoPacket.class, List.class).get(0).set(packet, Collections.singletonList(createUpdate(serverVersion, entry)));
-        return packet;
+        PlayerInfo info = playerInfo();
+        Object packet = info.newPacket.invoke(info.actions.get(action), Collections.emptyList());
+        info.setPlayers.invoke(packet, Collections.singletonList(createUpdate(info, entry)));
+        return (Packet<?>) packet;
     }
 
     @SneakyThrows
-    @SuppressWarnings("unchecked")
-    private PlayerUpdate createUpdate(@NotNull ProtocolVersion serverVersion, @NotNull FabricTabList.Builder entry) {
-        Constructor<PlayerUpdate> constructor = (Constructor<PlayerUpdate>) PlayerUpdate.class.getConstructors()[0];
+    private Object createUpdate(@NotNull PlayerInfo info, @NotNull FabricTabList.Builder entry) {
         if (serverVersion.getMinorVersion() >= 19) {
             // 1.19 - 1.19.2
-            return constructor.newInstance(
+            return info.newUpdate.invoke(
                     entry.createProfile(), entry.getLatency(), GameType.byId(entry.getGameMode()), entry.getDisplayName(), null);
         } else if (serverVersion.getMinorVersion() >= 17) {
             // 1.17 - 1.18.2
-            return constructor.newInstance(
+            return info.newUpdate.invoke(
                     entry.createProfile(), entry.getLatency(), GameType.byId(entry.getGameMode()), entry.getDisplayName());
         } else {
             // 1.14 - 1.16.5
-            return constructor.newInstance(new ClientboundPlayerInfoPacket(null, Collections.emptyList()),
+            return info.newUpdate.invoke(new ClientboundPlayerInfoPacket(null, Collections.emptyList()),
                     entry.createProfile(), entry.getLatency(), GameType.byId(entry.getGameMode()), entry.getDisplayName());
         }
     }
@@ -287,7 +326,9 @@ public class Loader_1_14_4 implements Loader {
     @Override
     @SneakyThrows
     public int getSpawnedPlayerId(@NotNull Packet<?> packet) {
-        return ReflectionUtils.getFields(ClientboundAddPlayerPacket.class, int.class).get(0).getInt(packet);
+        MethodHandle handle = spawnedPlayerId;
+        if (handle == null) spawnedPlayerId = handle = getter(ReflectionUtils.getFields(ClientboundAddPlayerPacket.class, int.class).get(0));
+        return (int) handle.invoke(packet);
     }
 
     @Override
@@ -298,7 +339,9 @@ public class Loader_1_14_4 implements Loader {
     @Override
     @SneakyThrows
     public int getDisplaySlot(@NotNull ClientboundSetDisplayObjectivePacket packet) {
-        return ReflectionUtils.getFields(packet.getClass(), int.class).get(0).getInt(packet);
+        MethodHandle handle = displaySlot;
+        if (handle == null) displaySlot = handle = getter(ReflectionUtils.getFields(ClientboundSetDisplayObjectivePacket.class, int.class).get(0));
+        return (int) handle.invoke(packet);
     }
 
     @Override
@@ -329,7 +372,9 @@ public class Loader_1_14_4 implements Loader {
     @Override
     @SneakyThrows
     public int[] getDestroyedEntities(Packet<?> destroyPacket) {
-        return (int[]) ReflectionUtils.getOnlyField(destroyPacket.getClass()).get(destroyPacket);
+        MethodHandle handle = destroyedEntities;
+        if (handle == null) destroyedEntities = handle = getter(ReflectionUtils.getOnlyField(destroyPacket.getClass()));
+        return (int[]) handle.invoke(destroyPacket);
     }
 
     @Override
@@ -353,14 +398,130 @@ public class Loader_1_14_4 implements Loader {
     @Override
     @SneakyThrows
     public void logInfo(@NotNull TabComponent message) {
-        Object logger = ReflectionUtils.getFields(MinecraftServer.class, Class.forName("org.apache.logging.log4j.Logger")).get(0).get(null);
-        logger.getClass().getMethod("info", String.class).invoke(logger, "[TAB] " + message.toLegacyText());
+        logger().info.invoke("[TAB] " + message.toLegacyText());
     }
 
     @Override
     @SneakyThrows
     public void logWarn(@NotNull TabComponent message) {
-        Object logger = ReflectionUtils.getFields(MinecraftServer.class, Class.forName("org.apache.logging.log4j.Logger")).get(0).get(null);
-        logger.getClass().getMethod("warn", String.class).invoke(logger, "[TAB] " + message.toLegacyText());
+        logger().warn.invoke("[TAB] " + message.toLegacyText());
+    }
+
+    @NotNull
+    private Logger logger() {
+        Logger logger = this.logger;
+        if (logger == null) this.logger = logger = new Logger();
+        return logger;
+    }
+
+    @NotNull
+    @SneakyThrows
+    private static MethodHandle getter(@NotNull Field field) {
+        return MethodHandles.lookup().unreflectGetter(field);
+    }
+
+    @NotNull
+    @SneakyThrows
+    private static MethodHandle setter(@NotNull Field field) {
+        return MethodHandles.lookup().unreflectSetter(field);
+    }
+
+    /**
+     * Members of tablist packet (1.14 - 1.19.2).
+     */
+    private static class PlayerInfo {
+
+        /** NMS actions by TAB's action */
+        private final Map<TabList.Action, Enum> actions = new EnumMap<>(TabList.Action.class);
+
+        /** TAB's actions by ordinal of NMS action */
+        private final TabList.Action[] actionsByOrdinal;
+
+        private final MethodHandle newPacket;
+        private final MethodHandle action;
+        private final MethodHandle getPlayers;
+        private final MethodHandle setPlayers;
+        private final MethodHandle newUpdate;
+        private final MethodHandle setDisplayName;
+        private final MethodHandle getLatency;
+        private final MethodHandle setLatency;
+        private final MethodHandle getGameMode;
+        private final MethodHandle setGameMode;
+
+        @SneakyThrows
+        private PlayerInfo(@NotNull ProtocolVersion serverVersion) {
+            Class<Enum> actionClass;
+            if (serverVersion.getMinorVersion() >= 17) {
+                actionClass = (Class<Enum>) Class.forName("net.minecraft.class_2703$class_5893");
+            } else {
+                actionClass = (Class<Enum>) Class.forName("net.minecraft.class_2703$class_2704");
+            }
+            Enum[] nmsActions = actionClass.getEnumConstants();
+            actionsByOrdinal = new TabList.Action[nmsActions.length];
+            for (Enum nmsAction : nmsActions) {
+                TabList.Action tabAction = TabList.Action.valueOf(nmsAction.name());
+                actions.put(tabAction, nmsAction);
+                actionsByOrdinal[nmsAction.ordinal()] = tabAction;
+            }
+            Class<?> classType = serverVersion.getMinorVersion() >= 17 ? Collection.class : Iterable.class;
+            newPacket = MethodHandles.lookup().unreflectConstructor(ClientboundPlayerInfoPacket.class.getConstructor(actionClass, classType));
+            action = getter(ReflectionUtils.getFields(ClientboundPlayerInfoPacket.class, actionClass).get(0));
+            Field players = ReflectionUtils.getFields(ClientboundPlayerInfoPacket.class, List.class).get(0);
+            getPlayers = getter(players);
+            setPlayers = setter(players);
+            Constructor<?> updateConstructor = PlayerUpdate.class.getConstructors()[0];
+            newUpdate = MethodHandles.lookup().unreflectConstructor(updateConstructor);
+            setDisplayName = setter(ReflectionUtils.getFields(PlayerUpdate.class, Component.class).get(0));
+            Field latency = ReflectionUtils.getFields(PlayerUpdate.class, int.class).get(0);
+            getLatency = getter(latency);
+            setLatency = setter(latency);
+            Field gameMode = ReflectionUtils.getFields(PlayerUpdate.class, GameType.class).get(0);
+            getGameMode = getter(gameMode);
+            setGameMode = setter(gameMode);
+        }
+    }
+
+    /**
+     * Members of team packet (1.14 - 1.16.5).
+     */
+    private static class TeamPacket {
+
+        private final MethodHandle method = getter(ReflectionUtils.getInstanceFields(ClientboundSetPlayerTeamPacket.class, int.class).get(0));
+        private final MethodHandle name = getter(ReflectionUtils.getFields(ClientboundSetPlayerTeamPacket.class, String.class).get(0));
+        private final Field players = ReflectionUtils.getFields(ClientboundSetPlayerTeamPacket.class, Collection.class).get(0);
+        private final MethodHandle getPlayers = getter(players);
+        private final MethodHandle setPlayers = setter(players);
+    }
+
+    /**
+     * Members of header/footer packet (1.14 - 1.16.5).
+     */
+    private static class HeaderFooter {
+
+        private final MethodHandle header;
+        private final MethodHandle footer;
+
+        private HeaderFooter() {
+            List<Field> fields = ReflectionUtils.getFields(ClientboundTabListPacket.class, Component.class);
+            header = setter(fields.get(0));
+            footer = setter(fields.get(1));
+        }
+    }
+
+    /**
+     * Log4j logger of the server (1.14 - 1.18.1).
+     */
+    private static class Logger {
+
+        private final MethodHandle info;
+        private final MethodHandle warn;
+
+        @SneakyThrows
+        private Logger() {
+            Class<?> loggerClass = Class.forName("org.apache.logging.log4j.Logger");
+            Object logger = ReflectionUtils.getFields(MinecraftServer.class, loggerClass).get(0).get(null);
+            info = MethodHandles.publicLookup().findVirtual(loggerClass, "info", MethodType.methodType(void.class, String.class)).bindTo(logger);
+            warn = MethodHandles.publicLookup().findVirtual(loggerClass, "warn", MethodType.methodType(void.class, String.class)).bindTo(logger);
+        }
     }
 }
@@ -35,4 +35,5 @@ include(":sponge7")
 include(":sponge8")
 include(":fabric")
 include(":fabric:v1_14_4")
-include(":jar")
\ No newline at end of file
+include(":jar")
+include(":benchmark")
\ No newline at end of file
@@ -22,6 +22,16 @@ dependencies {
     compileOnlyApi("net.kyori:adventure-text-serializer-legacy:4.13.0")
     compileOnlyApi("net.kyori:adventure-text-serializer-gson:4.13.0")
     compileOnlyApi("net.kyori:adventure-text-minimessage:4.13.0")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testImplementation("net.kyori:adventure-text-minimessage:4.13.0")
+    testImplementation("net.kyori:adventure-text-serializer-legacy:4.13.0")
+    testImplementation("com.google.guava:guava:31.1-jre")
+    testImplementation("com.h2database:h2:2.2.224")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
 
 blossom {
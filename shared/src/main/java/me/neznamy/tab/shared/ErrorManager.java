@@ -292,6 +292,16 @@ public class ErrorManager {
                 t, true, errorLog);
     }
 
+    /**
+     * Prints error message when skin cache file could not be saved.
+     *
+     * @param   t
+     *          Thrown error
+     */
+    public void skinCacheSaveError(@NotNull Throwable t) {
+        printError("Failed to save skin cache: " + t.getMessage(), t, true, errorLog);
+    }
+
     /**
      * Prints warn if player is not in plugin's scoreboard.
      *
@@ -1,5 +1,6 @@
 package me.neznamy.tab.shared;
 
+import java.lang.reflect.Array;
 import java.util.*;
 
 import me.neznamy.tab.api.placeholder.PlayerPlaceholder;
@@ -35,18 +36,33 @@ public class FeatureManager {
     @NotNull
     private TabFeature[] values = new TabFeature[0];
 
-    /** Flag tracking presence of a feature listening to raw packets for faster check with better performance */
-    private boolean hasPacketSendListener;
-
-    /** Flag tracking presence of a feature listening to latency change for faster check with better performance */
-    private boolean hasLatencyChangeListener;
-
-    /** Flag tracking presence of a feature listening to command preprocess for faster check with better performance */
-    private boolean hasCommandListener;
+    /*
+     * Registered features listening to each event, rebuilt when a feature is registered or unregistered,
+     * so events only iterate features listening to them without type checks
+     */
+    @NotNull private Refreshable[] refreshables = new Refreshable[0];
+    @NotNull private Listeners<GameModeListener> gameModeListeners = new Listeners<>(GameModeListener.class);
+    @NotNull private Listeners<QuitListener> quitListeners = new Listeners<>(QuitListener.class);
+    @NotNull private Listeners<JoinListener> joinListeners = new Listeners<>(JoinListener.class);
+    @NotNull private Listeners<WorldSwitchListener> worldSwitchListeners = new Listeners<>(WorldSwitchListener.class);
+    @NotNull private Listeners<ServerSwitchListener> serverSwitchListeners = new Listeners<>(ServerSwitchListener.class);
+    @NotNull private Listeners<CommandListener> commandListeners = new Listeners<>(CommandListener.class);
+    @NotNull private Listeners<PacketSendListener> packetSendListeners = new Listeners<>(PacketSendListener.class);
+    @NotNull private Listeners<DisplayObjectiveListener> displayObjectiveListeners = new Listeners<>(DisplayObjectiveListener.class);
+    @NotNull private Listeners<ObjectiveListener> objectiveListeners = new Listeners<>(ObjectiveListener.class);
+    @NotNull private Listeners<VanishListener> vanishListeners = new Listeners<>(VanishListener.class);
+    @NotNull private Listeners<EntryAddListener> entryAddListeners = new Listeners<>(EntryAddListener.class);
+    @NotNull private Listeners<LatencyListener> latencyListeners = new Listeners<>(LatencyListener.class);
+    @NotNull private Listeners<EntryGameModeListener> entryGameModeListeners = new Listeners<>(EntryGameModeListener.class);
+    @NotNull private Listeners<LoginPacketListener> loginPacketListeners = new Listeners<>(LoginPacketListener.class);
+    @NotNull private Listeners<TabListClearListener> tabListClearListeners = new Listeners<>(TabListClearListener.class);
 
     /** Commands features listen to */
     private final List<String> listeningCommands = new ArrayList<>();
 
+    /** Players whose join is held until their MySQL data is loaded */
+    private final Map<UUID, TabPlayer> pendingJoins = new HashMap<>();
+
     /**
      * Calls load() on all features.
      * This function is called on plugin startup.
@@ -60,7 +76,7 @@ public class FeatureManager {
         }
         if (TAB.getInstance().getConfiguration().getUsers() instanceof MySQLUserConfiguration) {
             MySQLUserConfiguration users = (MySQLUserConfiguration) TAB.getInstance().getConfiguration().getUsers();
-            for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) users.load(p);
+            for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) users.load(p, () -> {});
         }
     }
 
@@ -82,6 +98,8 @@ public class FeatureManager {
         if (TAB.getInstance().getPlatform() instanceof ProxyPlatform) {
             for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
                 ((ProxyTabPlayer)player).sendPluginMessage(new Unload());
+                // Processing thread is about to be shut down, send everything now
+                ((ProxyTabPlayer)player).getBridgeOutbox().flush();
             }
         }
     }
@@ -95,8 +113,8 @@ public class FeatureManager {
      *          whether refresh should be forced or not
      */
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
-        for (TabFeature f : values) {
-            if (f instanceof Refreshable) ((Refreshable)f).refresh(refreshed, force);
+        for (Refreshable f : refreshables) {
+            f.refresh(refreshed, force);
         }
     }
 
@@ -107,14 +125,28 @@ public class FeatureManager {
      *          Player whose gamemode has changed.
      */
     public void onGameModeChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof GameModeListener)) continue;
-            long time = System.nanoTime();
-            ((GameModeListener) f).onGameModeChange(player);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.GAMEMODE_CHANGE, System.nanoTime() - time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<GameModeListener> listeners = gameModeListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            GameModeListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onGameModeChange(player);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], player, System.nanoTime() - time);
         }
     }
 
+    /**
+     * Forwards quit of player with given UUID to all features. If the join
+     * of the player is still held, it is cancelled instead.
+     *
+     * @param   playerUUID
+     *          UUID of player who left
+     */
+    public void onQuit(@NotNull UUID playerUUID) {
+        TabPlayer player = TAB.getInstance().getPlayer(playerUUID);
+        onQuit(player != null ? player : pendingJoins.get(playerUUID));
+    }
+
     /**
      * Forwards player quit to all features
      *
@@ -124,12 +156,15 @@ public class FeatureManager {
     public void onQuit(@Nullable TabPlayer disconnectedPlayer) {
         if (disconnectedPlayer == null) return;
         disconnectedPlayer.markOffline();
+        if (pendingJoins.remove(disconnectedPlayer.getUniqueId(), disconnectedPlayer)) return; // Features do not know the player yet
         long millis = System.currentTimeMillis();
-        for (TabFeature f : values) {
-            if (!(f instanceof QuitListener)) continue;
-            long time = System.nanoTime();
-            ((QuitListener)f).onQuit(disconnectedPlayer);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_QUIT, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<QuitListener> listeners = quitListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            QuitListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onQuit(disconnectedPlayer);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], disconnectedPlayer, System.nanoTime() - time);
         }
         TAB.getInstance().removePlayer(disconnectedPlayer);
         TAB.getInstance().debug("Player quit of " + disconnectedPlayer.getName() + " processed in " + (System.currentTimeMillis()-millis) + "ms");
@@ -142,22 +177,32 @@ public class FeatureManager {
      *          Player who joined
      */
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
+        if (TAB.getInstance().getConfiguration().getUsers() instanceof MySQLUserConfiguration) {
+            // Held until data is loaded, so features use them from the start
+            pendingJoins.put(connectedPlayer.getUniqueId(), connectedPlayer);
+            ((MySQLUserConfiguration) TAB.getInstance().getConfiguration().getUsers()).load(connectedPlayer, () -> {
+                if (pendingJoins.remove(connectedPlayer.getUniqueId(), connectedPlayer)) processJoin(connectedPlayer);
+            });
+            return;
+        }
+        processJoin(connectedPlayer);
+    }
+
+    private void processJoin(@NotNull TabPlayer connectedPlayer) {
         long millis = System.currentTimeMillis();
         TAB.getInstance().addPlayer(connectedPlayer);
-        for (TabFeature f : values) {
-            if (!(f instanceof JoinListener)) continue;
-            long time = System.nanoTime();
-            ((JoinListener)f).onJoin(connectedPlayer);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_JOIN, System.nanoTime()-time);
-            TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed player join in " + (System.nanoTime()-time)/1000000 + "ms");
-
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        boolean debug = TAB.getInstance().getConfiguration().isDebugMode();
+        Listeners<JoinListener> listeners = joinListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            JoinListener f = listeners.features[i];
+            long time = measure || debug ? System.nanoTime() : 0;
+            f.onJoin(connectedPlayer);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], connectedPlayer, System.nanoTime() - time);
+            if (debug) TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed player join in " + (System.nanoTime()-time)/1000000 + "ms");
         }
         connectedPlayer.markAsLoaded(true);
         TAB.getInstance().debug("Player join of " + connectedPlayer.getName() + " processed in " + (System.currentTimeMillis()-millis) + "ms");
-        if (TAB.getInstance().getConfiguration().getUsers() instanceof MySQLUserConfiguration) {
-            MySQLUserConfiguration users = (MySQLUserConfiguration) TAB.getInstance().getConfiguration().getUsers();
-            users.load(connectedPlayer);
-        }
     }
 
     /**
@@ -170,14 +215,20 @@ public class FeatureManager {
      */
     public void onWorldChange(@NotNull UUID playerUUID, @NotNull String to) {
         TabPlayer changed = TAB.getInstance().getPlayer(playerUUID);
-        if (changed == null) return;
+        if (changed == null) {
+            TabPlayer pending = pendingJoins.get(playerUUID);
+            if (pending != null) pending.setWorld(to);
+            return;
+        }
         String from = changed.getWorld();
         changed.setWorld(to);
-        for (TabFeature f : values) {
-            if (!(f instanceof WorldSwitchListener)) continue;
-            long time = System.nanoTime();
-            ((WorldSwitchListener) f).onWorldChange(changed, from, to);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.WORLD_SWITCH, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<WorldSwitchListener> listeners = worldSwitchListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            WorldSwitchListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onWorldChange(changed, from, to);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], changed, System.nanoTime() - time);
         }
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.WORLD)).updateValue(changed, to);
     }
@@ -192,15 +243,21 @@ public class FeatureManager {
      */
     public void onServerChange(@NotNull UUID playerUUID, @NotNull String to) {
         TabPlayer changed = TAB.getInstance().getPlayer(playerUUID);
-        if (changed == null) return;
+        if (changed == null) {
+            TabPlayer pending = pendingJoins.get(playerUUID);
+            if (pending != null) pending.setServer(to);
+            return;
+        }
         String from = changed.getServer();
         changed.setServer(to);
         ((ProxyTabPlayer)changed).sendJoinPluginMessage();
-        for (TabFeature f : values) {
-            if (!(f instanceof ServerSwitchListener)) continue;
-            long time = System.nanoTime();
-            ((ServerSwitchListener) f).onServerChange(changed, from, to);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.SERVER_SWITCH, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<ServerSwitchListener> listeners = serverSwitchListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            ServerSwitchListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onServerChange(changed, from, to);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], changed, System.nanoTime() - time);
         }
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.SERVER)).updateValue(changed, to);
     }
@@ -216,14 +273,16 @@ public class FeatureManager {
      * @return  {@code true} if event should be cancelled, {@code false} if not.
      */
     public boolean onCommand(@Nullable TabPlayer sender, @NotNull String command) {
-        if (!hasCommandListener || sender == null) return false;
+        if (commandListeners.features.length == 0 || sender == null) return false;
         if (!listeningCommands.contains(command)) return false;
         boolean cancel = false;
-        for (TabFeature f : values) {
-            if (!(f instanceof CommandListener)) continue;
-            long time = System.nanoTime();
-            if (((CommandListener)f).onCommand(sender, command)) cancel = true;
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.COMMAND_PREPROCESS, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<CommandListener> listeners = commandListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            CommandListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            if (f.onCommand(sender, command)) cancel = true;
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], sender, System.nanoTime() - time);
         }
         return cancel;
     }
@@ -237,12 +296,14 @@ public class FeatureManager {
      *          OUT packet coming from the server
      */
     public void onPacketSend(@NotNull TabPlayer receiver, @NotNull Object packet) {
-        if (!hasPacketSendListener) return;
-        for (TabFeature f : values) {
-            if (!(f instanceof PacketSendListener)) continue;
-            long time = System.nanoTime();
-            ((PacketSendListener)f).onPacketSend(receiver, packet);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.RAW_PACKET_OUT, System.nanoTime()-time);
+        if (packetSendListeners.features.length == 0) return;
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<PacketSendListener> listeners = packetSendListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            PacketSendListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onPacketSend(receiver, packet);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], receiver, System.nanoTime() - time);
         }
     }
 
@@ -257,11 +318,13 @@ public class FeatureManager {
      *          Objective name
      */
     public void onDisplayObjective(@NotNull TabPlayer packetReceiver, int slot, @NotNull String objective) {
-        for (TabFeature f : values) {
-            if (!(f instanceof DisplayObjectiveListener)) continue;
-            long time = System.nanoTime();
-            ((DisplayObjectiveListener)f).onDisplayObjective(packetReceiver, slot, objective);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.ANTI_OVERRIDE, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<DisplayObjectiveListener> listeners = displayObjectiveListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            DisplayObjectiveListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onDisplayObjective(packetReceiver, slot, objective);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
         }
     }
 
@@ -276,11 +339,13 @@ public class FeatureManager {
      *          Objective name
      */
     public void onObjective(@NotNull TabPlayer packetReceiver, int action, @NotNull String objective) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ObjectiveListener)) continue;
-            long time = System.nanoTime();
-            ((ObjectiveListener)f).onObjective(packetReceiver, action, objective);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.ANTI_OVERRIDE, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<ObjectiveListener> listeners = objectiveListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            ObjectiveListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onObjective(packetReceiver, action, objective);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
         }
     }
 
@@ -291,11 +356,13 @@ public class FeatureManager {
      *          Player whose vanish status changed
      */
     public void onVanishStatusChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof VanishListener)) continue;
-            long time = System.nanoTime();
-            ((VanishListener)f).onVanishStatusChange(player);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.VANISH_CHANGE, System.nanoTime()-time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<VanishListener> listeners = vanishListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            VanishListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onVanishStatusChange(player);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], player, System.nanoTime() - time);
         }
     }
 
@@ -310,11 +377,13 @@ public class FeatureManager {
      *          Player name of the entry
      */
     public void onEntryAdd(TabPlayer packetReceiver, UUID id, String name) {
-        for (TabFeature f : values) {
-            if (!(f instanceof EntryAddListener)) continue;
-            long time = System.nanoTime();
-            ((EntryAddListener)f).onEntryAdd(packetReceiver, id, name);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY, System.nanoTime() - time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<EntryAddListener> listeners = entryAddListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            EntryAddListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onEntryAdd(packetReceiver, id, name);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
         }
     }
 
@@ -330,17 +399,44 @@ public class FeatureManager {
      * @return  New latency to use
      */
     public int onLatencyChange(TabPlayer packetReceiver, UUID id, int latency) {
-        if (!hasLatencyChangeListener) return latency;
+        if (latencyListeners.features.length == 0) return latency;
         int newLatency = latency;
-        for (TabFeature f : values) {
-            if (!(f instanceof LatencyListener)) continue;
-            long time = System.nanoTime();
-            newLatency = ((LatencyListener)f).onLatencyChange(packetReceiver, id, newLatency);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PING_CHANGE, System.nanoTime() - time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<LatencyListener> listeners = latencyListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            LatencyListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            newLatency = f.onLatencyChange(packetReceiver, id, newLatency);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
         }
         return newLatency;
     }
 
+    /**
+     * Forwards game mode of a tablist entry in a packet to all features and returns new game mode to use.
+     *
+     * @param   packetReceiver
+     *          Player who received the packet
+     * @param   id
+     *          UUID of the entry
+     * @param   gameMode
+     *          Game mode in the packet
+     * @return  New game mode to use
+     */
+    public int onEntryGameModeChange(TabPlayer packetReceiver, UUID id, int gameMode) {
+        if (entryGameModeListeners.features.length == 0) return gameMode;
+        int newGameMode = gameMode;
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<EntryGameModeListener> listeners = entryGameModeListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            EntryGameModeListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            newGameMode = f.onEntryGameModeChange(packetReceiver, id, newGameMode);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
+        }
+        return newGameMode;
+    }
+
     /**
      * Forwards login packet send to enabled features.
      *
@@ -349,11 +445,13 @@ public class FeatureManager {
      */
     public void onLoginPacket(TabPlayer packetReceiver) {
         packetReceiver.getScoreboard().unfreeze();
-        for (TabFeature f : values) {
-            if (!(f instanceof LoginPacketListener)) continue;
-            long time = System.nanoTime();
-            ((LoginPacketListener)f).onLoginPacket(packetReceiver);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PACKET_LOGIN, System.nanoTime() - time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<LoginPacketListener> listeners = loginPacketListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            LoginPacketListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onLoginPacket(packetReceiver);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
         }
     }
 
@@ -364,11 +462,13 @@ public class FeatureManager {
      *          Player whose tablist got cleared
      */
     public void onTabListClear(TabPlayer packetReceiver) {
-        for (TabFeature f : values) {
-            if (!(f instanceof TabListClearListener)) continue;
-            long time = System.nanoTime();
-            ((TabListClearListener)f).onTabListClear(packetReceiver);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.TABLIST_CLEAR, System.nanoTime() - time);
+        boolean measure = TAB.getInstance().getCPUManager().isTrackingUsage();
+        Listeners<TabListClearListener> listeners = tabListClearListeners;
+        for (int i=0; i<listeners.features.length; i++) {
+            TabListClearListener f = listeners.features[i];
+            long time = measure ? System.nanoTime() : 0;
+            f.onTabListClear(packetReceiver);
+            if (measure) TAB.getInstance().getCPUManager().addTime(listeners.metricIds[i], packetReceiver, System.nanoTime() - time);
         }
     }
 
@@ -382,21 +482,14 @@ public class FeatureManager {
      */
     public void registerFeature(@NotNull String featureName, @NotNull TabFeature featureHandler) {
         features.put(featureName, featureHandler);
-        values = features.values().toArray(new TabFeature[0]);
+        rebuildListeners();
         if (featureHandler instanceof VanishListener) {
             TAB.getInstance().getPlaceholderManager().addUsedPlaceholder(TabConstants.Placeholder.VANISHED);
         }
         if (featureHandler instanceof GameModeListener) {
             TAB.getInstance().getPlaceholderManager().addUsedPlaceholder(TabConstants.Placeholder.GAMEMODE);
         }
-        if (featureHandler instanceof PacketSendListener) {
-            hasPacketSendListener = true;
-        }
-        if (featureHandler instanceof LatencyListener) {
-            hasLatencyChangeListener = true;
-        }
         if (featureHandler instanceof CommandListener) {
-            hasCommandListener = true;
             listeningCommands.add(((CommandListener) featureHandler).getCommand());
         }
     }
@@ -409,7 +502,76 @@ public class FeatureManager {
      */
     public void unregisterFeature(@NotNull String featureName) {
         features.remove(featureName);
+        rebuildListeners();
+    }
+
+    /**
+     * Rebuilds arrays of all registered features and listeners of each event.
+     */
+    private void rebuildListeners() {
         values = features.values().toArray(new TabFeature[0]);
+        refreshables = listeners(Refreshable.class);
+        gameModeListeners = new Listeners<>(GameModeListener.class, TabConstants.CpuUsageCategory.GAMEMODE_CHANGE);
+        quitListeners = new Listeners<>(QuitListener.class, TabConstants.CpuUsageCategory.PLAYER_QUIT);
+        joinListeners = new Listeners<>(JoinListener.class, TabConstants.CpuUsageCategory.PLAYER_JOIN);
+        worldSwitchListeners = new Listeners<>(WorldSwitchListener.class, TabConstants.CpuUsageCategory.WORLD_SWITCH);
+        serverSwitchListeners = new Listeners<>(ServerSwitchListener.class, TabConstants.CpuUsageCategory.SERVER_SWITCH);
+        commandListeners = new Listeners<>(CommandListener.class, TabConstants.CpuUsageCategory.COMMAND_PREPROCESS);
+        packetSendListeners = new Listeners<>(PacketSendListener.class, TabConstants.CpuUsageCategory.RAW_PACKET_OUT);
+        displayObjectiveListeners = new Listeners<>(DisplayObjectiveListener.class, TabConstants.CpuUsageCategory.ANTI_OVERRIDE);
+        objectiveListeners = new Listeners<>(ObjectiveListener.class, TabConstants.CpuUsageCategory.ANTI_OVERRIDE);
+        vanishListeners = new Listeners<>(VanishListener.class, TabConstants.CpuUsageCategory.VANISH_CHANGE);
+        entryAddListeners = new Listeners<>(EntryAddListener.class, TabConstants.CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY);
+        latencyListeners = new Listeners<>(LatencyListener.class, TabConstants.CpuUsageCategory.PING_CHANGE);
+        entryGameModeListeners = new Listeners<>(EntryGameModeListener.class, TabConstants.CpuUsageCategory.GAMEMODE_CHANGE);
+        loginPacketListeners = new Listeners<>(LoginPacketListener.class, TabConstants.CpuUsageCategory.PACKET_LOGIN);
+        tabListClearListeners = new Listeners<>(TabListClearListener.class, TabConstants.CpuUsageCategory.TABLIST_CLEAR);
+    }
+
+    /**
+     * Returns array of all registered features implementing given listener type,
+     * in registration order.
+     *
+     * @param   type
+     *          Listener type
+     * @return  Array of features implementing the listener
+     * @param   <T>
+     *          Listener type
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private <T> T[] listeners(@NotNull Class<T> type) {
+        return Arrays.stream(values).filter(type::isInstance).toArray(size -> (T[]) Array.newInstance(type, size));
+    }
+
+    /**
+     * Features listening to an event with ids of their CPU usage metrics for the event,
+     * kept in a single object, so both are always replaced together.
+     *
+     * @param   <T>
+     *          Listener type
+     */
+    private class Listeners<T> {
+
+        /** Features listening to the event in registration order */
+        @NotNull private final T[] features;
+
+        /** Ids of CPU usage metrics of the features, at the same indexes */
+        @NotNull private final int[] metricIds;
+
+        @SuppressWarnings("unchecked")
+        private Listeners(@NotNull Class<T> type) {
+            features = (T[]) Array.newInstance(type, 0);
+            metricIds = new int[0];
+        }
+
+        private Listeners(@NotNull Class<T> type, @NotNull String cpuType) {
+            features = listeners(type);
+            metricIds = new int[features.length];
+            for (int i=0; i<features.length; i++) {
+                metricIds[i] = TAB.getInstance().getCPUManager().getMetricId(((TabFeature) features[i]).getFeatureName(), cpuType);
+            }
+        }
     }
 
     /**
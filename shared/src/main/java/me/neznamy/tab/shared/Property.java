@@ -7,6 +7,7 @@ import lombok.Getter;
 import me.neznamy.tab.shared.features.types.Refreshable;
 import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.shared.chat.rgb.RGBUtils;
+import me.neznamy.tab.shared.placeholders.expansion.PlayerExpansionValues;
 import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
 import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
@@ -25,6 +26,10 @@ public class Property {
     /** Internal identifier for this text for PlaceholderAPI expansion, null if it should not be exposed */
     @Nullable private final String name;
 
+    /** Slots of value and raw value in expansion values, -1 if not exposed */
+    private final int expansionSlot;
+    private final int rawExpansionSlot;
+
     /**
      * Feature defining this text, which will receive refresh function
      * if any of placeholders used in it change value.
@@ -82,6 +87,8 @@ public class Property {
     public Property(@Nullable String name, @Nullable Refreshable listener, @NotNull TabPlayer owner,
                     @NotNull String rawValue, @Nullable String source) {
         this.name = name;
+        expansionSlot = name == null ? -1 : PlayerExpansionValues.getSlot(name);
+        rawExpansionSlot = name == null ? -1 : PlayerExpansionValues.getSlot(name + "_raw");
         this.listener = listener;
         this.owner = owner;
         this.source = source;
@@ -144,8 +151,8 @@ public class Property {
         update();
         if (name != null) {
             TabExpansion expansion = TAB.getInstance().getPlaceholderManager().getTabExpansion();
-            expansion.setPropertyValue(owner, name, lastReplacedValue);
-            expansion.setRawPropertyValue(owner, name, getCurrentRawValue());
+            expansion.setPropertyValue(owner, expansionSlot, lastReplacedValue);
+            expansion.setRawPropertyValue(owner, rawExpansionSlot, getCurrentRawValue());
         }
     }
 
@@ -242,7 +249,7 @@ public class Property {
         if (!lastReplacedValue.equals(string)) {
             lastReplacedValue = string;
             if (name != null) {
-                TAB.getInstance().getPlaceholderManager().getTabExpansion().setPropertyValue(owner, name, lastReplacedValue);
+                TAB.getInstance().getPlaceholderManager().getTabExpansion().setPropertyValue(owner, expansionSlot, lastReplacedValue);
             }
             return true;
         }
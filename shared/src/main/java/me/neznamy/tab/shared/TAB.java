@@ -20,6 +20,7 @@ import me.neznamy.tab.shared.command.TabCommand;
 import me.neznamy.tab.shared.config.Configs;
 import me.neznamy.tab.shared.event.EventBusImpl;
 import me.neznamy.tab.shared.event.impl.TabLoadEventImpl;
+import me.neznamy.tab.shared.features.OnlineCounter;
 import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.proxy.ProxyPlatform;
@@ -28,6 +29,7 @@ import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.error.YAMLException;
 
 import java.io.File;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -51,6 +53,9 @@ public class TAB extends TabAPI {
     /** Online player array to avoid memory allocation when iterating */
     private volatile TabPlayer[] onlinePlayers = new TabPlayer[0];
 
+    /** Slots currently assigned to players, see {@link TabPlayer#getSlot()} */
+    private final BitSet playerSlots = new BitSet();
+
     /** Instance of plugin's main command */
     private TabCommand command;
 
@@ -172,6 +177,7 @@ public class TAB extends TabAPI {
             featureManager = new FeatureManager();
             placeholderManager = new PlaceholderManagerImpl(cpu);
             featureManager.registerFeature(TabConstants.Feature.PLACEHOLDER_MANAGER, placeholderManager);
+            featureManager.registerFeature(TabConstants.Feature.ONLINE_COUNTER, new OnlineCounter());
             groupManager = platform.detectPermissionPlugin();
             platform.registerPlaceholders();
             featureManager.loadFeaturesFromConfig();
@@ -182,6 +188,9 @@ public class TAB extends TabAPI {
             if (eventBus != null) eventBus.fire(TabLoadEventImpl.getInstance());
             pluginDisabled = false;
             cpu.enable();
+            String metricsFile = configuration.getSecretOption("metrics-exporter-file", "");
+            cpu.startExporter(configuration.getSecretOption("metrics-exporter-port", 0),
+                    metricsFile.isEmpty() ? null : new File(dataFolder, metricsFile));
             configHelper.startup().checkErrorLog();
             configHelper.startup().printWarnCount();
             platform.logInfo(new SimpleComponent(EnumChatFormat.GREEN + "Enabled in " + (System.currentTimeMillis()-time) + "ms"));
@@ -206,8 +215,9 @@ public class TAB extends TabAPI {
         if (pluginDisabled) return;
         try {
             long time = System.currentTimeMillis();
-            if (configuration.getMysql() != null) configuration.getMysql().closeConnection();
             featureManager.unload();
+            // Closed after features, so changes made while unloading are written too
+            if (configuration.getMysql() != null) configuration.getMysql().closeConnection();
             platform.logInfo(new SimpleComponent(EnumChatFormat.GREEN + "Disabled in " + (System.currentTimeMillis()-time) + "ms"));
         } catch (Throwable e) {
             errorManager.criticalError("Failed to disable", e);
@@ -223,6 +233,9 @@ public class TAB extends TabAPI {
         data.clear();
         playersByTabListId.clear();
         onlinePlayers = new TabPlayer[0];
+        synchronized (playerSlots) {
+            playerSlots.clear();
+        }
         cpu.cancelAllTasks();
     }
 
@@ -248,6 +261,23 @@ public class TAB extends TabAPI {
         data.remove(player.getUniqueId());
         playersByTabListId.remove(player.getTablistId());
         onlinePlayers = data.values().toArray(new TabPlayer[0]);
+        synchronized (playerSlots) {
+            playerSlots.clear(player.getSlot());
+        }
+    }
+
+    /**
+     * Assigns the lowest free player slot and returns it. The slot is freed
+     * once the player is removed using {@link #removePlayer(TabPlayer)}.
+     *
+     * @return  Assigned player slot
+     */
+    public int allocatePlayerSlot() {
+        synchronized (playerSlots) {
+            int slot = playerSlots.nextClearBit(0);
+            playerSlots.set(slot);
+            return slot;
+        }
     }
 
     /**
@@ -63,6 +63,7 @@ public class TabConstants {
         public static final String RAW_PACKET_OUT = "Packet reading (out)";
         public static final String PACKET_LOGIN = "Login packet";
         public static final String SCOREBOARD_PACKET_CHECK = "Checking for other plugins";
+        public static final String PENDING_PACKETS = "Writing pending packets";
 
         // Placeholders
         public static final String PLACEHOLDER_REFRESH_INIT = "Phase #1 - Preparing for request";
@@ -76,6 +77,7 @@ public class TabConstants {
         public static final String REFRESHING_NAME_TAG_VISIBILITY = "Refreshing NameTag visibility";
         public static final String PROCESSING_PLAYER_MOVEMENT = "Processing player movement";
         public static final String TELEPORTING_WITHER = "Teleporting wither";
+        public static final String SKIN_DOWNLOAD = "Applying downloaded skin";
     }
 
     /**
@@ -173,6 +175,8 @@ public class TabConstants {
         public static final String UNLIMITED_NAME_TAGS_PACKET_LISTENER = "nametagx-packet";
         public static final String UNLIMITED_NAME_TAGS_VEHICLE_REFRESHER = "nametagx-vehicle";
         public static final String PING_SPOOF = "PingSpoof";
+        public static final String ONLINE_COUNTER = "OnlineCounter";
+        public static final String MYSQL = "MySQL";
 
         //Bukkit only
         public static final String PER_WORLD_PLAYER_LIST = "PerWorldPlayerList";
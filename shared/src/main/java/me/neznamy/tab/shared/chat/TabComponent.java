@@ -87,6 +87,10 @@ public abstract class TabComponent {
      */
     @NotNull
     public static TabComponent fromColoredText(@NotNull String originalText) {
+        if (originalText.contains("<")) {
+            TabComponent miniMessage = RGBUtils.getInstance().applyMiniMessage(originalText);
+            if (miniMessage != null) return miniMessage;
+        }
         String remainingText = originalText;
         List<StructuredComponent> components = new ArrayList<>();
         while (!remainingText.isEmpty()) {
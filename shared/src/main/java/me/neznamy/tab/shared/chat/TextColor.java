@@ -28,6 +28,44 @@ public class TextColor {
             new TextColor(EnumChatFormat.WHITE)
     };
 
+    /** Amount of bits per channel used for the closest legacy color lookup */
+    private static final int LOOKUP_BITS = 6;
+
+    /** Amount of bits dropped from each channel to get its index in the lookup */
+    private static final int LOOKUP_SHIFT = 8 - LOOKUP_BITS;
+
+    /**
+     * Ordinals of the closest legacy colors indexed by quantized RGB values. Cells where
+     * the closest color is not the same for all colors inside are set to {@code -1} and
+     * resolved by scanning all colors instead.
+     */
+    private static final byte[] closestColors = new byte[1 << (LOOKUP_BITS * 3)];
+
+    static {
+        int size = 1 << LOOKUP_BITS;
+        int center = 1 << (LOOKUP_SHIFT - 1);
+        for (int red = 0; red < size; red++) {
+            for (int green = 0; green < size; green++) {
+                for (int blue = 0; blue < size; blue++) {
+                    int r = (red << LOOKUP_SHIFT) + center;
+                    int g = (green << LOOKUP_SHIFT) + center;
+                    int b = (blue << LOOKUP_SHIFT) + center;
+                    EnumChatFormat closest = findClosestColor(r, g, b);
+                    int closestDist = distance(closest, r, g, b);
+                    boolean unique = true;
+                    for (EnumChatFormat color : EnumChatFormat.VALUES) {
+                        // Distance of any color in the cell differs from the center by at most the cell's half size
+                        if (color != closest && distance(color, r, g, b) - closestDist <= center * 2) {
+                            unique = false;
+                            break;
+                        }
+                    }
+                    closestColors[(red << (LOOKUP_BITS * 2)) | (green << LOOKUP_BITS) | blue] = unique ? (byte) closest.ordinal() : -1;
+                }
+            }
+        }
+    }
+
     /**
      * RGB values as a single number of 3 8-bit numbers (0-255).
      * It is only initialized if colors are actually used to avoid
@@ -106,16 +144,28 @@ public class TextColor {
      * Loads the closest legacy color based currently provided values
      */
     private EnumChatFormat loadClosestColor() {
-        double minMaxDist = 9999;
-        double maxDist;
+        int ordinal = closestColors[(getRed() >> LOOKUP_SHIFT << (LOOKUP_BITS * 2)) |
+                (getGreen() >> LOOKUP_SHIFT << LOOKUP_BITS) | (getBlue() >> LOOKUP_SHIFT)];
+        if (ordinal != -1) return EnumChatFormat.VALUES[ordinal];
+        return findClosestColor(getRed(), getGreen(), getBlue());
+    }
+
+    /**
+     * Returns the closest legacy color to given RGB values by scanning all colors.
+     *
+     * @param   red
+     *          red value
+     * @param   green
+     *          green value
+     * @param   blue
+     *          blue value
+     * @return  the closest legacy color
+     */
+    private static EnumChatFormat findClosestColor(int red, int green, int blue) {
+        int minMaxDist = Integer.MAX_VALUE;
         EnumChatFormat closestColor = EnumChatFormat.WHITE;
         for (EnumChatFormat color : EnumChatFormat.VALUES) {
-            int rDiff = Math.abs(color.getRed() - getRed());
-            int gDiff = Math.abs(color.getGreen() - getGreen());
-            int bDiff = Math.abs(color.getBlue() - getBlue());
-            maxDist = rDiff;
-            if (gDiff > maxDist) maxDist = gDiff;
-            if (bDiff > maxDist) maxDist = bDiff;
+            int maxDist = distance(color, red, green, blue);
             if (maxDist < minMaxDist) {
                 minMaxDist = maxDist;
                 closestColor = color;
@@ -124,6 +174,24 @@ public class TextColor {
         return closestColor;
     }
 
+    /**
+     * Returns distance of given RGB values from legacy color, which is the highest
+     * difference of all three values.
+     *
+     * @param   color
+     *          legacy color
+     * @param   red
+     *          red value
+     * @param   green
+     *          green value
+     * @param   blue
+     *          blue value
+     * @return  distance of the RGB values from the color
+     */
+    private static int distance(@NotNull EnumChatFormat color, int red, int green, int blue) {
+        return Math.max(Math.abs(color.getRed() - red), Math.max(Math.abs(color.getGreen() - green), Math.abs(color.getBlue() - blue)));
+    }
+
     /**
      * Returns {@code red} value
      *
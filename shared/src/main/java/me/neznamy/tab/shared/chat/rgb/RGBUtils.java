@@ -1,7 +1,10 @@
 package me.neznamy.tab.shared.chat.rgb;
 
 import lombok.Getter;
+import me.neznamy.tab.shared.chat.ChatModifier;
+import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.chat.TextColor;
 import me.neznamy.tab.shared.chat.rgb.format.BukkitFormat;
 import me.neznamy.tab.shared.chat.rgb.format.HtmlFormat;
 import me.neznamy.tab.shared.chat.rgb.format.KyoriFormat;
@@ -15,10 +18,14 @@ import me.neznamy.tab.shared.util.ReflectionUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import me.neznamy.tab.shared.chat.rgb.format.CMIFormat;
 import me.neznamy.tab.shared.chat.rgb.format.RGBFormatter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A helper class to reformat all RGB formats into the default #RRGGBB and apply gradients
@@ -34,13 +41,28 @@ public class RGBUtils {
     /** Registered gradient patterns */
     private final GradientPattern[] gradients;
 
+    /** Pattern for detecting fonts */
+    private static final Pattern fontPattern = Pattern.compile("<font:(.*?)>(.*?)</font>");
+
+    /** Maximum amount of entries in {@link #legacyCache} before it is cleared */
+    private static final int LEGACY_CACHE_SIZE = 1000;
+
+    /** Cache of texts converted to legacy colors, accessed from multiple threads */
+    private final Map<String, String> legacyCache = new ConcurrentHashMap<>();
+
+    /** MiniMessage formatter or {@code null} if MiniMessage is not available */
+    @Nullable private final MiniMessageFormat miniMessageFormat;
+
     /**
      * Constructs new instance and loads all RGB patterns and gradients
      */
     public RGBUtils() {
         List<RGBFormatter> list = new ArrayList<>();
         if (ReflectionUtils.classExists("net.kyori.adventure.text.minimessage.MiniMessage")) {
-            list.add(new MiniMessageFormat());
+            miniMessageFormat = new MiniMessageFormat();
+            list.add(miniMessageFormat);
+        } else {
+            miniMessageFormat = null;
         }
         list.add(new BukkitFormat());
         list.add(new CMIFormat());
@@ -82,6 +104,24 @@ public class RGBUtils {
         return replaced;
     }
 
+    /**
+     * Converts MiniMessage text directly into a component if MiniMessage is available
+     * and the text does not use legacy colors or any of TAB's gradient formats. Returns
+     * {@code null} if the text needs to go through {@link #applyFormats(String)} instead.
+     *
+     * @param   text
+     *          original text
+     * @return  converted component or {@code null} if it cannot be converted directly
+     */
+    public @Nullable TabComponent applyMiniMessage(@NotNull String text) {
+        if (miniMessageFormat == null) return null;
+        String colored = EnumChatFormat.color(text);
+        for (GradientPattern pattern : gradients) {
+            if (!pattern.applyPattern(colored, false).equals(colored)) return null;
+        }
+        return miniMessageFormat.toComponent(colored);
+    }
+
     /**
      * Applies all gradient formats to text and returns it. This only affects
      * usage where no placeholder is used inside.
@@ -108,6 +148,165 @@ public class RGBUtils {
      * @return  translated text
      */
     public @NotNull String convertRGBtoLegacy(@NotNull String text) {
-        return TabComponent.fromColoredText(text).toLegacyText();
+        String converted = legacyCache.get(text);
+        if (converted == null) {
+            if (legacyCache.size() > LEGACY_CACHE_SIZE) legacyCache.clear();
+            converted = downsample(text);
+            legacyCache.put(text, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Converts text to legacy colors in a single pass without building components. The result
+     * is identical to {@link TabComponent#fromColoredText(String)} followed by
+     * {@link TabComponent#toLegacyText()}.
+     *
+     * @param   originalText
+     *          text to convert
+     * @return  translated text
+     */
+    private @NotNull String downsample(@NotNull String originalText) {
+        StringBuilder output = new StringBuilder(originalText.length());
+        String formatting = "";
+        String remainingText = originalText;
+        while (!remainingText.isEmpty()) {
+            Matcher m = fontPattern.matcher(remainingText);
+            if (m.find()) {
+                if (m.start() > 0) {
+                    formatting = downsample(remainingText.substring(0, m.start()), output, formatting);
+                }
+                String match = m.group();
+                formatting = downsample(match.substring(match.indexOf('>')+1, match.length()-7), output, formatting);
+                remainingText = remainingText.substring(m.start() + match.length());
+            } else {
+                downsample(remainingText, output, formatting);
+                break;
+            }
+        }
+        return output.toString();
+    }
+
+    /**
+     * Converts a part of text without fonts to legacy colors and appends it to output.
+     *
+     * @param   originalText
+     *          text to convert
+     * @param   output
+     *          builder to append converted text to
+     * @param   previousFormatting
+     *          colors and magic codes of previously appended text
+     * @return  colors and magic codes of the last appended text
+     */
+    private @NotNull String downsample(@NotNull String originalText, @NotNull StringBuilder output, @NotNull String previousFormatting) {
+        String text = applyFormats(EnumChatFormat.color(originalText));
+        String formatting = previousFormatting;
+        ChatModifier modifier = new ChatModifier();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == EnumChatFormat.COLOR_CHAR) {
+                i++;
+                if (i >= text.length()) break;
+                c = text.charAt(i);
+                if ((c >= 'A') && (c <= 'Z')) {
+                    c = (char)(c + ' ');
+                }
+                EnumChatFormat format = EnumChatFormat.getByChar(c);
+                if (format == null) continue;
+                if (builder.length() > 0) {
+                    formatting = appendLegacy(output, formatting, modifier, builder);
+                    builder.setLength(0);
+                }
+                switch (format) {
+                    case BOLD:
+                        modifier.setBold(true);
+                        break;
+                    case ITALIC:
+                        modifier.setItalic(true);
+                        break;
+                    case UNDERLINE:
+                        modifier.setUnderlined(true);
+                        break;
+                    case STRIKETHROUGH:
+                        modifier.setStrikethrough(true);
+                        break;
+                    case OBFUSCATED:
+                        modifier.setObfuscated(true);
+                        break;
+                    case RESET:
+                        modifier = new ChatModifier();
+                        modifier.setColor(TextColor.legacy(EnumChatFormat.WHITE));
+                        break;
+                    default:
+                        modifier = new ChatModifier();
+                        modifier.setColor(TextColor.legacy(format));
+                        break;
+                }
+            } else if (c == '#' && text.length() > i+6 && isHexCode(text, i+1)) {
+                String hex = text.substring(i+1, i+7);
+                TextColor color;
+                EnumChatFormat code = text.length() - i >= 9 ? EnumChatFormat.getByChar(text.charAt(i+8)) : null;
+                if (code != null && text.charAt(i+7) == '|') {
+                    color = new TextColor(hex, code);
+                    i += 8;
+                } else {
+                    color = new TextColor(hex);
+                    i += 6;
+                }
+                if (builder.length() > 0) {
+                    formatting = appendLegacy(output, formatting, modifier, builder);
+                    builder.setLength(0);
+                }
+                modifier = new ChatModifier();
+                modifier.setColor(color);
+            } else {
+                builder.append(c);
+            }
+        }
+        return appendLegacy(output, formatting, modifier, builder);
+    }
+
+    /**
+     * Appends text with given style to output, prefixed with colors and magic codes
+     * if they are different from previous text.
+     *
+     * @param   output
+     *          builder to append text to
+     * @param   previousFormatting
+     *          colors and magic codes of previously appended text
+     * @param   modifier
+     *          style of the text
+     * @param   text
+     *          text to append
+     * @return  colors and magic codes of the appended text
+     */
+    private @NotNull String appendLegacy(@NotNull StringBuilder output, @NotNull String previousFormatting,
+                                         @NotNull ChatModifier modifier, @NotNull CharSequence text) {
+        String formatting = modifier.getMagicCodes();
+        TextColor color = modifier.getColor();
+        if (color != null) {
+            //preventing unwanted &r -> &f conversion and stopping the <1.13 client bug fix from working
+            formatting = (color.getLegacyColor() == EnumChatFormat.WHITE ? EnumChatFormat.RESET : color.getLegacyColor()) + formatting;
+        }
+        if (!formatting.equals(previousFormatting)) output.append(formatting);
+        output.append(text);
+        return formatting;
+    }
+
+    /**
+     * Returns {@code true} if text contains a valid 6-digit hex code at given position.
+     *
+     * @param   text
+     *          text to check
+     * @param   start
+     *          position of the hex code
+     * @return  {@code true} if valid, {@code false} if not
+     */
+    private boolean isHexCode(@NotNull String text, int start) {
+        for (int i = start; i < start + 6; i++) {
+            if ("0123456789AaBbCcDdEeFf".indexOf(text.charAt(i)) == -1) return false;
+        }
+        return true;
     }
 }
\ No newline at end of file
@@ -1,12 +1,28 @@
 package me.neznamy.tab.shared.chat.rgb.format;
 
+import me.neznamy.tab.shared.chat.ChatModifier;
 import me.neznamy.tab.shared.chat.EnumChatFormat;
+import me.neznamy.tab.shared.chat.SimpleComponent;
+import me.neznamy.tab.shared.chat.StructuredComponent;
+import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.chat.TextColor;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * Call to MiniMessage API to reformat text to &amp;x&amp;R&amp;R&amp;G&amp;G&amp;B&amp;B
+ * or to convert it directly into a component.
  */
 public class MiniMessageFormat implements RGBFormatter {
 
@@ -14,6 +30,9 @@ public class MiniMessageFormat implements RGBFormatter {
     private static final LegacyComponentSerializer SERIALIZER = LegacyComponentSerializer.builder()
             .hexColors().useUnusualXRepeatedCharacterHexFormat().build();
 
+    /** Pattern for detecting forced legacy color suffix ({@code #RRGGBB|c}) after a hex color */
+    private static final Pattern FORCED_LEGACY_COLOR = Pattern.compile("\\|[0-9a-fA-Fk-oK-OrR]");
+
     @Override
     @NotNull
     public String reformat(@NotNull String text) {
@@ -25,4 +44,86 @@ public class MiniMessageFormat implements RGBFormatter {
             return text;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Deserializes MiniMessage text and converts the result directly into TAB component
+     * without serializing it into legacy text and parsing it again. Returns {@code null}
+     * if the text cannot be fully represented this way, such as when it contains
+     * non-text components, other RGB formats which need to be processed by TAB or
+     * forced legacy color suffix ({@code <#RRGGBB>|c}), which only applies after
+     * the text is serialized into {@code #RRGGBB|c}.
+     *
+     * @param   text
+     *          Text with legacy colors already translated
+     * @return  Converted component or {@code null} if it cannot be converted directly
+     */
+    @Nullable
+    public TabComponent toComponent(@NotNull String text) {
+        if (!text.contains("<")) return null;
+        if (text.contains(EnumChatFormat.COLOR_STRING)) return null;
+        if (text.indexOf('|') != -1 && FORCED_LEGACY_COLOR.matcher(text).find()) return null;
+        Component component;
+        try {
+            component = MiniMessage.miniMessage().deserialize(text);
+        } catch (Throwable ignored) {
+            return null;
+        }
+        List<StructuredComponent> components = new ArrayList<>();
+        if (!flatten(component, new StructuredComponent(), components)) return null;
+        if (components.isEmpty()) return new SimpleComponent("");
+        return new StructuredComponent("", components);
+    }
+
+    /**
+     * Converts component and all of its children into a flat list of components, each with
+     * full style inherited from its parents.
+     *
+     * @param   component
+     *          Component to convert
+     * @param   parent
+     *          Parent component to inherit style from
+     * @param   output
+     *          List to add converted components into
+     * @return  {@code true} if conversion was successful, {@code false} if not
+     */
+    private boolean flatten(@NotNull Component component, @NotNull StructuredComponent parent, @NotNull List<StructuredComponent> output) {
+        if (!(component instanceof TextComponent)) return false;
+        String content = ((TextComponent) component).content();
+        if (content.indexOf('#') != -1) return false; // Other RGB format, leave it for TAB to process
+        StructuredComponent converted = new StructuredComponent(parent);
+        converted.setText(content);
+        ChatModifier modifier = converted.getModifier();
+        Style style = component.style();
+        net.kyori.adventure.text.format.TextColor color = style.color();
+        if (color != null) modifier.setColor(new TextColor(color.red(), color.green(), color.blue()));
+        if (style.decoration(TextDecoration.BOLD) != TextDecoration.State.NOT_SET) modifier.setBold(style.hasDecoration(TextDecoration.BOLD));
+        if (style.decoration(TextDecoration.ITALIC) != TextDecoration.State.NOT_SET) modifier.setItalic(style.hasDecoration(TextDecoration.ITALIC));
+        if (style.decoration(TextDecoration.UNDERLINED) != TextDecoration.State.NOT_SET) modifier.setUnderlined(style.hasDecoration(TextDecoration.UNDERLINED));
+        if (style.decoration(TextDecoration.STRIKETHROUGH) != TextDecoration.State.NOT_SET) modifier.setStrikethrough(style.hasDecoration(TextDecoration.STRIKETHROUGH));
+        if (style.decoration(TextDecoration.OBFUSCATED) != TextDecoration.State.NOT_SET) modifier.setObfuscated(style.hasDecoration(TextDecoration.OBFUSCATED));
+        Key font = style.font();
+        if (font != null) modifier.setFont(font.asString());
+        if (!content.isEmpty()) {
+            if (modifier.getColor() == null && !output.isEmpty() && isStyled(output.get(output.size()-1).getModifier())) {
+                // Reset colors of previous text for legacy text conversion
+                modifier.setColor(TextColor.legacy(EnumChatFormat.WHITE));
+            }
+            output.add(converted);
+        }
+        for (Component child : component.children()) {
+            if (!flatten(child, converted, output)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if given modifier has a color or any magic codes, {@code false} if not.
+     *
+     * @param   modifier
+     *          Modifier to check
+     * @return  {@code true} if modifier has a color or magic codes, {@code false} if not
+     */
+    private boolean isStyled(@NotNull ChatModifier modifier) {
+        return modifier.getColor() != null || modifier.hasMagicCodes();
+    }
+}
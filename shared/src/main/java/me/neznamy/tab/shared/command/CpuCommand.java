@@ -1,8 +1,10 @@
 package me.neznamy.tab.shared.command;
 
 import java.text.DecimalFormat;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import me.neznamy.tab.shared.chat.SimpleComponent;
 import me.neznamy.tab.shared.cpu.CpuReport;
@@ -51,9 +53,11 @@ public class CpuCommand extends SubCommand {
         if (sender != null) {
             sendToPlayer(sender, features);
         } else {
-            sendToConsole(features);
+            sendToConsole(report);
         }
         sendMessage(sender, "&8&l" + LINE_CHAR + "&8&m                                                    ");
+        sendMessage(sender, String.format("&8&l%s &6Task queue wait p99: &7%sms&8, &6run time p99: &7%sms", LINE_CHAR,
+                decimal3.format(report.getQueueWaitP99() / 1e6), decimal3.format(report.getRunTimeP99() / 1e6)));
         sendMessage(sender, String.format("&8&l%s &6&lPlaceholders Total: &a&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getPlaceholderUsageTotal()), 10, 5)));
         sendMessage(sender, String.format("&8&l%s &6&lPlugin internals: &a&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getFeatureUsageTotal()-report.getPlaceholderUsageTotal()), 10, 5)));
         sendMessage(sender, String.format("&8&l%s &6&lTotal: &e&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getFeatureUsageTotal()), 10, 5)));
@@ -73,16 +77,24 @@ public class CpuCommand extends SubCommand {
         }
     }
 
-    public void sendToConsole(@NotNull Map<String, Map<String, Float>> features) {
+    public void sendToConsole(@NotNull CpuReport report) {
         TAB.getInstance().getPlatform().logInfo(new SimpleComponent(EnumChatFormat.color("&8&l" + LINE_CHAR + " &6Features:")));
-        for (Entry<String, Map<String, Float>> entry : features.entrySet()) {
+        for (Entry<String, Map<String, Float>> entry : report.getFeatureUsage().entrySet()) {
             TAB.getInstance().getPlatform().logInfo(new SimpleComponent(EnumChatFormat.color(
                     String.format("&8&l%s &7%s &7(%s%%&7):", LINE_CHAR, entry.getKey(),
                             colorize(decimal3.format(entry.getValue().values().stream().mapToDouble(Float::floatValue).sum()), 5, 1)))));
+            Map<String, Long> p99 = report.getFeatureP99().getOrDefault(entry.getKey(), Collections.emptyMap());
             for (Entry<String, Float> type : entry.getValue().entrySet()) {
                 TAB.getInstance().getPlatform().logInfo(new SimpleComponent(EnumChatFormat.color(
-                        String.format("&8&l%s     &7%s - %s%%", LINE_CHAR, type.getKey(), colorize(decimal3.format(type.getValue()), 5, 1)))));
+                        String.format("&8&l%s     &7%s - %s%% &8(p99 %sms)", LINE_CHAR, type.getKey(), colorize(decimal3.format(type.getValue()), 5, 1),
+                                decimal3.format(p99.getOrDefault(type.getKey(), 0L) / 1e6)))));
             }
+            Map<String, Float> players = report.getTopPlayers().get(entry.getKey());
+            if (players == null || players.isEmpty()) continue;
+            TAB.getInstance().getPlatform().logInfo(new SimpleComponent(EnumChatFormat.color(
+                    String.format("&8&l%s     &7Top players: %s", LINE_CHAR, players.entrySet().stream()
+                            .map(e -> e.getKey() + " " + decimal3.format(e.getValue()) + "%")
+                            .collect(Collectors.joining(", "))))));
         }
     }
 
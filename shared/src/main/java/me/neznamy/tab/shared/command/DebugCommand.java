@@ -173,11 +173,12 @@ public class DebugCommand extends SubCommand {
      * @return  team name note of specified player
      */
     private @NotNull String getTeamNameNote(@NotNull TabPlayer analyzed) {
-        if (analyzed.sortingData == null) return "";
+        Sorting sorting = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.SORTING);
+        if (sorting == null) return "";
         if (TAB.getInstance().getNameTagManager() != null && analyzed.disabledNametags.get()) {
             return "";
         }
-        return "&eSorting note: &r" + analyzed.sortingData.teamNameNote;
+        return "&eSorting note: &r" + sorting.getTeamNameNote(analyzed);
     }
 
     /**
@@ -35,7 +35,12 @@ public class Configs {
     private final boolean onlineUuidInTabList = config.getBoolean("use-online-uuid-in-tablist", true);
     private final boolean pipelineInjection = getSecretOption("pipeline-injection", true);
     private final String serverName = getSecretOption("server-name", "N/A");
+    private final boolean bridgeMessageBatching = getSecretOption("bridge-message-batching", false);
+    private final boolean bridgeNameTagLineDeltas = getSecretOption("bridge-nametag-line-deltas", false);
+    private final boolean bridgeExpansionDeltas = getSecretOption("bridge-expansion-deltas", false);
+    private final boolean velocityNativeScoreboard = getSecretOption("velocity-native-scoreboard", false);
     private final int permissionRefreshInterval = config.getInt("permission-refresh-interval", 1000);
+    private final int bridgePermissionCacheTtl = getSecretOption("bridge-permission-cache-ttl", 300000);
 
     //animations.yml file
     private final ConfigurationFile animationFile = new YamlConfigurationFile(getClass().getClassLoader().getResourceAsStream("config/animations.yml"),
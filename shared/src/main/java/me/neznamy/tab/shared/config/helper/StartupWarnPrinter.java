@@ -192,8 +192,9 @@ public class StartupWarnPrinter {
                 "If you want enhanced name tags without limits, making them invisible would defeat the purpose.");
     }
 
-    public void invalidDateFormat(@NotNull String format) {
-        startupWarn("Format \"" + format + "\" is not a valid date/time format. Did you try to use color codes?");
+    public void invalidDateFormat(@NotNull String format, @Nullable String reason) {
+        startupWarn("Format \"" + format + "\" is not a valid date/time format (" + reason + "). Did you try to use color codes?",
+                "Formats use SimpleDateFormat syntax (https://docs.oracle.com/javase/8/docs/api/java/text/SimpleDateFormat.html).");
     }
 
     public void bothGlobalPlayerListAndLayoutEnabled() {
@@ -1,83 +1,545 @@
 package me.neznamy.tab.shared.config.mysql;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
-
-import javax.sql.rowset.CachedRowSet;
-import javax.sql.rowset.RowSetProvider;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.shared.chat.SimpleComponent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-@RequiredArgsConstructor
+/**
+ * Database connection with a small pool of connections, each caching its
+ * prepared statements. Property writes are queued and written in batches
+ * on a background thread, which is also used for loading player data.
+ */
 public class MySQL {
 
-    private Connection con;
-    @NotNull private final String host;
-    private final int port;
-    @NotNull private final String database;
-    @NotNull private final String username;
-    @NotNull private final String password;
-    private final boolean useSSL;
+    /** Maximum amount of open connections */
+    private static final int POOL_SIZE = 3;
 
-    public void openConnection() throws SQLException {
-        if (isConnected()) return;
-        Properties properties = new Properties();
+    /** Seconds to wait for connection validation */
+    private static final int VALIDATION_TIMEOUT = 2;
+
+    /** Seconds to wait for a connection when all connections are in use */
+    private static final int BORROW_TIMEOUT = 10;
+
+    /** Seconds to wait before writing queued changes again after writing failed */
+    private static final int RETRY_DELAY = 5;
+
+    /** Database URL */
+    @NotNull private final String url;
+
+    /** Connection properties */
+    @NotNull private final Properties properties;
+
+    /** Idle connections */
+    private final BlockingQueue<PooledConnection> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /** Amount of currently open connections */
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    /** Thread for asynchronous queries and writing queued changes */
+    private final ScheduledThreadPoolExecutor thread = new ScheduledThreadPoolExecutor(1,
+            new ThreadFactoryBuilder().setNameFormat("TAB MySQL Thread").setDaemon(true).build());
+
+    /** Queued property changes by table, key column, name, property, world and server */
+    private final Map<List<String>, String> pendingProperties = new LinkedHashMap<>();
+
+    /** Queued removals of all properties of an entry as table, key column and name */
+    private final List<String[]> pendingRemovals = new ArrayList<>();
+
+    /** Flag tracking whether writing of queued changes is already scheduled */
+    private boolean flushScheduled;
+
+    /** Flag tracking whether the connection was closed */
+    private volatile boolean closed;
+
+    /**
+     * Constructs new instance connecting to MySQL server with given parameters.
+     *
+     * @param   host
+     *          Server host
+     * @param   port
+     *          Server port
+     * @param   database
+     *          Database name
+     * @param   username
+     *          Username
+     * @param   password
+     *          Password
+     * @param   useSSL
+     *          Whether SSL should be used or not
+     */
+    public MySQL(@NotNull String host, int port, @NotNull String database, @NotNull String username,
+                 @NotNull String password, boolean useSSL) {
+        this(String.format("jdbc:mysql://%s:%d/%s", host, port, database), new Properties());
         properties.setProperty("user", username);
         properties.setProperty("password", password);
         properties.setProperty("useSSL", String.valueOf(useSSL));
         properties.setProperty("characterEncoding", "UTF-8");
-        con = DriverManager.getConnection(String.format("jdbc:mysql://%s:%d/%s", host, port, database), properties);
+    }
+
+    /**
+     * Constructs new instance connecting to database with given JDBC URL.
+     *
+     * @param   url
+     *          JDBC URL of the database
+     * @param   properties
+     *          Connection properties
+     */
+    public MySQL(@NotNull String url, @NotNull Properties properties) {
+        this.url = url;
+        this.properties = properties;
+        // Pending retry is replaced by the final flush on close
+        thread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Creates table for properties if it does not exist. Tables created by older versions
+     * are migrated to use empty world and server instead of {@code null} for values, which
+     * are not per-world or per-server, and get a unique key, so values can be upserted.
+     *
+     * @param   table
+     *          Table name
+     * @param   keyColumn
+     *          Name of column with group or user name
+     * @throws  SQLException
+     *          If creating or migrating the table failed
+     */
+    public void createPropertyTable(@NotNull String table, @NotNull String keyColumn) throws SQLException {
+        execute("create table if not exists `" + table + "` (`" + keyColumn + "` varchar(64), `property` varchar(16), `value` varchar(1024), world varchar(64), server varchar(64))");
+        if (hasUniqueKey(table)) return;
+        execute("update `" + table + "` set world = '' where world is null");
+        execute("update `" + table + "` set server = '' where server is null");
+        execute("alter table `" + table + "` add unique key `" + table + "_property` (`" + keyColumn + "`, `property`, world, server)");
+    }
+
+    private boolean hasUniqueKey(@NotNull String table) throws SQLException {
+        PooledConnection connection = borrow();
+        try {
+            DatabaseMetaData meta = connection.connection.getMetaData();
+            String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.US) : table;
+            try (ResultSet rs = meta.getIndexInfo(connection.connection.getCatalog(), null, name, true, false)) {
+                while (rs.next()) {
+                    // Some databases name the index after the key with a suffix
+                    String index = rs.getString("INDEX_NAME");
+                    if (index != null && index.toLowerCase(Locale.US).startsWith(table + "_property")) {
+                        release(connection);
+                        return true;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            throw e;
+        }
+        release(connection);
+        return false;
+    }
+
+    /**
+     * Returns world or server column of current row, {@code null} if the
+     * value is not per-world or per-server.
+     *
+     * @param   rs
+     *          Result set pointing to the row to read
+     * @param   column
+     *          Column to read
+     * @return  Value of the column or {@code null} if empty
+     * @throws  SQLException
+     *          If reading failed
+     */
+    @Nullable
+    public static String getScope(@NotNull ResultSet rs, @NotNull String column) throws SQLException {
+        String value = rs.getString(column);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Opens the first connection to make sure the database is reachable.
+     *
+     * @throws  SQLException
+     *          If connection could not be opened
+     */
+    public void openConnection() throws SQLException {
+        release(borrow());
         TAB.getInstance().getPlatform().logInfo(new SimpleComponent(EnumChatFormat.GREEN + "Successfully connected to MySQL"));
     }
-    
+
+    /**
+     * Writes all queued changes, stops the background thread and closes all connections.
+     *
+     * @throws  SQLException
+     *          If writing queued changes failed
+     */
     public void closeConnection() throws SQLException {
-        if (isConnected()) con.close();
+        if (closed) return;
+        thread.shutdown();
+        try {
+            if (!thread.awaitTermination(5, TimeUnit.SECONDS)) thread.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            PooledConnection connection;
+            while ((connection = pool.poll()) != null) {
+                connection.close();
+            }
+        }
     }
 
-    private boolean isConnected() throws SQLException {
-        return con != null && !con.isClosed();
+    @NotNull
+    private PooledConnection borrow() throws SQLException {
+        PooledConnection connection = pool.poll();
+        if (connection != null) {
+            if (connection.connection.isValid(VALIDATION_TIMEOUT)) return connection;
+            discard(connection);
+        }
+        if (openConnections.incrementAndGet() > POOL_SIZE) {
+            openConnections.decrementAndGet();
+            try {
+                connection = pool.poll(BORROW_TIMEOUT, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for connection", e);
+            }
+            if (connection == null) throw new SQLException("Timed out while waiting for connection");
+            if (connection.connection.isValid(VALIDATION_TIMEOUT)) return connection;
+            discard(connection);
+            openConnections.incrementAndGet();
+        }
+        try {
+            return new PooledConnection(DriverManager.getConnection(url, properties));
+        } catch (SQLException e) {
+            openConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(@NotNull PooledConnection connection) {
+        if (closed || !pool.offer(connection)) discard(connection);
     }
 
+    private void discard(@NotNull PooledConnection connection) {
+        openConnections.decrementAndGet();
+        connection.close();
+    }
+
+    /**
+     * Executes given update query.
+     *
+     * @param   query
+     *          Query to execute
+     * @param   vars
+     *          Query parameters
+     * @throws  SQLException
+     *          If query failed
+     */
     public void execute(@NonNull String query, @Nullable Object... vars) throws SQLException {
-        try (PreparedStatement ps = prepareStatement(query, vars)) {
-            ps.execute();
+        PooledConnection connection = borrow();
+        try {
+            connection.prepare(query, vars).execute();
+        } catch (SQLException e) {
+            discard(connection);
+            throw e;
+        }
+        release(connection);
+    }
+
+    /**
+     * Executes given select query and passes every row of the result to given reader.
+     *
+     * @param   query
+     *          Query to execute
+     * @param   reader
+     *          Reader to pass rows to
+     * @param   vars
+     *          Query parameters
+     * @throws  SQLException
+     *          If query failed
+     */
+    public void query(@NonNull String query, @NonNull RowReader reader, @NonNull Object... vars) throws SQLException {
+        PooledConnection connection = borrow();
+        try (ResultSet rs = connection.prepare(query, vars).executeQuery()) {
+            while (rs.next()) {
+                reader.read(rs);
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            throw e;
+        }
+        release(connection);
+    }
+
+    /**
+     * Runs given task on the background database thread.
+     *
+     * @param   task
+     *          Task to run
+     */
+    public void runAsync(@NotNull Runnable task) {
+        if (thread.isShutdown()) return;
+        thread.submit(task);
+    }
+
+    /**
+     * Queues change of a property to be written on the background thread. If the
+     * same property is changed multiple times before it is written, only the last
+     * value is written.
+     *
+     * @param   table
+     *          Table name
+     * @param   keyColumn
+     *          Name of column with group or user name
+     * @param   name
+     *          Group or user name
+     * @param   property
+     *          Property name
+     * @param   server
+     *          Server name or {@code null} if not per-server
+     * @param   world
+     *          World name or {@code null} if not per-world
+     * @param   value
+     *          New value or {@code null} to remove the property
+     */
+    public void queuePropertyChange(@NotNull String table, @NotNull String keyColumn, @NotNull String name,
+                                    @NotNull String property, @Nullable String server, @Nullable String world,
+                                    @Nullable String value) {
+        synchronized (pendingProperties) {
+            pendingProperties.put(Arrays.asList(table, keyColumn, name, property, world, server), value);
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Queues removal of all properties of given entry. Property changes
+     * of the entry queued before this call are discarded.
+     *
+     * @param   table
+     *          Table name
+     * @param   keyColumn
+     *          Name of column with group or user name
+     * @param   name
+     *          Group or user name
+     */
+    public void queueRemoval(@NotNull String table, @NotNull String keyColumn, @NotNull String name) {
+        synchronized (pendingProperties) {
+            pendingProperties.keySet().removeIf(key -> key.get(0).equals(table) && key.get(2).equals(name));
+            pendingRemovals.add(new String[] {table, keyColumn, name});
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled || thread.isShutdown()) return;
+        flushScheduled = true;
+        thread.submit(this::flushAsync);
+    }
+
+    /**
+     * Writes queued changes and schedules another attempt in {@link #RETRY_DELAY}
+     * seconds if writing failed. Changes queued until then are written with it.
+     */
+    private void flushAsync() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            synchronized (pendingProperties) {
+                if (!flushScheduled && !thread.isShutdown()) {
+                    flushScheduled = true;
+                    thread.schedule(this::flushAsync, RETRY_DELAY, TimeUnit.SECONDS);
+                }
+            }
+            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
         }
     }
 
-    private PreparedStatement prepareStatement(@NonNull String query, @Nullable Object... vars) throws SQLException {
-        if (!isConnected()) openConnection();
-        PreparedStatement ps = con.prepareStatement(query);
-        int i = 0;
-        if (query.contains("?")) {
-            for (Object obj : vars) {
-                i++;
-                ps.setObject(i, obj);
+    /**
+     * Writes all queued changes in a single transaction. Removals of whole entries are
+     * written first, followed by removals of properties and upserts of new values,
+     * each batched by query. If writing fails, the transaction is rolled back and the
+     * changes are queued again to be written with the next flush.
+     *
+     * @throws  SQLException
+     *          If writing failed
+     */
+    void flush() throws SQLException {
+        List<String[]> removals;
+        Map<List<String>, String> properties;
+        synchronized (pendingProperties) {
+            flushScheduled = false;
+            if (pendingProperties.isEmpty() && pendingRemovals.isEmpty()) return;
+            removals = new ArrayList<>(pendingRemovals);
+            properties = new LinkedHashMap<>(pendingProperties);
+            pendingRemovals.clear();
+            pendingProperties.clear();
+        }
+        PooledConnection connection = borrow();
+        try {
+            connection.connection.setAutoCommit(false);
+            Set<PreparedStatement> batches = new LinkedHashSet<>();
+            for (String[] removal : removals) {
+                batches.add(connection.addBatch("delete from `" + removal[0] + "` where `" + removal[1] + "` = ?", removal[2]));
+            }
+            executeBatches(batches);
+            for (Map.Entry<List<String>, String> entry : properties.entrySet()) {
+                List<String> key = entry.getKey();
+                String world = key.get(4) == null ? "" : key.get(4);
+                String server = key.get(5) == null ? "" : key.get(5);
+                if (entry.getValue() == null) {
+                    batches.add(connection.addBatch("delete from `" + key.get(0) + "` where `" + key.get(1) + "` = ? and `property` = ? and world = ? and server = ?",
+                            key.get(2), key.get(3), world, server));
+                } else {
+                    batches.add(connection.addBatch("insert into `" + key.get(0) + "` (`" + key.get(1) + "`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?) on duplicate key update `value` = ?",
+                            key.get(2), key.get(3), entry.getValue(), world, server, entry.getValue()));
+                }
             }
+            executeBatches(batches);
+            connection.connection.commit();
+            connection.connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            requeue(removals, properties);
+            rollback(connection);
+            throw e;
         }
-        return ps;
+        release(connection);
     }
 
-    public CachedRowSet getCRS(@NonNull String query, @NonNull Object... vars) throws SQLException {
-        PreparedStatement ps = prepareStatement(query, vars);
-        ResultSet rs = ps.executeQuery();
-        CachedRowSet crs;
+    /**
+     * Rolls back current transaction of given connection and returns it into the pool.
+     * If rollback fails, the connection is discarded.
+     *
+     * @param   connection
+     *          Connection to roll back
+     */
+    private void rollback(@NotNull PooledConnection connection) {
         try {
-            crs = RowSetProvider.newFactory().createCachedRowSet();
-            crs.populate(rs);
-            return crs;
-        } finally {
-            rs.close();
-            ps.close();
+            connection.connection.rollback();
+            connection.connection.setAutoCommit(true);
+            for (PreparedStatement ps : connection.statements.values()) {
+                ps.clearBatch();
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            return;
+        }
+        release(connection);
+    }
+
+    /**
+     * Queues changes which failed to be written again. Changes queued in the meantime
+     * take priority, so failed property changes are dropped if the same property was
+     * changed again or the whole entry was removed since then.
+     *
+     * @param   removals
+     *          Failed removals of whole entries
+     * @param   properties
+     *          Failed property changes
+     */
+    private void requeue(@NotNull List<String[]> removals, @NotNull Map<List<String>, String> properties) {
+        synchronized (pendingProperties) {
+            List<String[]> newerRemovals = new ArrayList<>(pendingRemovals);
+            Map<List<String>, String> newerProperties = new LinkedHashMap<>(pendingProperties);
+            pendingRemovals.clear();
+            pendingRemovals.addAll(removals);
+            pendingRemovals.addAll(newerRemovals);
+            pendingProperties.clear();
+            for (Map.Entry<List<String>, String> entry : properties.entrySet()) {
+                List<String> key = entry.getKey();
+                if (newerRemovals.stream().noneMatch(r -> r[0].equals(key.get(0)) && r[2].equals(key.get(2)))) {
+                    pendingProperties.put(key, entry.getValue());
+                }
+            }
+            pendingProperties.putAll(newerProperties);
+        }
+    }
+
+    private void executeBatches(@NotNull Set<PreparedStatement> batches) throws SQLException {
+        for (PreparedStatement ps : batches) {
+            ps.executeBatch();
+        }
+        batches.clear();
+    }
+
+    /**
+     * Reader of a single row of query result.
+     */
+    @FunctionalInterface
+    public interface RowReader {
+
+        /**
+         * Reads current row of given result set.
+         *
+         * @param   rs
+         *          Result set pointing to the row to read
+         * @throws  SQLException
+         *          If reading failed
+         */
+        void read(@NotNull ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Connection with cache of statements prepared on it.
+     */
+    private static class PooledConnection {
+
+        /** Database connection */
+        @NotNull private final Connection connection;
+
+        /** Prepared statements by query */
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(@NotNull Connection connection) {
+            this.connection = connection;
+        }
+
+        @NotNull
+        private PreparedStatement prepare(@NotNull String query, @Nullable Object... vars) throws SQLException {
+            PreparedStatement ps = statements.get(query);
+            if (ps == null) {
+                ps = connection.prepareStatement(query);
+                statements.put(query, ps);
+            } else {
+                ps.clearParameters();
+            }
+            if (vars != null) {
+                for (int i = 0; i < vars.length; i++) {
+                    ps.setObject(i + 1, vars[i]);
+                }
+            }
+            return ps;
+        }
+
+        @NotNull
+        private PreparedStatement addBatch(@NotNull String query, @Nullable Object... vars) throws SQLException {
+            PreparedStatement ps = prepare(query, vars);
+            ps.addBatch();
+            return ps;
+        }
+
+        private void close() {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Connection is being discarded anyway
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,10 @@
 package me.neznamy.tab.shared.config.mysql;
 
 import me.neznamy.tab.shared.config.PropertyConfiguration;
-import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import javax.sql.rowset.CachedRowSet;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -20,35 +18,23 @@ public class MySQLGroupConfiguration implements PropertyConfiguration {
 
     public MySQLGroupConfiguration(@NotNull MySQL mysql) throws SQLException {
         this.mysql = mysql;
-        mysql.execute("create table if not exists tab_groups (`group` varchar(64), `property` varchar(16), `value` varchar(1024), world varchar(64), server varchar(64))");
-        CachedRowSet crs = mysql.getCRS("select * from tab_groups");
-        while (crs.next()) {
-            String group = crs.getString("group");
+        mysql.createPropertyTable("tab_groups", "group");
+        mysql.query("select * from tab_groups", rs -> {
+            String group = rs.getString("group");
             if (!group.equals(TabConstants.DEFAULT_GROUP)) group = group.toLowerCase(Locale.US);
-            String property = crs.getString("property");
-            String value = crs.getString("value");
-            String world = crs.getString("world");
-            String server = crs.getString("server");
+            String property = rs.getString("property");
+            String value = rs.getString("value");
+            String world = MySQL.getScope(rs, "world");
+            String server = MySQL.getScope(rs, "server");
             setProperty0(group, property, server, world, value);
-        }
+        });
     }
 
     @Override
     public void setProperty(@NotNull String group, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
         String lowercaseGroup = group.equals(TabConstants.DEFAULT_GROUP) ? group : group.toLowerCase(Locale.US);
-        try {
-            if (getProperty(lowercaseGroup, property, server, world) != null) {
-                mysql.execute("delete from `tab_groups` where `group` = ? and `property` = ? and world " + querySymbol(world == null) + " ? and server " + querySymbol(server == null) + " ?", lowercaseGroup, property, world, server);
-            }
-            setProperty0(lowercaseGroup, property, server, world, value);
-            if (value != null) mysql.execute("insert into `tab_groups` (`group`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?)", lowercaseGroup, property, value, world, server);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-        }
-    }
-    
-    private String querySymbol(boolean isNull) {
-        return isNull ? "is" : "=";
+        setProperty0(lowercaseGroup, property, server, world, value);
+        mysql.queuePropertyChange("tab_groups", "group", lowercaseGroup, property, server, world, value);
     }
 
     private void setProperty0(@NotNull String group, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
@@ -2,17 +2,20 @@ package me.neznamy.tab.shared.config.mysql;
 
 import java.sql.SQLException;
 import java.util.*;
-
-import javax.sql.rowset.CachedRowSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import me.neznamy.tab.shared.config.PropertyConfiguration;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class MySQLUserConfiguration implements PropertyConfiguration {
 
+    /** Milliseconds to wait for data of joining player before processing the join without them */
+    private static final int LOAD_TIMEOUT = 1000;
+
     private final MySQL mysql;
 
     private final WeakHashMap<TabPlayer, Map<String, Object>> values = new WeakHashMap<>();
@@ -21,26 +24,14 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
 
     public MySQLUserConfiguration(@NotNull MySQL mysql) throws SQLException {
         this.mysql = mysql;
-        mysql.execute("create table if not exists tab_users (`user` varchar(64), `property` varchar(16), `value` varchar(1024), world varchar(64), server varchar(64))");
+        mysql.createPropertyTable("tab_users", "user");
     }
 
     @Override
     public void setProperty(@NotNull String user, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
         TabPlayer p = getPlayer(user);
-        String lowercaseUser = user.toLowerCase();
-        try {
-            if (getProperty(lowercaseUser, property, server, world) != null) {
-                mysql.execute("delete from `tab_users` where `user` = ? and `property` = ? and world " + querySymbol(world == null) + " ? and server " + querySymbol(server == null) + " ?", lowercaseUser, property, world, server);
-            }
-            if (p != null) setProperty0(p, property, server, world, value);
-            if (value != null) mysql.execute("insert into `tab_users` (`user`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?)", lowercaseUser, property, value, world, server);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-        }
-    }
-
-    private String querySymbol(boolean isNull) {
-        return isNull ? "is" : "=";
+        if (p != null) setProperty0(p, property, server, world, value);
+        mysql.queuePropertyChange("tab_users", "user", user.toLowerCase(), property, server, world, value);
     }
 
     private void setProperty0(@NotNull TabPlayer user, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
@@ -71,11 +62,7 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
 
     @Override
     public void remove(@NotNull String player) {
-        try {
-            mysql.execute("delete from `tab_users` where `user` = ?", player);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-        }
+        mysql.queueRemoval("tab_users", "user", player);
         TabPlayer user = getPlayer(player);
         if (user == null) return;
         values.remove(user);
@@ -115,37 +102,67 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
         return p;
     }
 
-    public void load(@NotNull TabPlayer player) {
-        TAB.getInstance().getCPUManager().runTask(() -> {
-
+    /**
+     * Loads data of specified player on the database thread and applies it on the
+     * main thread, then runs given task. If the query does not finish in {@link #LOAD_TIMEOUT}
+     * milliseconds, the task runs without the data. If data of an already loaded player
+     * arrives later, the player is refreshed once it is applied.
+     *
+     * @param   player
+     *          Player to load data of
+     * @param   onLoad
+     *          Task to run on main thread once data is applied or loading timed out
+     */
+    public void load(@NotNull TabPlayer player, @NotNull Runnable onLoad) {
+        AtomicBoolean finished = new AtomicBoolean();
+        Runnable finish = () -> {
+            if (finished.compareAndSet(false, true)) onLoad.run();
+        };
+        mysql.runAsync(() -> {
             try {
-                CachedRowSet crs = mysql.getCRS("select * from `tab_users` where `user` = ?", player.getName().toLowerCase());
-                while (crs.next()) {
-                    String user = crs.getString("user");
-                    String property = crs.getString("property");
-                    String value = crs.getString("value");
-                    String world = crs.getString("world");
-                    String server = crs.getString("server");
-                    TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
-                    setProperty0(player, property, server, world, value);
-                }
-                CachedRowSet crs2 = mysql.getCRS("select * from `tab_users` where `user` = ?", player.getUniqueId().toString());
-                while (crs2.next()) {
-                    String user = crs2.getString("user");
-                    String property = crs2.getString("property");
-                    String value = crs2.getString("value");
-                    String world = crs2.getString("world");
-                    String server = crs2.getString("server");
-                    TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
-                    setProperty0(player, property, server, world, value);
-                }
-                TAB.getInstance().debug("Loaded MySQL data of " + player.getName());
-                if (crs.size() > 0 || crs2.size() > 0) {
-                    player.forceRefresh();
-                }
+                List<String[]> rows = loadRows(player.getName().toLowerCase(), player.getUniqueId().toString());
+                TAB.getInstance().getCPUManager().runTask(() -> {
+                    apply(player, rows);
+                    finish.run();
+                });
             } catch (SQLException e) {
                 TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
+                TAB.getInstance().getCPUManager().runTask(finish);
             }
         });
+        TAB.getInstance().getCPUManager().runTaskLater(LOAD_TIMEOUT, TabConstants.Feature.MYSQL, TabConstants.CpuUsageCategory.PLAYER_JOIN, finish);
+    }
+
+    /**
+     * Loads all rows of player with given name or UUID. Rows of UUID are returned
+     * last, so they override rows of name when applied in order.
+     *
+     * @param   name
+     *          Lowercase player name
+     * @param   uuid
+     *          Player UUID
+     * @return  Rows as user, property, value, world and server
+     * @throws  SQLException
+     *          If query failed
+     */
+    @NotNull
+    List<String[]> loadRows(@NotNull String name, @NotNull String uuid) throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        mysql.query("select * from `tab_users` where `user` = ? or `user` = ? order by (`user` = ?)", rs -> rows.add(new String[] {
+                rs.getString("user"), rs.getString("property"), rs.getString("value"), MySQL.getScope(rs, "world"), MySQL.getScope(rs, "server")
+        }), name, uuid, uuid);
+        return rows;
+    }
+
+    private void apply(@NotNull TabPlayer player, @NotNull List<String[]> rows) {
+        if (!player.isOnline()) return;
+        for (String[] row : rows) {
+            TAB.getInstance().debug("Loaded user line: " + String.join(", ", row));
+            setProperty0(player, row[1], row[4], row[3], row[2]);
+        }
+        TAB.getInstance().debug("Loaded MySQL data of " + player.getName());
+        if (!rows.isEmpty() && player.isLoaded()) {
+            player.forceRefresh();
+        }
     }
-}
\ No newline at end of file
+}
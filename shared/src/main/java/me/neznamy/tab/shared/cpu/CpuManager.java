@@ -1,13 +1,16 @@
 package me.neznamy.tab.shared.cpu;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.Getter;
 import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.features.types.Refreshable;
+import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -18,11 +21,23 @@ public class CpuManager {
 
     private final int UPDATE_RATE_SECONDS = 10;
 
-    /** Active time in current time period saved as nanoseconds from features */
-    private volatile Map<String, Map<String, AtomicLong>> featureUsageCurrent = new ConcurrentHashMap<>();
+    /** Registered feature metrics by feature name and usage type */
+    private final Map<String, Map<String, Metric>> featureMetricsByName = new ConcurrentHashMap<>();
 
-    /** Active time in current time period saved as nanoseconds from placeholders */
-    private volatile Map<String, AtomicLong> placeholderUsageCurrent = new ConcurrentHashMap<>();
+    /** Registered feature metrics indexed by their id */
+    @NotNull private volatile Metric[] featureMetrics = new Metric[0];
+
+    /** Registered placeholder metrics by placeholder identifier */
+    @Getter private final Map<String, Metric> placeholderMetrics = new ConcurrentHashMap<>();
+
+    /** Time tasks submitted to processing thread spent waiting in queue */
+    @Getter private final Metric queueWait = new Metric("Processing thread", "Queue wait");
+
+    /** Time tasks submitted to processing thread spent running */
+    @Getter private final Metric runTime = new Metric("Processing thread", "Run time");
+
+    /** Exporter of metrics in Prometheus format, {@code null} if disabled */
+    @Nullable private PrometheusExporter exporter;
 
     /** Last CPU report */
     @Nullable @Getter private CpuReport lastReport;
@@ -43,7 +58,7 @@ public class CpuManager {
     private volatile boolean enabled;
 
     /** Boolean tracking whether CPU usage should be tracked or not */
-    private boolean trackUsage;
+    private volatile boolean trackUsage;
 
     /**
      * Enables CPU usage tracking and returns {@code true} if it was not enabled previously.
@@ -55,19 +70,101 @@ public class CpuManager {
         if (trackUsage) return false;
         trackUsage = true;
         startRepeatingTask((int) TimeUnit.SECONDS.toMillis(UPDATE_RATE_SECONDS), () -> {
-            lastReport = new CpuReport(UPDATE_RATE_SECONDS, featureUsageCurrent, placeholderUsageCurrent);
-            featureUsageCurrent = new ConcurrentHashMap<>();
-            placeholderUsageCurrent = new ConcurrentHashMap<>();
+            Map<String, Map<String, Metric.Snapshot>> features = new HashMap<>();
+            Map<String, Map<String, LongAdder>> players = new HashMap<>();
+            for (Metric metric : featureMetrics) {
+                features.computeIfAbsent(metric.getName(), f -> new HashMap<>()).put(metric.getType(), metric.takeSnapshot());
+                Map<String, LongAdder> usage = players.computeIfAbsent(metric.getName(), f -> new HashMap<>());
+                ((IndexedMetric) metric).takePlayerUsage().forEach((player, time) ->
+                        usage.computeIfAbsent(player, p -> new LongAdder()).add(time.sum()));
+            }
+            Map<String, Metric.Snapshot> placeholders = new HashMap<>();
+            for (Metric metric : placeholderMetrics.values()) {
+                placeholders.put(metric.getName(), metric.takeSnapshot());
+            }
+            lastReport = new CpuReport(UPDATE_RATE_SECONDS, features, placeholders, players,
+                    queueWait.takeSnapshot(), runTime.takeSnapshot());
         });
         return true;
     }
 
+    /**
+     * Starts exporting metrics in Prometheus text format on given local port and/or
+     * into given file, and enables usage tracking. Does nothing if both are disabled.
+     *
+     * @param   port
+     *          Port to listen on for HTTP requests on localhost or 0 to disable
+     * @param   file
+     *          File to periodically write metrics into or {@code null} to disable
+     */
+    public void startExporter(int port, @Nullable File file) {
+        if (port <= 0 && file == null) return;
+        enableTracking();
+        exporter = new PrometheusExporter(this);
+        if (port > 0) exporter.startServer(port);
+        if (file != null) exporter.startFileWriter(file, UPDATE_RATE_SECONDS);
+    }
+
+    /**
+     * Returns all registered feature metrics.
+     *
+     * @return  All registered feature metrics
+     */
+    @NotNull
+    public Metric[] getFeatureMetrics() {
+        return featureMetrics;
+    }
+
+    /**
+     * Returns id of metric of given feature and usage type, registering it if it does
+     * not exist yet. Callers recording time frequently should get the id once and use
+     * {@link #addTime(int, long)} or {@link #addTime(int, TabPlayer, long)} to skip the lookup.
+     *
+     * @param   feature
+     *          Feature name
+     * @param   type
+     *          Usage type
+     * @return  Id of the metric
+     */
+    public int getMetricId(@NotNull String feature, @NotNull String type) {
+        return getMetric(feature, type).getId();
+    }
+
+    @NotNull
+    private IndexedMetric getMetric(@NotNull String feature, @NotNull String type) {
+        Map<String, Metric> types = featureMetricsByName.get(feature);
+        if (types == null) types = featureMetricsByName.computeIfAbsent(feature, f -> new ConcurrentHashMap<>());
+        Metric metric = types.get(type);
+        if (metric != null) return (IndexedMetric) metric;
+        synchronized (featureMetricsByName) {
+            metric = types.get(type);
+            if (metric != null) return (IndexedMetric) metric;
+            IndexedMetric created = new IndexedMetric(featureMetrics.length, feature, type);
+            Metric[] newMetrics = Arrays.copyOf(featureMetrics, featureMetrics.length + 1);
+            newMetrics[created.getId()] = created;
+            featureMetrics = newMetrics;
+            types.put(type, created);
+            return created;
+        }
+    }
+
+    /**
+     * Returns {@code true} if CPU usage is being tracked, {@code false} if not.
+     * Callers can use it to skip measuring time when it would not be used.
+     *
+     * @return  {@code true} if CPU usage is being tracked, {@code false} if not
+     */
+    public boolean isTrackingUsage() {
+        return trackUsage;
+    }
+
     /**
      * Cancels all tasks and shuts down thread pools
      */
     public void cancelAllTasks() {
         processingThread.shutdownNow();
         placeholderThread.shutdownNow();
+        if (exporter != null) exporter.stop();
     }
 
     /**
@@ -93,7 +190,17 @@ public class CpuManager {
             taskQueue.add(task);
             return;
         }
-        processingThread.submit(() -> run(task));
+        if (!trackUsage) {
+            processingThread.submit(() -> run(task));
+            return;
+        }
+        long submitted = System.nanoTime();
+        processingThread.submit(() -> {
+            long start = System.nanoTime();
+            queueWait.record(start - submitted);
+            run(task);
+            runTime.record(System.nanoTime() - start);
+        });
     }
 
     /**
@@ -105,8 +212,61 @@ public class CpuManager {
      */
     public void addTime(@NotNull String feature, @NotNull String type, long nanoseconds) {
         if (!trackUsage) return;
-        featureUsageCurrent.computeIfAbsent(feature, f -> new ConcurrentHashMap<>())
-                .computeIfAbsent(type, t -> new AtomicLong()).addAndGet(nanoseconds);
+        getMetric(feature, type).record(nanoseconds);
+    }
+
+    /**
+     * Adds cpu time to specified feature and usage type caused by specified player.
+     *
+     * @param feature     feature to add time to
+     * @param type        sub-feature to add time to
+     * @param player      player the time was spent on
+     * @param nanoseconds time to add
+     */
+    public void addTime(@NotNull String feature, @NotNull String type, @Nullable TabPlayer player, long nanoseconds) {
+        if (!trackUsage) return;
+        getMetric(feature, type).record(player, nanoseconds);
+    }
+
+    /**
+     * Adds cpu time to metric with specified id.
+     *
+     * @param id          id of metric from {@link #getMetricId(String, String)}
+     * @param nanoseconds time to add
+     */
+    public void addTime(int id, long nanoseconds) {
+        if (!trackUsage) return;
+        featureMetrics[id].record(nanoseconds);
+    }
+
+    /**
+     * Adds cpu time to metric with specified id caused by specified player.
+     *
+     * @param id          id of metric from {@link #getMetricId(String, String)}
+     * @param player      player the time was spent on
+     * @param nanoseconds time to add
+     */
+    public void addTime(int id, @Nullable TabPlayer player, long nanoseconds) {
+        if (!trackUsage) return;
+        ((IndexedMetric) featureMetrics[id]).record(player, nanoseconds);
+    }
+
+    /**
+     * Refreshes feature for player and adds the time to the feature's refresh metric
+     * if usage is being tracked.
+     *
+     * @param feature     feature to refresh
+     * @param player      player to refresh
+     * @param force       whether refresh should be forced or not
+     */
+    public void refreshAndMeasure(@NotNull Refreshable feature, @NotNull TabPlayer player, boolean force) {
+        if (!trackUsage) {
+            feature.refresh(player, force);
+            return;
+        }
+        long time = System.nanoTime();
+        feature.refresh(player, force);
+        featureMetrics[feature.getRefreshMetricId()].record(System.nanoTime() - time);
     }
 
     /**
@@ -117,7 +277,7 @@ public class CpuManager {
      */
     public void addPlaceholderTime(@NotNull String placeholder, long nanoseconds) {
         if (!trackUsage) return;
-        placeholderUsageCurrent.computeIfAbsent(placeholder, l -> new AtomicLong()).addAndGet(nanoseconds);
+        placeholderMetrics.computeIfAbsent(placeholder, l -> new Metric(l, null)).record(nanoseconds);
     }
 
     public void runMeasuredTask(@NotNull String feature, @NotNull String type, @NotNull Runnable task) {
@@ -153,6 +313,38 @@ public class CpuManager {
         addTime(feature, type, System.nanoTime() - time);
     }
 
+    /**
+     * Feature metric with an id for fast lookup, which also tracks time per player.
+     */
+    private static class IndexedMetric extends Metric {
+
+        /** Index of this metric in metric array */
+        @Getter private final int id;
+
+        /** Time in current time period saved as nanoseconds per player name */
+        private volatile ConcurrentHashMap<String, LongAdder> playerUsage = new ConcurrentHashMap<>();
+
+        private IndexedMetric(int id, @NotNull String feature, @NotNull String type) {
+            super(feature, type);
+            this.id = id;
+        }
+
+        private void record(@Nullable TabPlayer player, long nanoseconds) {
+            record(nanoseconds);
+            if (player == null) return;
+            LongAdder usage = playerUsage.get(player.getName());
+            if (usage == null) usage = playerUsage.computeIfAbsent(player.getName(), p -> new LongAdder());
+            usage.add(nanoseconds);
+        }
+
+        @NotNull
+        private Map<String, LongAdder> takePlayerUsage() {
+            Map<String, LongAdder> usage = playerUsage;
+            playerUsage = new ConcurrentHashMap<>();
+            return usage;
+        }
+    }
+
     private void run(@NotNull Runnable task) {
         try {
             task.run();
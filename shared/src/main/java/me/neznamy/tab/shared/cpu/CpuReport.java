@@ -5,14 +5,20 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Getter
 public class CpuReport {
 
+    /** Amount of most expensive players to remember per feature */
+    private static final int TOP_PLAYERS = 5;
+
     /** Active time in % from features */
     @NotNull private final Map<String, Map<String, Float>> featureUsage;
 
+    /** 99th percentile of call duration in nanoseconds by feature and usage type */
+    @NotNull private final Map<String, Map<String, Long>> featureP99;
+
     /** Total usage of all features in % */
     private final double featureUsageTotal;
 
@@ -22,37 +28,72 @@ public class CpuReport {
     /** Total usage of all placeholders in % */
     private final double placeholderUsageTotal;
 
+    /** Players with the highest active time in % per feature */
+    @NotNull private final Map<String, Map<String, Float>> topPlayers;
+
+    /** 99th percentile of time tasks waited in processing thread queue in nanoseconds */
+    private final long queueWaitP99;
+
+    /** 99th percentile of run time of tasks submitted to processing thread in nanoseconds */
+    private final long runTimeP99;
+
     /**
      * Constructs new instance with given parameters and performs calculation and ordering
      *
      * @param   updateRateSeconds
      *          How often is a new report made
      * @param   features
-     *          Feature usage map
+     *          Feature usage since previous report
      * @param   placeholders
-     *          Placeholder usage map
+     *          Placeholder usage since previous report
+     * @param   players
+     *          Usage per feature and player name since previous report
+     * @param   queueWait
+     *          Processing thread queue wait since previous report
+     * @param   runTime
+     *          Processing thread task run time since previous report
      */
-    public CpuReport(int updateRateSeconds, @NotNull Map<String, Map<String, AtomicLong>> features, @NotNull Map<String, AtomicLong> placeholders) {
+    public CpuReport(int updateRateSeconds, @NotNull Map<String, Map<String, Metric.Snapshot>> features,
+                     @NotNull Map<String, Metric.Snapshot> placeholders, @NotNull Map<String, Map<String, LongAdder>> players,
+                     @NotNull Metric.Snapshot queueWait, @NotNull Metric.Snapshot runTime) {
         long TIME_PERCENT = TimeUnit.SECONDS.toNanos(1) / updateRateSeconds;
-        TreeMap<Long, Map.Entry<String, Map<String, Float>>> sorted = new TreeMap<>((o1, o2) -> Long.compare(o2, o1));
+        List<Map.Entry<Long, Map.Entry<String, Map<String, Float>>>> sorted = new ArrayList<>();
+        featureP99 = new HashMap<>();
         features.forEach((key, val) -> {
             Map<String, Float> percent = new LinkedHashMap<>(val.size());
+            Map<String, Long> p99 = new HashMap<>(val.size());
             long sum = val.entrySet().stream()
-                    .sorted(Map.Entry.comparingByValue((o1, o2) -> Long.compare(o2.get(), o1.get())))
-                    .peek(e -> percent.put(e.getKey(), (float) e.getValue().get() / TIME_PERCENT))
-                    .mapToLong(e -> e.getValue().get())
+                    .filter(e -> e.getValue().getTotal() > 0)
+                    .sorted(Map.Entry.comparingByValue((o1, o2) -> Long.compare(o2.getTotal(), o1.getTotal())))
+                    .peek(e -> percent.put(e.getKey(), (float) e.getValue().getTotal() / TIME_PERCENT))
+                    .peek(e -> p99.put(e.getKey(), e.getValue().quantile(0.99)))
+                    .mapToLong(e -> e.getValue().getTotal())
                     .sum();
-            sorted.put(sum, new AbstractMap.SimpleImmutableEntry<>(key, percent));
+            if (sum == 0) return;
+            sorted.add(new AbstractMap.SimpleImmutableEntry<>(sum, new AbstractMap.SimpleImmutableEntry<>(key, percent)));
+            featureP99.put(key, p99);
         });
-        featureUsage = sorted.values().stream().collect(() -> new LinkedHashMap<>(features.size()),
+        sorted.sort((o1, o2) -> Long.compare(o2.getKey(), o1.getKey()));
+        featureUsage = sorted.stream().map(Map.Entry::getValue).collect(() -> new LinkedHashMap<>(sorted.size()),
                 (m, e) -> m.put(e.getKey(), e.getValue()), Map::putAll);
 
         // No, it's not empty
         featureUsageTotal = featureUsage.values().stream().mapToDouble(map -> map.values().stream().mapToDouble(Float::floatValue).sum()).sum();
 
-        placeholderUsage = placeholders.entrySet().stream().sorted(Map.Entry.comparingByValue((o1, o2) -> Long.compare(o2.get(), o1.get())))
-                .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), (float) e.getValue().get() / TIME_PERCENT), Map::putAll);
+        placeholderUsage = placeholders.entrySet().stream()
+                .filter(e -> e.getValue().getTotal() > 0)
+                .sorted(Map.Entry.comparingByValue((o1, o2) -> Long.compare(o2.getTotal(), o1.getTotal())))
+                .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), (float) e.getValue().getTotal() / TIME_PERCENT), Map::putAll);
 
         placeholderUsageTotal = placeholderUsage.values().stream().mapToDouble(Float::floatValue).sum();
+
+        topPlayers = new HashMap<>();
+        players.forEach((feature, usage) -> topPlayers.put(feature, usage.entrySet().stream()
+                .sorted((o1, o2) -> Long.compare(o2.getValue().sum(), o1.getValue().sum()))
+                .limit(TOP_PLAYERS)
+                .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), (float) e.getValue().sum() / TIME_PERCENT), Map::putAll)));
+
+        queueWaitP99 = queueWait.quantile(0.99);
+        runTimeP99 = runTime.quantile(0.99);
     }
 }
@@ -0,0 +1,115 @@
+package me.neznamy.tab.shared.cpu;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Latency histogram with buckets growing by powers of 2 from 1 microsecond
+ * to 17 seconds. Recording only increments striped counters, so it can be
+ * safely called from many threads at once.
+ */
+public class Histogram {
+
+    /** Exponent of the upper bound of the first bucket */
+    private static final int FIRST_EXPONENT = 10;
+
+    /** Upper bounds of buckets in nanoseconds, values above the last bound go into an extra bucket */
+    private static final long[] BOUNDS = new long[25];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUNDS[i] = 1L << (FIRST_EXPONENT + i);
+        }
+    }
+
+    /** Amount of recorded values in each bucket */
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+    /** Sum of all recorded values in nanoseconds */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Constructs new empty instance.
+     */
+    public Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param   nanoseconds
+     *          Value to record
+     */
+    public void record(long nanoseconds) {
+        buckets[bucketOf(nanoseconds)].increment();
+        sum.add(nanoseconds);
+    }
+
+    private int bucketOf(long nanoseconds) {
+        if (nanoseconds <= BOUNDS[0]) return 0;
+        return Math.min(64 - Long.numberOfLeadingZeros(nanoseconds - 1) - FIRST_EXPONENT, BOUNDS.length);
+    }
+
+    /**
+     * Returns current amount of values in each bucket.
+     *
+     * @return  Amount of values in each bucket
+     */
+    @NotNull
+    public long[] getCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns sum of all recorded values in nanoseconds.
+     *
+     * @return  Sum of all recorded values
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns upper bound of bucket with given index in nanoseconds
+     * or {@link Long#MAX_VALUE} for the last bucket.
+     *
+     * @param   bucket
+     *          Bucket index
+     * @return  Upper bound of the bucket
+     */
+    public static long getUpperBound(int bucket) {
+        return bucket < BOUNDS.length ? BOUNDS[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns upper bound of the bucket containing given quantile of values. If there
+     * are no values, returns 0. If the quantile falls into the last bucket, its lower
+     * bound is returned instead.
+     *
+     * @param   counts
+     *          Amount of values in each bucket
+     * @param   quantile
+     *          Quantile from 0 to 1
+     * @return  Estimated value of the quantile in nanoseconds
+     */
+    public static long quantile(@NotNull long[] counts, double quantile) {
+        long total = 0;
+        for (long count : counts) total += count;
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(getUpperBound(i), BOUNDS[BOUNDS.length-1]);
+        }
+        return BOUNDS[BOUNDS.length-1];
+    }
+}
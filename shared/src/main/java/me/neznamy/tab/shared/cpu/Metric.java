@@ -0,0 +1,93 @@
+package me.neznamy.tab.shared.cpu;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cumulative time and call duration histogram of a single feature and usage type
+ * or a placeholder. Values are never reset, reports use difference between
+ * snapshots instead.
+ */
+@RequiredArgsConstructor
+public class Metric {
+
+    /** Name of the feature or placeholder */
+    @Getter @NotNull private final String name;
+
+    /** Usage type or {@code null} for placeholders */
+    @Getter @Nullable private final String type;
+
+    /** Total time in nanoseconds */
+    private final LongAdder total = new LongAdder();
+
+    /** Durations of individual calls */
+    @Getter private final Histogram histogram = new Histogram();
+
+    /** Total time at the time of previous snapshot */
+    private long lastTotal;
+
+    /** Bucket counts at the time of previous snapshot */
+    private long[] lastCounts;
+
+    /**
+     * Records a call.
+     *
+     * @param   nanoseconds
+     *          Duration of the call
+     */
+    public void record(long nanoseconds) {
+        total.add(nanoseconds);
+        histogram.record(nanoseconds);
+    }
+
+    /**
+     * Returns values recorded since previous call of this method. This method
+     * is only expected to be called from a single thread.
+     *
+     * @return  Values recorded since previous snapshot
+     */
+    @NotNull
+    public Snapshot takeSnapshot() {
+        long currentTotal = total.sum();
+        long[] counts = histogram.getCounts();
+        long[] delta = counts.clone();
+        if (lastCounts != null) {
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] -= lastCounts[i];
+            }
+        }
+        Snapshot snapshot = new Snapshot(currentTotal - lastTotal, delta);
+        lastTotal = currentTotal;
+        lastCounts = counts;
+        return snapshot;
+    }
+
+    /**
+     * Values recorded within a time period.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+
+        /** Total time in nanoseconds */
+        private final long total;
+
+        /** Amount of calls in each histogram bucket */
+        @NotNull private final long[] counts;
+
+        /**
+         * Returns estimated call duration at given quantile in nanoseconds.
+         *
+         * @param   quantile
+         *          Quantile from 0 to 1
+         * @return  Estimated call duration at given quantile
+         */
+        public long quantile(double quantile) {
+            return Histogram.quantile(counts, quantile);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package me.neznamy.tab.shared.cpu;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpServer;
+import me.neznamy.tab.shared.TAB;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Exporter of collected metrics in Prometheus text format, either served
+ * over HTTP on localhost or periodically written into a file.
+ */
+public class PrometheusExporter {
+
+    /** Manager to read metrics from */
+    @NotNull private final CpuManager manager;
+
+    /** Thread for serving requests and writing the file */
+    private final ScheduledExecutorService thread = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("TAB Metrics Exporter Thread").setDaemon(true).build());
+
+    /** Running HTTP server or {@code null} if not running */
+    @Nullable private HttpServer server;
+
+    /**
+     * Constructs new instance reading metrics from given manager.
+     *
+     * @param   manager
+     *          Manager to read metrics from
+     */
+    public PrometheusExporter(@NotNull CpuManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Starts HTTP server on localhost with given port serving metrics on any path.
+     *
+     * @param   port
+     *          Port to listen on
+     */
+    public void startServer(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.setExecutor(thread);
+            server.createContext("/", exchange -> {
+                byte[] response = export().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            });
+            server.start();
+        } catch (IOException e) {
+            TAB.getInstance().getErrorManager().criticalError("Failed to start metrics exporter on port " + port, e);
+        }
+    }
+
+    /**
+     * Starts periodically writing metrics into given file.
+     *
+     * @param   file
+     *          File to write metrics into
+     * @param   intervalSeconds
+     *          Interval between writes in seconds
+     */
+    public void startFileWriter(@NotNull File file, int intervalSeconds) {
+        thread.scheduleAtFixedRate(() -> {
+            File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+            try {
+                Files.write(temp.toPath(), export().getBytes(StandardCharsets.UTF_8));
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                TAB.getInstance().getErrorManager().criticalError("Failed to write metrics into " + file, e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the HTTP server and file writing.
+     */
+    public void stop() {
+        if (server != null) server.stop(0);
+        thread.shutdownNow();
+    }
+
+    /**
+     * Returns all metrics in Prometheus text format.
+     *
+     * @return  All metrics in Prometheus text format
+     */
+    @NotNull
+    public String export() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# HELP tab_feature_seconds Time spent processing features\n");
+        sb.append("# TYPE tab_feature_seconds histogram\n");
+        for (Metric metric : manager.getFeatureMetrics()) {
+            appendHistogram(sb, "tab_feature_seconds", "feature=\"" + escape(metric.getName()) +
+                    "\",type=\"" + escape(String.valueOf(metric.getType())) + "\"", metric.getHistogram());
+        }
+        sb.append("# HELP tab_placeholder_seconds Time spent refreshing placeholders\n");
+        sb.append("# TYPE tab_placeholder_seconds histogram\n");
+        for (Metric metric : manager.getPlaceholderMetrics().values()) {
+            appendHistogram(sb, "tab_placeholder_seconds", "placeholder=\"" + escape(metric.getName()) + "\"", metric.getHistogram());
+        }
+        sb.append("# HELP tab_processing_queue_wait_seconds Time tasks waited for the processing thread\n");
+        sb.append("# TYPE tab_processing_queue_wait_seconds histogram\n");
+        appendHistogram(sb, "tab_processing_queue_wait_seconds", "", manager.getQueueWait().getHistogram());
+        sb.append("# HELP tab_processing_run_seconds Run time of tasks on the processing thread\n");
+        sb.append("# TYPE tab_processing_run_seconds histogram\n");
+        appendHistogram(sb, "tab_processing_run_seconds", "", manager.getRunTime().getHistogram());
+        return sb.toString();
+    }
+
+    private void appendHistogram(@NotNull StringBuilder sb, @NotNull String name, @NotNull String labels, @NotNull Histogram histogram) {
+        String separator = labels.isEmpty() ? "" : ",";
+        long[] counts = histogram.getCounts();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            long bound = Histogram.getUpperBound(i);
+            String le = bound == Long.MAX_VALUE ? "+Inf" : String.valueOf(bound / 1e9);
+            sb.append(name).append("_bucket{").append(labels).append(separator).append("le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+        }
+        String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        sb.append(name).append("_sum").append(suffix).append(histogram.getSum() / 1e9).append('\n');
+        sb.append(name).append("_count").append(suffix).append(cumulative).append('\n');
+    }
+
+    @NotNull
+    private String escape(@NotNull String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -1,6 +1,7 @@
 package me.neznamy.tab.shared.features;
 
 import me.neznamy.tab.api.tablist.HeaderFooterManager;
+import me.neznamy.tab.shared.Property;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.chat.SimpleComponent;
@@ -84,7 +85,12 @@ public class HeaderFooter extends TabFeature implements HeaderFooterManager, Joi
             p.setProperty(this, TabConstants.Property.HEADER, getProperty(p, TabConstants.Property.HEADER));
             p.setProperty(this, TabConstants.Property.FOOTER, getProperty(p, TabConstants.Property.FOOTER));
         }
-        sendHeaderFooter(p, p.getProperty(TabConstants.Property.HEADER).updateAndGet(), p.getProperty(TabConstants.Property.FOOTER).updateAndGet());
+        Property header = p.getProperty(TabConstants.Property.HEADER);
+        Property footer = p.getProperty(TabConstants.Property.FOOTER);
+        boolean changed = header.update();
+        if (footer.update()) changed = true;
+        if (!changed && !force) return; // Client already has these values
+        sendHeaderFooter(p, header.get(), footer.get());
     }
 
     @Override
@@ -139,6 +145,19 @@ public class HeaderFooter extends TabFeature implements HeaderFooterManager, Joi
         return String.join("\n", lines);
     }
 
+    /**
+     * Sends header and footer to player if the feature is not disabled for them.
+     * Components are taken from {@link TabComponent#optimized(String)} cache and converted
+     * components are cached in them, so players with the same header/footer share
+     * the same converted components for their version tier.
+     *
+     * @param   player
+     *          Player to send header/footer to
+     * @param   header
+     *          Header to send
+     * @param   footer
+     *          Footer to send
+     */
     private void sendHeaderFooter(TabPlayer player, String header, String footer) {
         if (player.disabledHeaderFooter.get()) return;
         player.getTabList().setPlayerListHeaderFooter(TabComponent.optimized(header), TabComponent.optimized(footer));
@@ -0,0 +1,309 @@
+package me.neznamy.tab.shared.features;
+
+import lombok.AllArgsConstructor;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.features.redis.RedisPlayer;
+import me.neznamy.tab.shared.features.types.*;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feature maintaining amounts of online players for %online%, %staffonline%, %nonstaffonline%,
+ * %serveronline%, %worldonline% and %online_&lt;server&gt;% placeholders. Counters are updated
+ * when a player joins, quits, changes vanish status, world, server or staff permission,
+ * instead of looping through all players on every refresh. Only placeholders whose
+ * counter changed are updated. Staff permission is only checked and periodically
+ * refreshed once %staffonline% or %nonstaffonline% is used.
+ */
+public class OnlineCounter extends TabFeature implements Loadable, JoinListener, QuitListener,
+        VanishListener, WorldSwitchListener, ServerSwitchListener {
+
+    /** State each player is currently counted with, keyed by TabPlayer or UUID of redis player */
+    private final Map<Object, CountedPlayer> players = new HashMap<>();
+
+    /** Amount of visible players on this server */
+    private volatile int online;
+
+    /** Amount of visible staff players on this server */
+    private volatile int staffOnline;
+
+    /** Amount of visible players on other proxies */
+    private volatile int remoteOnline;
+
+    /** Amount of visible staff players on other proxies */
+    private volatile int remoteStaffOnline;
+
+    /** Amount of visible players on this proxy by server */
+    private final Map<String, Integer> serverOnline = new ConcurrentHashMap<>();
+
+    /** Amount of visible players on other proxies by server */
+    private final Map<String, Integer> remoteServerOnline = new ConcurrentHashMap<>();
+
+    /** Amount of visible players by world */
+    private final Map<String, Integer> worldOnline = new ConcurrentHashMap<>();
+
+    /** Registered %online_&lt;server&gt;% placeholders by server name */
+    private final Map<String, ServerPlaceholderImpl> serverPlaceholders = new ConcurrentHashMap<>();
+
+    /** Flag tracking whether total amount of players changed since last update */
+    private boolean onlineChanged;
+
+    /** Flag tracking whether amount of staff players changed since last update */
+    private boolean staffChanged;
+
+    /** Servers with changed amount of players since last update */
+    private final Set<String> changedServers = new HashSet<>();
+
+    /** Worlds with changed amount of players since last update */
+    private final Set<String> changedWorlds = new HashSet<>();
+
+    /** Whether staff placeholders are used and staff permission is checked or not */
+    private boolean staffTracked;
+
+    private final ServerPlaceholderImpl onlinePlaceholder;
+    private final ServerPlaceholderImpl staffOnlinePlaceholder;
+    private final ServerPlaceholderImpl nonStaffOnlinePlaceholder;
+    private final PlayerPlaceholderImpl serverOnlinePlaceholder;
+    private final PlayerPlaceholderImpl worldOnlinePlaceholder;
+
+    /**
+     * Constructs new instance and registers all placeholders using the counters.
+     */
+    public OnlineCounter() {
+        PlaceholderManagerImpl manager = TAB.getInstance().getPlaceholderManager();
+        onlinePlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.ONLINE, -1,
+                () -> online + remoteOnline);
+        staffOnlinePlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.STAFF_ONLINE, -1,
+                () -> staffOnline + remoteStaffOnline);
+        nonStaffOnlinePlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.NON_STAFF_ONLINE, -1,
+                () -> online - staffOnline);
+        serverOnlinePlaceholder = manager.registerPlayerPlaceholder(TabConstants.Placeholder.SERVER_ONLINE, -1,
+                p -> serverOnline.getOrDefault(((TabPlayer)p).getServer(), 0));
+        worldOnlinePlaceholder = manager.registerPlayerPlaceholder(TabConstants.Placeholder.WORLD_ONLINE, -1,
+                p -> worldOnline.getOrDefault(((TabPlayer)p).getWorld(), 0));
+    }
+
+    /**
+     * Registers %online_&lt;server&gt;% placeholder showing amount of visible players
+     * on given server, including players on other proxies.
+     *
+     * @param   identifier
+     *          Placeholder identifier
+     * @param   server
+     *          Name of server to count players on
+     */
+    public void registerServerPlaceholder(@NotNull String identifier, @NotNull String server) {
+        serverPlaceholders.put(server, TAB.getInstance().getPlaceholderManager().registerServerPlaceholder(identifier, -1,
+                () -> serverOnline.getOrDefault(server, 0) + remoteServerOnline.getOrDefault(server, 0)));
+    }
+
+    @Override
+    public void load() {
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            count(all, countedPlayer(all));
+        }
+        update();
+        PlaceholderManagerImpl manager = TAB.getInstance().getPlaceholderManager();
+        manager.runOnFirstUsage(TabConstants.Placeholder.STAFF_ONLINE, this::trackStaff);
+        manager.runOnFirstUsage(TabConstants.Placeholder.NON_STAFF_ONLINE, this::trackStaff);
+    }
+
+    /**
+     * Starts checking staff permission of players and refreshing it periodically.
+     * Called when a staff placeholder is used for the first time.
+     */
+    private void trackStaff() {
+        // Placeholder may be marked as used from any thread
+        TAB.getInstance().getCPUManager().runMeasuredTask(getFeatureName(), "Refreshing staff status", () -> {
+            if (staffTracked) return;
+            staffTracked = true;
+            recountStaff();
+            TAB.getInstance().getCPUManager().startRepeatingMeasuredTask(TAB.getInstance().getConfiguration().getPermissionRefreshInterval(),
+                    getFeatureName(), "Refreshing staff status", this::recountStaff);
+        });
+    }
+
+    private void recountStaff() {
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            if (players.containsKey(all)) count(all, countedPlayer(all));
+        }
+        update();
+    }
+
+    @Override
+    public void onJoin(@NotNull TabPlayer connectedPlayer) {
+        count(connectedPlayer, countedPlayer(connectedPlayer));
+        update();
+    }
+
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        count(disconnectedPlayer, null);
+        update();
+    }
+
+    @Override
+    public void onVanishStatusChange(@NotNull TabPlayer player) {
+        if (!players.containsKey(player)) return; // Not joined yet
+        count(player, countedPlayer(player));
+        update();
+    }
+
+    @Override
+    public void onWorldChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        count(changed, countedPlayer(changed));
+        update();
+    }
+
+    @Override
+    public void onServerChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        count(changed, countedPlayer(changed));
+        update();
+    }
+
+    /**
+     * Counts player connected to another proxy or updates their counted state.
+     *
+     * @param   player
+     *          Player on another proxy
+     */
+    public void updateRemotePlayer(@NotNull RedisPlayer player) {
+        count(player.getUniqueId(), new CountedPlayer(true, !player.isVanished(), player.isStaff(), player.getServer(), null));
+        update();
+    }
+
+    /**
+     * Stops counting player who disconnected from another proxy.
+     *
+     * @param   player
+     *          Player on another proxy
+     */
+    public void removeRemotePlayer(@NotNull RedisPlayer player) {
+        count(player.getUniqueId(), null);
+        update();
+    }
+
+    @NotNull
+    private CountedPlayer countedPlayer(@NotNull TabPlayer player) {
+        return new CountedPlayer(false, !player.isVanished(), staffTracked && player.hasPermission(TabConstants.Permission.STAFF),
+                player.getServer(), player.getWorld());
+    }
+
+    /**
+     * Replaces state the player is counted with and adjusts counters if it changed.
+     *
+     * @param   key
+     *          TabPlayer or UUID of redis player
+     * @param   state
+     *          New state of the player or {@code null} if player should no longer be counted
+     */
+    private void count(@NotNull Object key, @Nullable CountedPlayer state) {
+        CountedPlayer previous = state == null ? players.remove(key) : players.put(key, state);
+        if (previous != null && previous.equals(state)) return;
+        if (previous != null) add(previous, -1);
+        if (state != null) add(state, 1);
+    }
+
+    private void add(@NotNull CountedPlayer player, int delta) {
+        if (!player.visible) return;
+        if (player.remote) {
+            remoteOnline += delta;
+            if (player.staff) remoteStaffOnline += delta;
+            remoteServerOnline.merge(player.server, delta, this::sum);
+        } else {
+            online += delta;
+            if (player.staff) staffOnline += delta;
+            serverOnline.merge(player.server, delta, this::sum);
+            worldOnline.merge(player.world, delta, this::sum);
+            changedWorlds.add(player.world);
+        }
+        onlineChanged = true;
+        if (player.staff) staffChanged = true;
+        changedServers.add(player.server);
+    }
+
+    @Nullable
+    private Integer sum(int a, int b) {
+        return a + b == 0 ? null : a + b;
+    }
+
+    /**
+     * Pushes new values of placeholders whose counters changed since last update.
+     */
+    private void update() {
+        if (onlineChanged) onlinePlaceholder.updateValue(online + remoteOnline);
+        if (staffChanged) staffOnlinePlaceholder.updateValue(staffOnline + remoteStaffOnline);
+        if (onlineChanged || staffChanged) nonStaffOnlinePlaceholder.updateValue(online - staffOnline);
+        for (String server : changedServers) {
+            ServerPlaceholderImpl placeholder = serverPlaceholders.get(server);
+            if (placeholder != null) placeholder.updateValue(serverOnline.getOrDefault(server, 0) + remoteServerOnline.getOrDefault(server, 0));
+        }
+        if (!changedServers.isEmpty() || !changedWorlds.isEmpty()) {
+            for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                if (!all.isOnline()) continue; // Player is quitting
+                if (changedServers.contains(all.getServer())) {
+                    serverOnlinePlaceholder.updateValue(all, serverOnline.getOrDefault(all.getServer(), 0));
+                }
+                if (changedWorlds.contains(all.getWorld())) {
+                    worldOnlinePlaceholder.updateValue(all, worldOnline.getOrDefault(all.getWorld(), 0));
+                }
+            }
+        }
+        onlineChanged = false;
+        staffChanged = false;
+        changedServers.clear();
+        changedWorlds.clear();
+    }
+
+    @Override
+    @NotNull
+    public String getFeatureName() {
+        return "Online counter";
+    }
+
+    /**
+     * State a player is counted with.
+     */
+    @AllArgsConstructor
+    private static class CountedPlayer {
+
+        /** Whether player is connected to another proxy or not */
+        private final boolean remote;
+
+        /** Whether player is visible (not vanished) or not */
+        private final boolean visible;
+
+        /** Whether player has staff permission or not */
+        private final boolean staff;
+
+        /** Server the player is connected to */
+        @NotNull private final String server;
+
+        /** World the player is in, {@code null} for players on other proxies */
+        @Nullable private final String world;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CountedPlayer)) return false;
+            CountedPlayer other = (CountedPlayer) o;
+            return remote == other.remote && visible == other.visible && staff == other.staff &&
+                    server.equals(other.server) && Objects.equals(world, other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(remote, visible, staff, server, world);
+        }
+    }
+}
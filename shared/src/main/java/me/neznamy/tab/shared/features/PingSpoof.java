@@ -13,17 +13,30 @@ import java.util.UUID;
 
 /**
  * This feature hides real ping of players in connection bar and
- * replaces it with a custom fake value.
+ * replaces it with a custom fake value. On platforms with pipeline injection
+ * the value is rewritten in packets the server is already sending, so the feature
+ * only sends packets when it is loaded or unloaded and to a player who joined or
+ * switched server, since packets sent before pipeline injection were not rewritten.
  */
-public class PingSpoof extends TabFeature implements JoinListener, LatencyListener, Loadable, UnLoadable {
+public class PingSpoof extends TabFeature implements JoinListener, ServerSwitchListener, LatencyListener, Loadable, UnLoadable {
 
     /** Value to display as ping instead of real ping */
     private final int value = config().getInt("ping-spoof.value", 0);
 
+    /**
+     * Whether latency is rewritten in outgoing packets, {@code false} on platforms
+     * without pipeline injection, where it must be sent manually.
+     */
+    private final boolean rewritePackets = TAB.getInstance().getFeatureManager().isFeatureEnabled(TabConstants.Feature.PIPELINE_INJECTION);
+
+    /** Flag to stop rewriting packets when restoring real ping on unload */
+    private volatile boolean spoofing = true;
+
     private LayoutManagerImpl layoutManager;
 
     @Override
     public int onLatencyChange(@NotNull TabPlayer packetReceiver, @NotNull UUID id, int latency) {
+        if (!spoofing) return latency;
         if (layoutManager != null) {
             if (packetReceiver.layoutData.view != null) {
                 for (ParentGroup group : packetReceiver.layoutData.view.getGroups()) {
@@ -44,17 +57,49 @@ public class PingSpoof extends TabFeature implements JoinListener, LatencyListen
 
     @Override
     public void unload() {
+        spoofing = false;
         updateAll(true);
     }
 
     @Override
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
+        if (rewritePackets) {
+            // Entries the player received before pipeline was injected were not rewritten,
+            // entries of the player sent to others are rewritten in their pipelines
+            updateViewer(connectedPlayer);
+            return;
+        }
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             connectedPlayer.getTabList().updateLatency(all.getTablistId(), value);
             all.getTabList().updateLatency(connectedPlayer.getTablistId(), value);
         }
     }
 
+    @Override
+    public void onServerChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        if (rewritePackets) updateViewer(changed);
+    }
+
+    /**
+     * Sends fake latency of all players to specified viewer.
+     *
+     * @param   viewer
+     *          Player to send latency to
+     */
+    private void updateViewer(@NotNull TabPlayer viewer) {
+        for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
+            viewer.getTabList().updateLatency(target.getTablistId(), value);
+        }
+    }
+
+    /**
+     * Resends latency of all players to all players. This is only needed once when
+     * feature is loaded or unloaded, since entries already in the tablist do not
+     * go through packet rewriting.
+     *
+     * @param   realPing
+     *          {@code true} to send real ping, {@code false} to send fake value
+     */
     private void updateAll(boolean realPing) {
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
             for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
@@ -34,7 +34,7 @@ import org.jetbrains.annotations.Nullable;
  * Messy class for placeholder management
  */
 public class PlaceholderManagerImpl extends TabFeature implements PlaceholderManager, JoinListener, Loadable,
-        Refreshable {
+        Refreshable, QuitListener {
 
     private final Pattern placeholderPattern = Pattern.compile("%([^%]*)%");
 
@@ -48,6 +48,9 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
     private final Map<String, Set<Refreshable>> placeholderUsage = new ConcurrentHashMap<>();
     private Placeholder[] usedPlaceholders = new Placeholder[0];
 
+    //map of String-List of actions to run when placeholder is used for the first time
+    private final Map<String, List<Runnable>> firstUsageActions = new HashMap<>();
+
     @Getter private int loopTime;
 
     @NotNull @Getter private final TabExpansion tabExpansion = registerExpansion ?
@@ -55,6 +58,11 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
 
     private final CpuManager cpu;
 
+    /** Ids of CPU metrics recorded on every refresh loop */
+    private final int refreshInitMetric;
+    private final int requestMetric;
+    private final int saveMetric;
+
     /**
      * Constructs new instance and loads refresh intervals from config.
      *
@@ -63,6 +71,9 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
      */
     public PlaceholderManagerImpl(@NotNull CpuManager cpu) {
         this.cpu = cpu;
+        refreshInitMetric = cpu.getMetricId(getFeatureName(), CpuUsageCategory.PLACEHOLDER_REFRESH_INIT);
+        requestMetric = cpu.getMetricId(getFeatureName(), CpuUsageCategory.PLACEHOLDER_REQUEST);
+        saveMetric = cpu.getMetricId(getFeatureName(), CpuUsageCategory.PLACEHOLDER_SAVE);
         TAB.getInstance().getConfigHelper().startup().fixRefreshIntervals(refreshIntervals);
         defaultRefresh = refreshIntervals.getOrDefault("default-refresh-interval", 500);
     }
@@ -77,12 +88,12 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
         }
         if (placeholders.isEmpty()) return;
         PlaceholderRefreshTask task = new PlaceholderRefreshTask(placeholders);
-        cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_REFRESH_INIT, System.nanoTime() - time);
+        cpu.addTime(refreshInitMetric, System.nanoTime() - time);
         cpu.getPlaceholderThread().submit(() -> {
             // Run in placeholder refreshing thread
             long time2 = System.nanoTime();
             task.run();
-            cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_REQUEST, System.nanoTime() - time2);
+            cpu.addTime(requestMetric, System.nanoTime() - time2);
 
             // Back to main thread
             cpu.runTask(() -> processRefreshResults(task));
@@ -95,7 +106,7 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
         updateServerPlaceholders(task.getServerPlaceholderResults(), update);
         updatePlayerPlaceholders(task.getPlayerPlaceholderResults(), update);
         Map<TabPlayer, Set<Refreshable>> forceUpdate = updateRelationalPlaceholders(task.getRelationalPlaceholderResults());
-        cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_SAVE, System.nanoTime() - time);
+        cpu.addTime(saveMetric, System.nanoTime() - time);
 
         refreshFeatures(forceUpdate, update);
     }
@@ -103,16 +114,12 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
     private void refreshFeatures(@NotNull Map<TabPlayer, Set<Refreshable>> forceUpdate, @NotNull Map<TabPlayer, Set<Refreshable>> update) {
         for (Entry<TabPlayer, Set<Refreshable>> entry : update.entrySet()) {
             for (Refreshable r : entry.getValue()) {
-                long startTime = System.nanoTime();
-                r.refresh(entry.getKey(), false);
-                cpu.addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
+                cpu.refreshAndMeasure(r, entry.getKey(), false);
             }
         }
         for (Entry<TabPlayer, Set<Refreshable>> entry : forceUpdate.entrySet()) {
             for (Refreshable r : entry.getValue()) {
-                long startTime = System.nanoTime();
-                r.refresh(entry.getKey(), true);
-                cpu.addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
+                cpu.refreshAndMeasure(r, entry.getKey(), true);
             }
         }
     }
@@ -273,11 +280,36 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
             recalculateUsedPlaceholders();
             TabPlaceholder p = getPlaceholder(identifier);
             for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                tabExpansion.setPlaceholderValue(all, p.getIdentifier(), p.getLastValueSafe(all));
+                tabExpansion.setPlaceholderValue(all, p, p.getLastValueSafe(all));
+            }
+            List<Runnable> actions;
+            synchronized (firstUsageActions) {
+                actions = firstUsageActions.remove(identifier);
             }
+            if (actions != null) actions.forEach(Runnable::run);
         }
     }
 
+    /**
+     * Runs given action once placeholder is used by any feature. If it
+     * is already used, the action is run immediately. Allows features to
+     * only start work needed by a placeholder when it is actually used.
+     *
+     * @param   identifier
+     *          Placeholder identifier
+     * @param   action
+     *          Action to run on first usage
+     */
+    public void runOnFirstUsage(@NonNull String identifier, @NonNull Runnable action) {
+        synchronized (firstUsageActions) {
+            if (!placeholderUsage.containsKey(identifier)) {
+                firstUsageActions.computeIfAbsent(identifier, x -> new ArrayList<>()).add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
     /**
      * Updates array of used placeholders.
      */
@@ -320,13 +352,24 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         for (Placeholder p : usedPlaceholders) {
             if (p instanceof ServerPlaceholderImpl) { // server placeholders don't update on join
-                tabExpansion.setPlaceholderValue(connectedPlayer, p.getIdentifier(), ((ServerPlaceholderImpl) p).getLastValue());
+                tabExpansion.setPlaceholderValue(connectedPlayer, (ServerPlaceholderImpl) p, ((ServerPlaceholderImpl) p).getLastValue());
             }
         }
         // Initialize to avoid onVanishStatusChange being called in the loop after joining because previous value was null
         ((PlayerPlaceholderImpl)registeredPlaceholders.get(TabConstants.Placeholder.VANISHED)).update(connectedPlayer);
     }
 
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        for (Placeholder p : registeredPlaceholders.values()) {
+            if (p instanceof PlayerPlaceholderImpl) {
+                ((PlayerPlaceholderImpl) p).removeLastValue(disconnectedPlayer);
+            } else if (p instanceof RelationalPlaceholderImpl) {
+                ((RelationalPlaceholderImpl) p).removeLastValues(disconnectedPlayer);
+            }
+        }
+    }
+
     @Override
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
         // Condition or placeholder only used in tab expansion, do nothing for now
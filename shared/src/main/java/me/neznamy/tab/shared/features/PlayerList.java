@@ -24,7 +24,7 @@ import java.util.UUID;
  */
 @Getter
 public class PlayerList extends TabFeature implements TabListFormatManager, JoinListener, Loadable,
-        UnLoadable, WorldSwitchListener, ServerSwitchListener, Refreshable, VanishListener {
+        UnLoadable, WorldSwitchListener, ServerSwitchListener, Refreshable, VanishListener, QuitListener {
 
     /** Config option toggling anti-override which prevents other plugins from overriding TAB */
     protected final boolean antiOverrideTabList = config().getBoolean("tablist-name-formatting.anti-override", true);
@@ -253,6 +253,13 @@ public class PlayerList extends TabFeature implements TabListFormatManager, Join
         }
     }
 
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            all.getTabList().removeExpectedDisplayName(disconnectedPlayer);
+        }
+    }
+
     @Override
     public void onVanishStatusChange(@NotNull TabPlayer player) {
         if (player.isVanished() || player.disabledPlayerList.get()) return;
@@ -7,14 +7,40 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.types.*;
 import org.jetbrains.annotations.NotNull;
 
+import me.neznamy.tab.shared.util.PlayerMap;
+
+import java.util.UUID;
+
 /**
  * Cancelling GameMode change packet to spectator GameMode to avoid players being moved on
  * the bottom of TabList with transparent name. Does not work on self as that would result
  * in players not being able to clip through walls.
+ * <p>
+ * On platforms with pipeline injection the game mode is rewritten in packets the server
+ * is already sending. Only the view of a player who joined or switched server / world is
+ * resent once, since packets sent before pipeline injection were not rewritten. On other
+ * platforms, the fake value is sent after every event that may have caused the server
+ * to send the real one.
  */
 @Getter
-public class SpectatorFix extends TabFeature implements JoinListener, GameModeListener, Loadable, UnLoadable,
-        ServerSwitchListener, WorldSwitchListener, VanishListener {
+public class SpectatorFix extends TabFeature implements JoinListener, QuitListener, GameModeListener, Loadable, UnLoadable,
+        ServerSwitchListener, WorldSwitchListener, VanishListener, EntryGameModeListener {
+
+    /**
+     * Whether game mode is rewritten in outgoing packets, {@code false} on platforms
+     * without pipeline injection, where it must be sent manually.
+     */
+    private final boolean rewritePackets = TAB.getInstance().getFeatureManager().isFeatureEnabled(TabConstants.Feature.PIPELINE_INJECTION);
+
+    /** Flag to stop rewriting packets when restoring real game modes on unload */
+    private volatile boolean hiding = true;
+
+    /**
+     * Whether players have bypass permission or not. Resolved on the main thread
+     * on join, server switch, world switch and every permission refresh interval,
+     * so that rewriting packets on netty threads does not need to check permissions.
+     */
+    private final PlayerMap<Boolean> bypass = new PlayerMap<>();
 
     /**
      * Sends GameMode update of all players to either their real GameMode if
@@ -30,20 +56,70 @@ public class SpectatorFix extends TabFeature implements JoinListener, GameModeLi
     private void updatePlayer(@NotNull TabPlayer viewer, boolean realGameMode, boolean mutually) {
         for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
             if (viewer == target) continue;
-            if (target.getGamemode() == 3 && !viewer.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS)) {
+            if (target.getGamemode() == 3 && !hasBypass(viewer)) {
                 viewer.getTabList().updateGameMode(target.getTablistId(), realGameMode ? target.getGamemode() : 0);
             }
-            if (mutually && viewer.getGamemode() == 3 && !target.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS)) {
+            if (mutually && viewer.getGamemode() == 3 && !hasBypass(target)) {
                 target.getTabList().updateGameMode(viewer.getTablistId(), realGameMode ? viewer.getGamemode() : 0);
             }
         }
     }
 
+    /**
+     * Returns {@code true} if player has bypass permission, {@code false} if not.
+     * Uses value resolved on the main thread if available.
+     *
+     * @param   player
+     *          Player to check
+     * @return  {@code true} if player has bypass permission, {@code false} if not
+     */
+    private boolean hasBypass(@NotNull TabPlayer player) {
+        Boolean value = bypass.get(player);
+        return value == null ? player.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS) : value;
+    }
+
+    /**
+     * Resolves bypass permission of player and saves it for packet rewriting.
+     *
+     * @param   player
+     *          Player to resolve bypass permission of
+     */
+    private void resolveBypass(@NotNull TabPlayer player) {
+        bypass.put(player, player.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS));
+    }
+
+    /**
+     * Checks bypass permission of all players again and updates views
+     * of players whose permission changed.
+     */
+    private void refreshBypass() {
+        if (!hiding) return;
+        for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+            Boolean previous = bypass.get(viewer);
+            if (previous == null) continue; // Not joined yet
+            boolean value = viewer.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS);
+            if (value == previous) continue;
+            bypass.put(viewer, value);
+            for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
+                if (viewer == target || target.getGamemode() != 3) continue;
+                viewer.getTabList().updateGameMode(target.getTablistId(), value ? target.getGamemode() : 0);
+            }
+        }
+    }
+
+    @Override
+    public int onEntryGameModeChange(@NotNull TabPlayer packetReceiver, @NotNull UUID id, int gameMode) {
+        if (gameMode != 3 || !hiding) return gameMode;
+        if (packetReceiver.getTablistId().equals(id)) return gameMode;
+        if (Boolean.TRUE.equals(bypass.get(packetReceiver))) return gameMode;
+        return 0;
+    }
+
     @Override
     public void onGameModeChange(@NotNull TabPlayer player) {
-        if (player.getGamemode() != 3) return;
+        if (rewritePackets || player.getGamemode() != 3) return;
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
-            if (viewer.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS)) continue;
+            if (hasBypass(viewer)) continue;
             if (player != viewer && player.getServer().equals(viewer.getServer())) {
                 viewer.getTabList().updateGameMode(player.getTablistId(), 0);
             }
@@ -52,19 +128,33 @@ public class SpectatorFix extends TabFeature implements JoinListener, GameModeLi
 
     @Override
     public void onJoin(@NotNull TabPlayer p) {
+        resolveBypass(p);
+        // Entries the player received before pipeline was injected were not rewritten,
+        // entries of the player sent to others are rewritten in their pipelines
         TAB.getInstance().getCPUManager().runTaskLater(100, getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_JOIN,
-                () -> updatePlayer(p, false, true));
+                () -> updatePlayer(p, false, !rewritePackets));
+    }
+
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        bypass.remove(disconnectedPlayer);
     }
 
     @Override
     public void load() {
+        for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+            resolveBypass(viewer);
+        }
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
             updatePlayer(viewer, false, false);
         }
+        TAB.getInstance().getCPUManager().startRepeatingMeasuredTask(TAB.getInstance().getConfiguration().getPermissionRefreshInterval(),
+                getFeatureName(), "Refreshing bypass permission", this::refreshBypass);
     }
 
     @Override
     public void unload() {
+        hiding = false;
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
             updatePlayer(viewer, true, false);
         }
@@ -72,8 +162,14 @@ public class SpectatorFix extends TabFeature implements JoinListener, GameModeLi
 
     @Override
     public void onServerChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        resolveBypass(changed);
         // 200ms delay for global playerlist, taking extra time
         TAB.getInstance().getCPUManager().runTaskLater(300, getFeatureName(), TabConstants.CpuUsageCategory.SERVER_SWITCH, () -> {
+            if (rewritePackets) {
+                // Only the switching player may have received entries before pipeline was injected
+                updatePlayer(changed, false, false);
+                return;
+            }
             for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
                 updatePlayer(all, false, true);
             }
@@ -82,19 +178,24 @@ public class SpectatorFix extends TabFeature implements JoinListener, GameModeLi
 
     @Override
     public void onWorldChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        resolveBypass(changed);
+        if (rewritePackets) {
+            updatePlayer(changed, false, false);
+            return;
+        }
         // Some server versions may resend gamemode on world switch, resend false value again
         if (changed.getGamemode() != 3) return;
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
-            if (viewer == changed || viewer.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS)) continue;
+            if (viewer == changed || hasBypass(viewer)) continue;
             viewer.getTabList().updateGameMode(changed.getTablistId(), 0);
         }
     }
 
     @Override
     public void onVanishStatusChange(@NotNull TabPlayer player) {
-        if (player.isVanished() || player.getGamemode() != 3) return;
+        if (rewritePackets || player.isVanished() || player.getGamemode() != 3) return;
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
-            if (viewer == player || viewer.hasPermission(TabConstants.Permission.SPECTATOR_BYPASS)) continue;
+            if (viewer == player || hasBypass(viewer)) continue;
             viewer.getTabList().updateGameMode(player.getTablistId(), 0);
         }
     }
@@ -104,4 +205,4 @@ public class SpectatorFix extends TabFeature implements JoinListener, GameModeLi
     public String getFeatureName() {
         return "Spectator fix";
     }
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.placeholders.conditions.Condition;
+import me.neznamy.tab.shared.util.PlayerSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -46,7 +47,7 @@ public class BossBarLine implements BossBar {
     @Getter private final boolean announcementBar;
 
     //set of players seeing this BossBar
-    private final Set<TabPlayer> players = new HashSet<>();
+    private final Set<TabPlayer> players = new PlayerSet();
 
     //refreshers
     private final TextRefresher textRefresher;
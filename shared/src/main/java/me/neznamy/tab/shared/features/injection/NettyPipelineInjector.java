@@ -25,6 +25,10 @@ public abstract class NettyPipelineInjector extends PipelineInjector {
     //handler to inject before
     private final @NotNull String injectPosition;
 
+    /** Id of CPU metric for anti-override checks done on every sent packet */
+    private final int antiOverrideMetric = TAB.getInstance().getCPUManager().getMetricId(
+            "Scoreboard management", TabConstants.CpuUsageCategory.ANTI_OVERRIDE);
+
     @Getter private final Function<TabPlayer, ChannelDuplexHandler> channelFunction = TabChannelDuplexHandler::new;
 
     @Nullable
@@ -90,9 +94,13 @@ public abstract class NettyPipelineInjector extends PipelineInjector {
                 if (player.getVersion().getMinorVersion() >= 8)
                     player.getTabList().onPacketSend(packet);
 
-                long time = System.nanoTime();
-                player.getScoreboard().onPacketSend(packet);
-                TAB.getInstance().getCPUManager().addTime("Scoreboard management", TabConstants.CpuUsageCategory.ANTI_OVERRIDE, System.nanoTime()-time);
+                if (TAB.getInstance().getCPUManager().isTrackingUsage()) {
+                    long time = System.nanoTime();
+                    player.getScoreboard().onPacketSend(packet);
+                    TAB.getInstance().getCPUManager().addTime(antiOverrideMetric, System.nanoTime()-time);
+                } else {
+                    player.getScoreboard().onPacketSend(packet);
+                }
 
                 if (isLogin(packet)) {
                     player.getScoreboard().freeze();
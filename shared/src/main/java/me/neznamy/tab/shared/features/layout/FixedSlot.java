@@ -39,6 +39,20 @@ public class FixedSlot extends TabFeature implements Refreshable {
         }
     }
 
+    /**
+     * Re-adds this slot to the viewer if it uses specified skin, which has just finished downloading.
+     *
+     * @param   viewer
+     *          Player viewing this slot
+     * @param   skin
+     *          Full definition of downloaded skin
+     */
+    public void refreshSkin(@NotNull TabPlayer viewer, @NotNull String skin) {
+        if (!viewer.getProperty(skinProperty).get().equals(skin)) return;
+        viewer.getTabList().removeEntry(id);
+        viewer.getTabList().addEntry(createEntry(viewer));
+    }
+
     @Override
     @NotNull
     public String getRefreshDisplayName() {
@@ -1,6 +1,5 @@
 package me.neznamy.tab.shared.features.layout;
 
-import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.types.Refreshable;
 import me.neznamy.tab.shared.features.types.TabFeature;
@@ -19,12 +18,12 @@ public class LayoutLatencyRefresher extends TabFeature implements Refreshable {
 
     @Override
     public void refresh(@NotNull TabPlayer p, boolean force) {
-        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all.getVersion().getMinorVersion() < 8) continue;
-            if (all.layoutData.view == null) continue;
-            PlayerSlot slot = all.layoutData.view.getSlot(p);
+        for (TabPlayer viewer : p.layoutData.viewers) {
+            if (viewer.getVersion().getMinorVersion() < 8) continue;
+            if (viewer.layoutData.view == null) continue;
+            PlayerSlot slot = viewer.layoutData.view.getSlot(p);
             if (slot == null) continue;
-            all.getTabList().updateLatency(slot.getUniqueId(), p.getPing());
+            viewer.getTabList().updateLatency(slot.getUniqueId(), p.getPing());
         }
     }
 
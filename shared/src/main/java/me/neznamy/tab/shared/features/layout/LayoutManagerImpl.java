@@ -18,6 +18,7 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.PlayerList;
 import me.neznamy.tab.shared.features.layout.skin.SkinManager;
 import me.neznamy.tab.shared.features.types.*;
+import me.neznamy.tab.shared.util.PlayerSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,7 +34,7 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     private final String remainingPlayersText = EnumChatFormat.color(config().getString("layout.remaining-players-text", "... and %s more"));
     private final int emptySlotPing = config().getInt("layout.empty-slot-ping-value", 1000);
 
-    private final SkinManager skinManager = new SkinManager(defaultSkin, defaultSkinHashMap);
+    private final SkinManager skinManager = new SkinManager(defaultSkin, defaultSkinHashMap, this::onSkinResolved);
     private final Map<Integer, UUID> uuids = new HashMap<Integer, UUID>() {{
         for (int slot=1; slot<=80; slot++) {
             put(slot, new UUID(0, direction.translateSlot(slot)));
@@ -108,7 +109,10 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
             view.send();
             p.layoutData.view = view;
         }
-        tickAllLayouts();
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            if (all == p) continue;
+            if (all.layoutData.view != null) all.layoutData.view.addPlayer(p);
+        }
 
         // Unformat original entries for players who can see a layout to avoid spaces due to unparsed placeholders and such
         if (highest == null) return;
@@ -120,9 +124,10 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     @Override
     public void onQuit(@NotNull TabPlayer p) {
         sortedPlayers.remove(p);
+        if (p.layoutData.view != null) p.layoutData.view.clearSlotIndex();
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             if (all == p) continue;
-            if (all.layoutData.view != null) all.layoutData.view.tick();
+            if (all.layoutData.view != null) all.layoutData.view.removePlayer(p);
         }
     }
 
@@ -151,6 +156,7 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
 
     @Override
     public void unload() {
+        skinManager.unload();
         for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
             if (p.getVersion().getMinorVersion() < 8 || p.isBedrockPlayer()) continue;
             p.getTabList().removeEntries(uuids.values());
@@ -159,7 +165,23 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
 
     @Override
     public void onVanishStatusChange(@NotNull TabPlayer p) {
-        tickAllLayouts();
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            if (all.layoutData.view != null) all.layoutData.view.updateVisibility(p);
+        }
+    }
+
+    /**
+     * Re-sends slots using the skin that has just finished downloading.
+     *
+     * @param   skin
+     *          Full definition of downloaded skin
+     */
+    private void onSkinResolved(@NotNull String skin) {
+        TAB.getInstance().getCPUManager().runMeasuredTask(getFeatureName(), TabConstants.CpuUsageCategory.SKIN_DOWNLOAD, () -> {
+            for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
+                if (p.layoutData.view != null) p.layoutData.view.refreshSkin(skin);
+            }
+        });
     }
 
     private @Nullable LayoutPattern getHighestLayout(@NotNull TabPlayer p) {
@@ -176,9 +198,16 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
 
     public void updateTeamName(@NotNull TabPlayer p, @NotNull String teamName) {
         sortedPlayers.remove(p);
+        TabPlayer[] players = TAB.getInstance().getOnlinePlayers();
+        int[][] positions = new int[players.length][];
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].layoutData.view != null) positions[i] = players[i].layoutData.view.detachPlayer(p);
+        }
         p.layoutData.sortingString = teamName;
         sortedPlayers.put(p, teamName);
-        tickAllLayouts();
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].layoutData.view != null) players[i].layoutData.view.attachPlayer(p, positions[i]);
+        }
     }
 
     @Override
@@ -193,11 +222,17 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     }
 
     /**
-     * Ticks layouts for all players.
+     * Re-evaluates groups of specified player in all views of given layout
+     * after conditions of its groups may have changed for the player.
+     *
+     * @param   pattern
+     *          Layout whose group conditions may have changed
+     * @param   player
+     *          Player to re-evaluate groups of
      */
-    public void tickAllLayouts() {
+    public void updateGroups(@NotNull LayoutPattern pattern, @NotNull TabPlayer player) {
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all.layoutData.view != null) all.layoutData.view.tick();
+            if (all.layoutData.view != null && all.layoutData.view.getPattern() == pattern) all.layoutData.view.updateGroup(player);
         }
     }
 
@@ -269,5 +304,8 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
         /** Layout forced via API */
         @Nullable
         public LayoutPattern forcedLayout;
+
+        /** Players whose layout currently displays this player in one of the slots */
+        public final Set<TabPlayer> viewers = new PlayerSet();
     }
 }
\ No newline at end of file
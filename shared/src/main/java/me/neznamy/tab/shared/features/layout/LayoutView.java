@@ -7,14 +7,16 @@ import me.neznamy.tab.shared.placeholders.conditions.Condition;
 import me.neznamy.tab.shared.platform.TabList;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 @Getter
 public class LayoutView {
@@ -27,6 +29,9 @@ public class LayoutView {
     private final Collection<FixedSlot> fixedSlots;
     private final List<ParentGroup> groups = new ArrayList<>();
 
+    /** Slots of players currently displayed in this layout */
+    private final Map<TabPlayer, PlayerSlot> slotsByPlayer = new HashMap<>();
+
     public LayoutView(LayoutManagerImpl manager, LayoutPattern pattern, TabPlayer viewer) {
         this.manager = manager;
         this.viewer = viewer;
@@ -49,39 +54,247 @@ public class LayoutView {
             viewer.getTabList().addEntry(slot.createEntry(viewer));
         }
         for (int slot : emptySlots) {
-            viewer.getTabList().addEntry(new TabList.Entry(
-                    manager.getUUID(slot),
-                    manager.getDirection().getEntryName(viewer, slot),
-                    manager.getSkinManager().getDefaultSkin(slot),
-                    true,
-                    manager.getEmptySlotPing(),
-                    0,
-                    new SimpleComponent("")
-            ));
+            viewer.getTabList().addEntry(createEmptyEntry(slot));
         }
         tick();
     }
 
+    private @NotNull TabList.Entry createEmptyEntry(int slot) {
+        return new TabList.Entry(
+                manager.getUUID(slot),
+                manager.getDirection().getEntryName(viewer, slot),
+                manager.getSkinManager().getDefaultSkin(slot),
+                true,
+                manager.getEmptySlotPing(),
+                0,
+                new SimpleComponent("")
+        );
+    }
+
+    /**
+     * Re-sends all slots which use specified skin, which has just finished downloading.
+     *
+     * @param   skin
+     *          Full definition of downloaded skin
+     */
+    public void refreshSkin(@NotNull String skin) {
+        if (viewer.getVersion().getMinorVersion() < 8 || viewer.isBedrockPlayer()) return;
+        for (FixedSlot slot : fixedSlots) {
+            slot.refreshSkin(viewer, skin);
+        }
+        for (int slot : emptySlots) {
+            if (!manager.getSkinManager().getDefaultSkinDefinition(slot).equals(skin)) continue;
+            viewer.getTabList().removeEntry(manager.getUUID(slot));
+            viewer.getTabList().addEntry(createEmptyEntry(slot));
+        }
+        for (ParentGroup group : groups) {
+            for (PlayerSlot slot : group.getPlayerSlots().values()) {
+                slot.refreshSkin();
+            }
+        }
+    }
+
     public void destroy() {
+        clearSlotIndex();
         if (viewer.getVersion().getMinorVersion() < 8 || viewer.isBedrockPlayer()) return;
         viewer.getTabList().removeEntries(manager.getUuids().values());
     }
 
+    /**
+     * Recomputes players in all groups. Each player is evaluated only once and
+     * placed into the first group whose condition they meet.
+     */
     public void tick() {
-        Stream<TabPlayer> str = manager.getSortedPlayers().keySet().stream().filter(
-                player -> TAB.getInstance().getPlatform().canSee(viewer, player));
-        List<TabPlayer> players = str.collect(Collectors.toList());
+        List<List<TabPlayer>> playersByGroup = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            playersByGroup.add(new ArrayList<>());
+        }
+        synchronized (manager.getSortedPlayers()) {
+            for (TabPlayer player : manager.getSortedPlayers().keySet()) {
+                if (!TAB.getInstance().getPlatform().canSee(viewer, player)) continue;
+                for (int i = 0; i < groups.size(); i++) {
+                    if (groups.get(i).accepts(player)) {
+                        playersByGroup.get(i).add(player);
+                        break;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            groups.get(i).tick(playersByGroup.get(i));
+        }
+    }
+
+    /**
+     * Adds player into the first group they belong to, only updating slots
+     * affected by the insertion. Does nothing if viewer cannot see the player.
+     *
+     * @param   player
+     *          Player to add
+     */
+    public void addPlayer(@NotNull TabPlayer player) {
+        if (!TAB.getInstance().getPlatform().canSee(viewer, player)) return;
+        int group = findGroup(player);
+        if (group != -1) groups.get(group).insert(player);
+    }
+
+    /**
+     * Moves player into the first group they belong to if it is not the group they are
+     * currently in, only updating slots affected by the move. Called when conditions of
+     * groups may have changed for the player, so a group with higher priority which
+     * started accepting the player takes over.
+     *
+     * @param   player
+     *          Player whose group conditions may have changed
+     */
+    public void updateGroup(@NotNull TabPlayer player) {
+        if (!manager.getSortedPlayers().containsKey(player)) return; // Not joined yet
+        if (!TAB.getInstance().getPlatform().canSee(viewer, player)) return;
+        int current = -1;
+        for (int i = 0; i < groups.size(); i++) {
+            if (groups.get(i).contains(player)) {
+                current = i;
+                break;
+            }
+        }
+        int target = findGroup(player);
+        if (current == target) return;
+        if (current != -1) groups.get(current).remove(player);
+        if (target != -1) groups.get(target).insert(player);
+    }
+
+    /**
+     * Returns index of the first group accepting specified player, {@code -1} if none does.
+     *
+     * @param   player
+     *          Player to find group for
+     * @return  Index of the first group accepting the player or {@code -1}
+     */
+    private int findGroup(@NotNull TabPlayer player) {
+        for (int i = 0; i < groups.size(); i++) {
+            if (groups.get(i).accepts(player)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes player from the group they are in, only updating slots affected by the removal.
+     *
+     * @param   player
+     *          Player to remove
+     */
+    public void removePlayer(@NotNull TabPlayer player) {
         for (ParentGroup group : groups) {
-            group.tick(players);
+            if (group.remove(player)) return;
         }
     }
 
-    public PlayerSlot getSlot(@NotNull TabPlayer target) {
+    /**
+     * Adds or removes player if their visibility for viewer changed.
+     *
+     * @param   player
+     *          Player whose visibility may have changed
+     */
+    public void updateVisibility(@NotNull TabPlayer player) {
+        boolean visible = TAB.getInstance().getPlatform().canSee(viewer, player);
+        boolean present = false;
         for (ParentGroup group : groups) {
-            if (group.getPlayers().containsKey(target)) {
-                return group.getPlayers().get(target);
+            if (group.contains(player)) {
+                present = true;
+                break;
             }
         }
+        if (visible == present) return;
+        if (visible) {
+            addPlayer(player);
+        } else {
+            removePlayer(player);
+        }
+    }
+
+    /**
+     * Removes player from their group without updating slots, so they can be inserted back
+     * after sorting string changes using {@link #attachPlayer(TabPlayer, int[])}.
+     *
+     * @param   player
+     *          Player to detach
+     * @return  Array of group index and former index in the group, {@code null} if player is not in any group
+     */
+    public int[] detachPlayer(@NotNull TabPlayer player) {
+        for (int i = 0; i < groups.size(); i++) {
+            int index = groups.get(i).detach(player);
+            if (index != -1) return new int[] {i, index};
+        }
         return null;
     }
+
+    /**
+     * Inserts previously detached player back using their new sorting string, only updating
+     * slots between old and new position and after them. Groups are evaluated from the top,
+     * so if a group with higher priority accepts the player now, they are moved into it.
+     * If the player was not detached, they are added as a new player.
+     *
+     * @param   player
+     *          Player to attach
+     * @param   detached
+     *          Result of {@link #detachPlayer(TabPlayer)}
+     */
+    public void attachPlayer(@NotNull TabPlayer player, int[] detached) {
+        if (detached == null) {
+            addPlayer(player);
+            return;
+        }
+        ParentGroup group = groups.get(detached[0]);
+        int target = findGroup(player);
+        if (target == detached[0]) {
+            group.attach(player, detached[1]);
+        } else {
+            group.updateSlots(detached[1]);
+            if (target != -1) groups.get(target).insert(player);
+        }
+    }
+
+    @Nullable
+    public PlayerSlot getSlot(@NotNull TabPlayer target) {
+        return slotsByPlayer.get(target);
+    }
+
+    /**
+     * Records that a player is now displayed in specified slot of this layout.
+     *
+     * @param   player
+     *          Player displayed in the slot
+     * @param   slot
+     *          Slot the player is displayed in
+     */
+    void onSlotAssigned(@NotNull TabPlayer player, @NotNull PlayerSlot slot) {
+        slotsByPlayer.put(player, slot);
+        player.layoutData.viewers.add(viewer);
+    }
+
+    /**
+     * Records that a player is no longer displayed in specified slot. If the player
+     * has already been moved into another slot, nothing happens.
+     *
+     * @param   player
+     *          Player previously displayed in the slot
+     * @param   slot
+     *          Slot the player was displayed in
+     */
+    void onSlotReleased(@NotNull TabPlayer player, @NotNull PlayerSlot slot) {
+        if (slotsByPlayer.remove(player, slot)) {
+            player.layoutData.viewers.remove(viewer);
+        }
+    }
+
+    /**
+     * Removes viewer of this layout from viewers of all displayed players. Called when
+     * this layout is no longer displayed to the viewer.
+     */
+    public void clearSlotIndex() {
+        for (TabPlayer player : slotsByPlayer.keySet()) {
+            player.layoutData.viewers.remove(viewer);
+        }
+        slotsByPlayer.clear();
+    }
 }
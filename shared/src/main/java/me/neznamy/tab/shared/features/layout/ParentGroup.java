@@ -10,12 +10,17 @@ import org.jetbrains.annotations.Nullable;
 
 public class ParentGroup {
 
+    /** Comparator ordering players the same way as {@link LayoutManagerImpl#getSortedPlayers()} */
+    private static final Comparator<TabPlayer> SORTING = Comparator.comparing(p -> p.layoutData.sortingString);
+
     @NotNull private final LayoutView layout;
     @Nullable private final Condition condition;
     @Getter private final int[] slots;
     private final TabPlayer viewer;
     @Getter private final Map<Integer, PlayerSlot> playerSlots = new HashMap<>();
-    @Getter final Map<TabPlayer, PlayerSlot> players = new HashMap<>();
+
+    /** All players belonging to this group in sorted order, including those not fitting into slots */
+    private final List<TabPlayer> sortedPlayers = new ArrayList<>();
 
     public ParentGroup(@NotNull LayoutView layout, @NotNull GroupPattern pattern, @NotNull TabPlayer viewer) {
         this.layout = layout;
@@ -27,30 +32,136 @@ public class ParentGroup {
         }
     }
 
-    public void tick(@NotNull List<TabPlayer> remainingPlayers) {
-        players.clear();
-        List<TabPlayer> meetingCondition = new ArrayList<>();
-        for (TabPlayer p : remainingPlayers) {
-            if (condition == null || condition.isMet(p)) meetingCondition.add(p);
-        }
-        remainingPlayers.removeAll(meetingCondition);
-        for (int index = 0; index < slots.length; index++) {
+    /**
+     * Returns {@code true} if specified player meets condition of this group, {@code false} if not.
+     *
+     * @param   p
+     *          Player to check
+     * @return  {@code true} if player belongs to this group, {@code false} if not
+     */
+    public boolean accepts(@NotNull TabPlayer p) {
+        return condition == null || condition.isMet(p);
+    }
+
+    /**
+     * Replaces all players in this group with given sorted list and updates all slots.
+     *
+     * @param   meetingCondition
+     *          Sorted list of players belonging to this group
+     */
+    public void tick(@NotNull List<TabPlayer> meetingCondition) {
+        sortedPlayers.clear();
+        sortedPlayers.addAll(meetingCondition);
+        updateSlots(0);
+    }
+
+    /**
+     * Returns {@code true} if specified player is in this group, {@code false} if not.
+     *
+     * @param   p
+     *          Player to check
+     * @return  {@code true} if player is in this group, {@code false} if not
+     */
+    public boolean contains(@NotNull TabPlayer p) {
+        return indexOf(p) != -1;
+    }
+
+    /**
+     * Inserts player into this group at position given by their sorting string and updates
+     * only slots from that position on.
+     *
+     * @param   p
+     *          Player to insert
+     */
+    public void insert(@NotNull TabPlayer p) {
+        attach(p, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes player from this group and updates only slots from their former position on.
+     *
+     * @param   p
+     *          Player to remove
+     * @return  {@code true} if player was in this group, {@code false} if not
+     */
+    public boolean remove(@NotNull TabPlayer p) {
+        int index = detach(p);
+        if (index == -1) return false;
+        updateSlots(index);
+        return true;
+    }
+
+    /**
+     * Removes player from this group without updating any slots. Used when player is
+     * expected to be inserted back with {@link #attach(TabPlayer, int)} after their
+     * sorting string changes.
+     *
+     * @param   p
+     *          Player to remove
+     * @return  Former index of player in this group or {@code -1} if not present
+     */
+    public int detach(@NotNull TabPlayer p) {
+        int index = indexOf(p);
+        if (index != -1) sortedPlayers.remove(index);
+        return index;
+    }
+
+    /**
+     * Inserts player into this group at position given by their sorting string and
+     * updates slots affected by the insertion and by previous detach at given index.
+     *
+     * @param   p
+     *          Player to insert
+     * @param   detachedIndex
+     *          Index player was detached from or {@link Integer#MAX_VALUE} if not detached
+     */
+    public void attach(@NotNull TabPlayer p, int detachedIndex) {
+        int index = Collections.binarySearch(sortedPlayers, p, SORTING);
+        if (index < 0) index = -index - 1;
+        sortedPlayers.add(index, p);
+        updateSlots(Math.min(index, detachedIndex));
+    }
+
+    /**
+     * Finds index of player in this group using their current sorting string.
+     *
+     * @param   p
+     *          Player to find
+     * @return  Index of player or {@code -1} if not present
+     */
+    private int indexOf(@NotNull TabPlayer p) {
+        int index = Collections.binarySearch(sortedPlayers, p, SORTING);
+        return index >= 0 && sortedPlayers.get(index) == p ? index : -1;
+    }
+
+    /**
+     * Updates slots starting at given position in the group. Slots before it are not affected
+     * by the change. If remaining players text is enabled, the last slot is always updated, since
+     * the amount of remaining players may have changed.
+     *
+     * @param   fromIndex
+     *          Index of first affected player in the group
+     */
+    void updateSlots(int fromIndex) {
+        boolean textEnabled = layout.getManager().isRemainingPlayersTextEnabled();
+        boolean remainingText = textEnabled && playerSlots.size() < sortedPlayers.size();
+        int start = Math.max(0, Math.min(fromIndex, textEnabled ? slots.length - 1 : slots.length));
+        for (int index = start; index < slots.length; index++) {
             int slot = slots[index];
-            if (layout.getManager().isRemainingPlayersTextEnabled() && index == slots.length - 1 && playerSlots.size() < meetingCondition.size()) {
-                playerSlots.get(slot).setText(String.format(layout.getManager().getRemainingPlayersText(), meetingCondition.size() - playerSlots.size() + 1));
+            if (remainingText && index == slots.length - 1) {
+                playerSlots.get(slot).setText(String.format(layout.getManager().getRemainingPlayersText(), sortedPlayers.size() - playerSlots.size() + 1));
                 break;
             }
-            if (meetingCondition.size() > index) {
-                TabPlayer p = meetingCondition.get(index);
+            if (sortedPlayers.size() > index) {
+                TabPlayer p = sortedPlayers.get(index);
                 playerSlots.get(slot).setPlayer(p);
-                players.put(p, playerSlots.get(slot));
             } else {
                 playerSlots.get(slot).setText("");
             }
         }
     }
-    
+
     public void sendSlots() {
-        playerSlots.values().forEach(s -> viewer.getTabList().addEntry(s.getSlot(viewer)));
+        playerSlots.values().forEach(PlayerSlot::sendEntry);
     }
-}
\ No newline at end of file
+}
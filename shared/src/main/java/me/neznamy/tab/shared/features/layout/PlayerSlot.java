@@ -10,6 +10,7 @@ import me.neznamy.tab.shared.features.PlayerList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -21,13 +22,54 @@ public class PlayerSlot {
     @Getter private TabPlayer player;
     private String text = "";
 
+    /** Skin the entry of this slot was last added with */
+    @Nullable private TabList.Skin shownSkin;
+
+    /**
+     * Changes player displayed in this slot. If the skin of the new entry is the same as
+     * the one viewer already has, the entry is updated in place, otherwise it is re-added,
+     * since skin cannot be changed without removing the entry.
+     *
+     * @param   newPlayer
+     *          New player to display or {@code null} for empty slot
+     */
     public void setPlayer(@Nullable TabPlayer newPlayer) {
         if (player == newPlayer) return;
+        if (player != null) layout.onSlotReleased(player, this);
+        if (newPlayer != null) layout.onSlotAssigned(newPlayer, this);
         player = newPlayer;
         if (player != null) text = "";
         if (layout.getViewer().getVersion().getMinorVersion() < 8 || layout.getViewer().isBedrockPlayer()) return;
+        TabList.Entry entry = getSlot(layout.getViewer());
+        if (Objects.equals(entry.getSkin(), shownSkin)) {
+            layout.getViewer().getTabList().updateDisplayName(uniqueId, entry.getDisplayName());
+            layout.getViewer().getTabList().updateLatency(uniqueId, entry.getLatency());
+        } else {
+            layout.getViewer().getTabList().removeEntry(uniqueId);
+            layout.getViewer().getTabList().addEntry(entry);
+            shownSkin = entry.getSkin();
+        }
+    }
+
+    /**
+     * Adds entry of this slot to the viewer.
+     */
+    public void sendEntry() {
+        TabList.Entry entry = getSlot(layout.getViewer());
+        layout.getViewer().getTabList().addEntry(entry);
+        shownSkin = entry.getSkin();
+    }
+
+    /**
+     * Re-adds entry of this slot if its skin changed since it was sent,
+     * which happens when default skin finishes downloading.
+     */
+    public void refreshSkin() {
+        TabList.Entry entry = getSlot(layout.getViewer());
+        if (Objects.equals(entry.getSkin(), shownSkin)) return;
         layout.getViewer().getTabList().removeEntry(uniqueId);
-        layout.getViewer().getTabList().addEntry(getSlot(layout.getViewer()));
+        layout.getViewer().getTabList().addEntry(entry);
+        shownSkin = entry.getSkin();
     }
 
     public @NotNull TabList.Entry getSlot(@NotNull TabPlayer p) {
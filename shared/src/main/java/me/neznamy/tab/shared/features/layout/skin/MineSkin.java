@@ -10,7 +10,6 @@ import org.jetbrains.annotations.NotNull;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
 
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
 import me.neznamy.tab.shared.TAB;
 
 /**
@@ -18,8 +17,24 @@ import me.neznamy.tab.shared.TAB;
  */
 public class MineSkin extends SkinSource {
 
-    protected MineSkin(@NotNull ConfigurationFile file) {
-        super(file, "mineskin");
+    /** URL to append skin type and id to */
+    @NotNull private final String url;
+
+    /**
+     * Constructs new instance using mineskin.org API.
+     */
+    public MineSkin() {
+        this("https://api.mineskin.org/get/");
+    }
+
+    /**
+     * Constructs new instance with given API URL.
+     *
+     * @param   url
+     *          URL to append skin type and id to
+     */
+    public MineSkin(@NotNull String url) {
+        this.url = url;
     }
 
     @Override
@@ -33,7 +48,7 @@ public class MineSkin extends SkinSource {
             } catch (NumberFormatException ex) {
                 type = "uuid";
             }
-            JSONObject json = getResponse("https://api.mineskin.org/get/" + type + "/" + input);
+            JSONObject json = getResponse(url + type + "/" + input);
             JSONObject data = (JSONObject) json.get("data");
             JSONObject texture = (JSONObject) data.get("texture");
             String value = (String) texture.get("value");
@@ -10,7 +10,6 @@ import org.jetbrains.annotations.NotNull;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
 
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
 import me.neznamy.tab.shared.TAB;
 
 /**
@@ -18,15 +17,31 @@ import me.neznamy.tab.shared.TAB;
  */
 public class PlayerSkin extends SkinSource {
 
-    protected PlayerSkin(@NotNull ConfigurationFile file) {
-        super(file, "players");
+    /** URL to append player name to */
+    @NotNull private final String url;
+
+    /**
+     * Constructs new instance using ashcon.app API.
+     */
+    public PlayerSkin() {
+        this("https://api.ashcon.app/mojang/v2/user/");
+    }
+
+    /**
+     * Constructs new instance with given API URL.
+     *
+     * @param   url
+     *          URL to append player name to
+     */
+    public PlayerSkin(@NotNull String url) {
+        this.url = url;
     }
 
     @Override
     @NotNull
     public List<String> download(@NotNull String input) {
         try {
-            JSONObject json = getResponse("https://api.ashcon.app/mojang/v2/user/" + input);
+            JSONObject json = getResponse(url + input);
             JSONObject textures = (JSONObject) json.get("textures");
             JSONObject raw = (JSONObject) textures.get("raw");
             String value = (String) raw.get("value");
@@ -0,0 +1,165 @@
+package me.neznamy.tab.shared.features.layout.skin;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.config.file.YamlConfigurationFile;
+import me.neznamy.tab.shared.platform.TabList.Skin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binary cache of downloaded skins indexed by full skin definition. The file is
+ * loaded once on startup and written asynchronously shortly after new skins are
+ * added, so multiple downloads finishing at once only result in a single write.
+ */
+public class SkinCache {
+
+    /** Header of the cache file to detect incompatible files */
+    private static final int MAGIC = 0x54414253;
+
+    /** Version of the file format */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Delay in milliseconds between a skin being added and the file being written */
+    private static final int FLUSH_DELAY = 5000;
+
+    /** Legacy yaml cache sections and skin source prefixes they belong to */
+    private static final String[][] LEGACY_SECTIONS = {{"players", "player"}, {"mineskin", "mineskin"}, {"textures", "texture"}};
+
+    /** Cache file */
+    @NotNull private final File file;
+
+    /** Executor to write the file with */
+    @NotNull private final ScheduledExecutorService executor;
+
+    /** Cached skins by full skin definition */
+    @NotNull private final Map<String, Skin> skins = new HashMap<>();
+
+    /** Flag tracking whether a write is already scheduled */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Constructs new instance and loads the cache file. If it does not exist yet,
+     * skins are imported from the legacy yaml cache if present.
+     *
+     * @param   folder
+     *          Folder with cache files
+     * @param   executor
+     *          Executor to write the file with
+     */
+    public SkinCache(@NotNull File folder, @NotNull ScheduledExecutorService executor) {
+        file = new File(folder, "skincache.dat");
+        this.executor = executor;
+        if (file.exists()) {
+            load();
+        } else {
+            importLegacy(new File(folder, "skincache.yml"));
+        }
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String definition = in.readUTF();
+                String value = in.readUTF();
+                String signature = in.readBoolean() ? in.readUTF() : null;
+                skins.put(definition, new Skin(value, signature));
+            }
+        } catch (IOException e) {
+            TAB.getInstance().getErrorManager().criticalError("Failed to load skin cache", e);
+        }
+    }
+
+    private void importLegacy(@NotNull File legacyFile) {
+        if (!legacyFile.exists()) return;
+        try {
+            YamlConfigurationFile legacy = new YamlConfigurationFile(null, legacyFile);
+            for (String[] section : LEGACY_SECTIONS) {
+                Map<Object, List<String>> values = legacy.getConfigurationSection(section[0]);
+                for (Map.Entry<Object, List<String>> entry : values.entrySet()) {
+                    if (entry.getValue().size() < 2) continue;
+                    skins.put(section[1] + ":" + entry.getKey(), new Skin(entry.getValue().get(0), entry.getValue().get(1)));
+                }
+            }
+            if (!skins.isEmpty()) scheduleFlush();
+        } catch (IOException e) {
+            TAB.getInstance().getErrorManager().criticalError("Failed to load skin cache", e);
+        }
+    }
+
+    /**
+     * Returns cached skin of given definition or {@code null} if not cached.
+     *
+     * @param   definition
+     *          Full skin definition
+     * @return  Cached skin or {@code null} if not cached
+     */
+    @Nullable
+    public synchronized Skin get(@NotNull String definition) {
+        return skins.get(definition);
+    }
+
+    /**
+     * Adds skin into the cache and schedules the file to be written.
+     *
+     * @param   definition
+     *          Full skin definition
+     * @param   skin
+     *          Downloaded skin
+     */
+    public synchronized void put(@NotNull String definition, @NotNull Skin skin) {
+        skins.put(definition, skin);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) return;
+        try {
+            executor.schedule(this::flush, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Executor is shutting down, changes are written by the final flush
+        }
+    }
+
+    /**
+     * Writes the cache file if there are any unsaved changes. The file is first
+     * written into a temporary file and then moved to avoid corrupting it when
+     * the write is interrupted.
+     */
+    public void flush() {
+        if (!flushScheduled.compareAndSet(true, false)) return;
+        Map<String, Skin> snapshot;
+        synchronized (this) {
+            snapshot = new HashMap<>(skins);
+        }
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Skin> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue().getValue());
+                    out.writeBoolean(entry.getValue().getSignature() != null);
+                    if (entry.getValue().getSignature() != null) out.writeUTF(entry.getValue().getSignature());
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            TAB.getInstance().getErrorManager().skinCacheSaveError(e);
+        }
+    }
+}
@@ -1,82 +1,172 @@
 package me.neznamy.tab.shared.features.layout.skin;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-import lombok.Getter;
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
-import me.neznamy.tab.shared.config.file.YamlConfigurationFile;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.platform.TabList.Skin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Skin manager for layout feature.
+ * Skin manager for layout feature. Skins that are not cached are downloaded
+ * asynchronously and the default skin is used until the download finishes,
+ * after which the listener is notified so the slots can be re-sent.
  */
 public class SkinManager {
 
+    /** Maximum amount of skins being downloaded at the same time */
+    private static final int DOWNLOAD_THREADS = 4;
+
+    /** Delay in milliseconds before a skin whose download failed is downloaded again */
+    private static final long RETRY_DELAY = 60000;
+
+    /** Maximum time in milliseconds to wait for running downloads on unload */
+    private static final long UNLOAD_TIMEOUT = 5000;
+
     /** Skins defined in configuration that are invalid */
-    private final List<String> invalidSkins = new ArrayList<>();
+    private final Set<String> invalidSkins = ConcurrentHashMap.newKeySet();
 
-    /** Configured default skin */
-    @Getter private Skin defaultSkin;
+    /** Configured default skin definition */
+    @NotNull private final String defaultSkin;
 
-    /** Default skins per slot */
-    private final Map<Integer, Skin> defaultSkinHashMap = new HashMap<>();
+    /** Default skin definitions per slot */
+    @NotNull private final Map<Integer, String> defaultSkinHashMap;
 
     /** Registered skin patterns and their sources */
-    private final Map<String, SkinSource> sources = new HashMap<>();
+    @NotNull private final Map<String, SkinSource> sources;
+
+    /** Skins that were already resolved by full definition */
+    private final Map<String, Skin> resolved = new ConcurrentHashMap<>();
+
+    /** Skin definitions currently being downloaded, used to only download each skin once */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /** Skin definitions whose download failed and time when they can be downloaded again */
+    private final Map<String, Long> failed = new ConcurrentHashMap<>();
+
+    /** Delay in milliseconds before a skin whose download failed is downloaded again */
+    private final long retryDelay;
+
+    /** Threads for downloading skins and writing the cache */
+    private final ScheduledThreadPoolExecutor downloadThreads = new ScheduledThreadPoolExecutor(DOWNLOAD_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("TAB Skin Download Thread #%d").setDaemon(true).build());
+
+    /** Persistent cache of downloaded skins */
+    @NotNull private final SkinCache cache;
+
+    /** Listener called with skin definition when a skin finishes downloading */
+    @NotNull private final Consumer<String> onResolve;
 
     /**
-     * Constructs new instance with given parameters and loads cache.
+     * Constructs new instance with given parameters, loads cache and starts
+     * downloading default skins which are not cached.
      *
      * @param   defaultSkin
      *          Defined default skin
      * @param   defaultSkinHashMap
      *          Map of default skins per slot
+     * @param   onResolve
+     *          Listener called with skin definition when a skin finishes downloading
      */
-    public SkinManager(@NotNull String defaultSkin, @NotNull Map<Integer, String> defaultSkinHashMap) {
-        try {
-            File f = new File(TAB.getInstance().getDataFolder(), "skincache.yml");
-            if (f.exists() || f.createNewFile()) {
-                ConfigurationFile cache = new YamlConfigurationFile(null, f);
-                sources.put("player", new PlayerSkin(cache));
-                sources.put("mineskin", new MineSkin(cache));
-                sources.put("texture", new Texture(cache));
-                this.defaultSkin = getSkin(defaultSkin);
-                for (Map.Entry<Integer, String> entry : defaultSkinHashMap.entrySet()) {
-                    Skin skin = getSkin(entry.getValue());
-                    if (skin != null) this.defaultSkinHashMap.put(entry.getKey(), skin);
-                }
-            } else {
-                TAB.getInstance().getErrorManager().criticalError("Failed to load skin cache", null);
-            }
-        } catch (IOException e) {
-            TAB.getInstance().getErrorManager().criticalError("Failed to load skin cache", e);
+    public SkinManager(@NotNull String defaultSkin, @NotNull Map<Integer, String> defaultSkinHashMap,
+                       @NotNull Consumer<String> onResolve) {
+        this(TAB.getInstance().getDataFolder(), defaultSources(), defaultSkin, defaultSkinHashMap, onResolve, RETRY_DELAY);
+    }
+
+    /**
+     * Constructs new instance with given skin sources and cache folder, loads cache and
+     * starts downloading default skins which are not cached.
+     *
+     * @param   folder
+     *          Folder with skin cache file
+     * @param   sources
+     *          Skin sources by skin definition prefix
+     * @param   defaultSkin
+     *          Defined default skin
+     * @param   defaultSkinHashMap
+     *          Map of default skins per slot
+     * @param   onResolve
+     *          Listener called with skin definition when a skin finishes downloading
+     * @param   retryDelay
+     *          Delay in milliseconds before a skin whose download failed is downloaded again
+     */
+    SkinManager(@NotNull File folder, @NotNull Map<String, SkinSource> sources, @NotNull String defaultSkin,
+                @NotNull Map<Integer, String> defaultSkinHashMap, @NotNull Consumer<String> onResolve, long retryDelay) {
+        this.defaultSkin = defaultSkin;
+        this.defaultSkinHashMap = defaultSkinHashMap;
+        this.onResolve = onResolve;
+        this.sources = sources;
+        this.retryDelay = retryDelay;
+        // Pending cache write is done by unload directly instead of delaying shutdown
+        downloadThreads.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        cache = new SkinCache(folder, downloadThreads);
+        getSkin(defaultSkin);
+        for (String skin : defaultSkinHashMap.values()) {
+            getSkin(skin);
         }
     }
 
+    @NotNull
+    private static Map<String, SkinSource> defaultSources() {
+        Map<String, SkinSource> sources = new HashMap<>();
+        sources.put("player", new PlayerSkin());
+        sources.put("mineskin", new MineSkin());
+        sources.put("texture", new Texture());
+        return sources;
+    }
+
+    /**
+     * Returns configured default skin if it is already resolved, {@code null} otherwise.
+     *
+     * @return  Default skin or {@code null} if not resolved yet
+     */
+    @Nullable
+    public Skin getDefaultSkin() {
+        return resolved.get(defaultSkin);
+    }
+
     /**
      * Returns default skin of specified slot. If not defined, default skin is returned.
+     * If the skin is not resolved yet, {@code null} is returned.
      *
      * @param   slot
      *          Slot id
      * @return  Default skin for specified slot
      */
-    @NotNull
+    @Nullable
     public Skin getDefaultSkin(int slot) {
+        Skin skin = resolved.get(getDefaultSkinDefinition(slot));
+        return skin != null ? skin : getDefaultSkin();
+    }
+
+    /**
+     * Returns default skin definition of specified slot. If not defined,
+     * default skin definition is returned.
+     *
+     * @param   slot
+     *          Slot id
+     * @return  Default skin definition for specified slot
+     */
+    @NotNull
+    public String getDefaultSkinDefinition(int slot) {
         return defaultSkinHashMap.getOrDefault(slot, defaultSkin);
     }
 
     /**
      * Returns skin from given skin definition. If Skin is invalid, warn is printed and
-     * {@code null} is returned.
+     * {@code null} is returned. If the skin is not cached, it is downloaded asynchronously
+     * and default skin is returned in the meantime. If the download failed, it is not
+     * attempted again until retry delay passes.
      *
      * @param   skin
      *          Full skin definition
@@ -84,18 +174,68 @@ public class SkinManager {
      */
     @Nullable
     public Skin getSkin(@NotNull String skin) {
-        if (invalidSkins.contains(skin)) return defaultSkin;
+        Skin value = resolved.get(skin);
+        if (value != null) return value;
+        if (invalidSkins.contains(skin)) return getDefaultSkin();
         for (Entry<String, SkinSource> entry : sources.entrySet()) {
             if (skin.startsWith(entry.getKey() + ":")) {
-                List<String> value = entry.getValue().getSkin(skin.substring(entry.getKey().length()+1));
-                if (value.isEmpty()) {
-                    invalidSkins.add(skin);
-                    return defaultSkin;
+                value = cache.get(skin);
+                if (value != null) {
+                    resolved.put(skin, value);
+                    return value;
+                }
+                Long retryAt = failed.get(skin);
+                if (retryAt != null) {
+                    if (System.currentTimeMillis() < retryAt) return getDefaultSkin();
+                    failed.remove(skin);
                 }
-                return new Skin(value.get(0), value.get(1));
+                if (pending.add(skin)) {
+                    String input = skin.substring(entry.getKey().length()+1);
+                    downloadThreads.submit(() -> download(skin, entry.getValue(), input));
+                }
+                return getDefaultSkin();
             }
         }
         TAB.getInstance().getConfigHelper().startup().invalidLayoutSkinDefinition(skin);
         return null;
     }
-}
\ No newline at end of file
+
+    private void download(@NotNull String skin, @NotNull SkinSource source, @NotNull String input) {
+        if (downloadThreads.isShutdown()) {
+            // Queued before unload, do not delay it
+            pending.remove(skin);
+            return;
+        }
+        try {
+            List<String> value = source.download(input);
+            if (value.isEmpty()) {
+                invalidSkins.add(skin);
+                return;
+            }
+            Skin downloaded = new Skin(value.get(0), value.get(1));
+            resolved.put(skin, downloaded);
+            cache.put(skin, downloaded);
+        } catch (RuntimeException e) {
+            // Unexpected response, only try again after retry delay instead of on every request
+            failed.put(skin, System.currentTimeMillis() + retryDelay);
+            return;
+        } finally {
+            pending.remove(skin);
+        }
+        onResolve.accept(skin);
+    }
+
+    /**
+     * Stops accepting new downloads, waits for running downloads to finish
+     * and writes unsaved skins into the cache file.
+     */
+    public void unload() {
+        downloadThreads.shutdown();
+        try {
+            downloadThreads.awaitTermination(UNLOAD_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cache.flush();
+    }
+}
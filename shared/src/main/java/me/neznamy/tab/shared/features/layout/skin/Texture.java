@@ -15,7 +15,6 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
 import me.neznamy.tab.shared.TAB;
 
 /**
@@ -23,8 +22,24 @@ import me.neznamy.tab.shared.TAB;
  */
 public class Texture extends SkinSource {
 
-    protected Texture(@NotNull ConfigurationFile file) {
-        super(file, "textures");
+    /** URL of skin generation endpoint */
+    @NotNull private final String url;
+
+    /**
+     * Constructs new instance using mineskin.org API.
+     */
+    public Texture() {
+        this("https://api.mineskin.org/generate/url/");
+    }
+
+    /**
+     * Constructs new instance with given API URL.
+     *
+     * @param   url
+     *          URL of skin generation endpoint
+     */
+    public Texture(@NotNull String url) {
+        this.url = url;
     }
 
     @Override
@@ -45,9 +60,10 @@ public class Texture extends SkinSource {
     }
 
     @NotNull
-    private static InputStreamReader getInputStreamReader(@NotNull String texture) throws IOException {
-        URL url = new URL("https://api.mineskin.org/generate/url/");
-        HttpURLConnection con = (HttpURLConnection) url.openConnection();
+    private InputStreamReader getInputStreamReader(@NotNull String texture) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
+        con.setConnectTimeout(TIMEOUT);
+        con.setReadTimeout(TIMEOUT);
         con.setRequestProperty("User-Agent", "ExampleApp/v1.0");
         con.setRequestProperty("Content-Type", "application/json");
         con.setRequestMethod("POST");
@@ -12,6 +12,7 @@ import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.features.redis.RedisSupport;
 import me.neznamy.tab.shared.features.types.*;
+import me.neznamy.tab.shared.util.PlayerSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -120,6 +121,9 @@ public class NameTag extends TabFeature implements NameTagManager, JoinListener,
 
     @Override
     public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            all.teamData.hiddenNameTagFor.remove(disconnectedPlayer);
+        }
         if (!disconnectedPlayer.disabledNametags.get() && !hasTeamHandlingPaused(disconnectedPlayer)) {
             String teamName = disconnectedPlayer.sortingData.getShortTeamName();
             for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
@@ -433,7 +437,7 @@ public class NameTag extends TabFeature implements NameTagManager, JoinListener,
         public boolean hiddenNameTag;
 
         /** Players who should not see this player's name tag */
-        public Set<TabPlayer> hiddenNameTagFor = Collections.newSetFromMap(new WeakHashMap<>());
+        public Set<TabPlayer> hiddenNameTagFor = new PlayerSet();
 
         /** Flag tracking whether team handling is paused or not */
         public boolean teamHandlingPaused;
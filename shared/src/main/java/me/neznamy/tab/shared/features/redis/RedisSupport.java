@@ -4,10 +4,8 @@ import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
 import lombok.Getter;
-import me.neznamy.tab.api.event.EventHandler;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
-import me.neznamy.tab.shared.event.impl.TabPlaceholderRegisterEvent;
 import me.neznamy.tab.shared.features.redis.feature.*;
 import me.neznamy.tab.shared.features.redis.message.*;
 import me.neznamy.tab.shared.features.types.*;
@@ -43,7 +41,6 @@ public abstract class RedisSupport extends TabFeature implements JoinListener, Q
     @Nullable private RedisPlayerList redisPlayerList;
     @Nullable private RedisTeams redisTeams;
 
-    private EventHandler<TabPlaceholderRegisterEvent> eventHandler;
     @NotNull private final Map<String, Supplier<RedisMessage>> messages = new HashMap<>();
     @NotNull private final Map<Class<? extends RedisMessage>, String> classStringMap = new HashMap<>();
 
@@ -184,55 +181,14 @@ public abstract class RedisSupport extends TabFeature implements JoinListener, Q
             features.add(new RedisGlobalPlayerList(this, TAB.getInstance().getFeatureManager().getFeature(
                     TabConstants.Feature.GLOBAL_PLAYER_LIST)));
         }
-        overridePlaceholders();
-        TAB.getInstance().getEventBus().register(TabPlaceholderRegisterEvent.class, eventHandler);
+        features.add(new RedisOnlineCounter(TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.ONLINE_COUNTER)));
         for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) onJoin(p);
         sendMessage(new LoadRequest());
     }
 
-    private void overridePlaceholders() {
-        eventHandler = event -> {
-            String identifier = event.getIdentifier();
-            if (identifier.startsWith("%online_")) {
-                String server = identifier.substring(8, identifier.length()-1);
-                event.setServerPlaceholder(() -> {
-                    int count = 0;
-                    for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                        if (player.getServer().equals(server) && !player.isVanished()) count++;
-                    }
-                    for (RedisPlayer player : redisPlayers.values()) {
-                        if (player.getServer().equals(server) && !player.isVanished()) count++;
-                    }
-                    return count;
-                });
-            }
-        };
-        TAB.getInstance().getPlaceholderManager().registerServerPlaceholder(TabConstants.Placeholder.ONLINE, 1000, () -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (!player.isVanished()) count++;
-            }
-            for (RedisPlayer player : redisPlayers.values()) {
-                if (!player.isVanished()) count++;
-            }
-            return count;
-        });
-        TAB.getInstance().getPlaceholderManager().registerServerPlaceholder(TabConstants.Placeholder.STAFF_ONLINE, 1000, () -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (!player.isVanished() && player.hasPermission(TabConstants.Permission.STAFF)) count++;
-            }
-            for (RedisPlayer player : redisPlayers.values()) {
-                if (!player.isVanished() && player.isStaff()) count++;
-            }
-            return count;
-        });
-    }
-
     @Override
     public void unload() {
         for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) onQuit(p);
-        TAB.getInstance().getEventBus().unregister(eventHandler);
         unregister();
     }
 
@@ -0,0 +1,54 @@
+package me.neznamy.tab.shared.features.redis.feature;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.features.OnlineCounter;
+import me.neznamy.tab.shared.features.redis.RedisPlayer;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Forwards changes of players on other proxies to the online counter.
+ * Vanish and staff status is already part of join message.
+ */
+@RequiredArgsConstructor
+public class RedisOnlineCounter extends RedisFeature {
+
+    @NotNull private final OnlineCounter onlineCounter;
+
+    @Override
+    public void onJoin(@NotNull TabPlayer player) {
+        // Nothing to send
+    }
+
+    @Override
+    public void onJoin(@NotNull RedisPlayer player) {
+        onlineCounter.updateRemotePlayer(player);
+    }
+
+    @Override
+    public void onServerSwitch(@NotNull RedisPlayer player) {
+        onlineCounter.updateRemotePlayer(player);
+    }
+
+    @Override
+    public void onQuit(@NotNull RedisPlayer player) {
+        onlineCounter.removeRemotePlayer(player);
+    }
+
+    @Override
+    public void onVanishStatusChange(@NotNull RedisPlayer player) {
+        onlineCounter.updateRemotePlayer(player);
+    }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, @NotNull TabPlayer player) {
+        // Nothing to write
+    }
+
+    @Override
+    public void read(@NotNull ByteArrayDataInput in, @NotNull RedisPlayer player) {
+        // Nothing to read
+    }
+}
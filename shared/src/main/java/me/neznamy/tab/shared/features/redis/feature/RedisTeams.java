@@ -12,6 +12,8 @@ import me.neznamy.tab.shared.features.nametags.NameTag;
 import me.neznamy.tab.shared.features.redis.RedisPlayer;
 import me.neznamy.tab.shared.features.redis.RedisSupport;
 import me.neznamy.tab.shared.features.redis.message.RedisMessage;
+import me.neznamy.tab.shared.features.sorting.Sorting;
+import me.neznamy.tab.shared.features.sorting.TeamNameRegistry;
 import me.neznamy.tab.shared.platform.Scoreboard.NameVisibility;
 import me.neznamy.tab.shared.platform.Scoreboard.CollisionRule;
 import me.neznamy.tab.shared.platform.TabPlayer;
@@ -24,10 +26,12 @@ public class RedisTeams extends RedisFeature {
 
     private final RedisSupport redisSupport;
     private final NameTag nameTags;
+    private final TeamNameRegistry teamNames;
 
     public RedisTeams(@NotNull RedisSupport redisSupport, @NotNull NameTag nameTags) {
         this.redisSupport = redisSupport;
         this.nameTags = nameTags;
+        teamNames = TAB.getInstance().getFeatureManager().<Sorting>getFeature(TabConstants.Feature.SORTING).getTeamNames();
         redisSupport.registerMessage("teams", Update.class, Update::new);
     }
 
@@ -51,6 +55,7 @@ public class RedisTeams extends RedisFeature {
 
     @Override
     public void onQuit(@NotNull RedisPlayer player) {
+        teamNames.release(player.getUniqueId());
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
             viewer.getScoreboard().unregisterTeam(player.getTeamName());
         }
@@ -67,7 +72,7 @@ public class RedisTeams extends RedisFeature {
     @Override
     public void read(@NotNull ByteArrayDataInput in, @NotNull RedisPlayer player) {
         String teamName = in.readUTF();
-        teamName = checkTeamName(player, teamName.substring(0, teamName.length()-1), 65);
+        teamName = teamNames.allocate(player.getUniqueId(), teamName.substring(0, teamName.length()-1));
         player.setTeamName(teamName);
         player.setTagPrefix(in.readUTF());
         player.setTagSuffix(in.readUTF());
@@ -79,22 +84,6 @@ public class RedisTeams extends RedisFeature {
         onJoin(player);
     }
 
-    private @NotNull String checkTeamName(@NotNull RedisPlayer player, @NotNull String currentName15, int id) {
-        String potentialTeamName = currentName15 + (char)id;
-        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all.sortingData.getShortTeamName().equals(potentialTeamName)) {
-                return checkTeamName(player, currentName15, id+1);
-            }
-        }
-        for (RedisPlayer all : redisSupport.getRedisPlayers().values()) {
-            if (all == player) continue;
-            if (potentialTeamName.equals(all.getTeamName())) {
-                return checkTeamName(player, currentName15, id+1);
-            }
-        }
-        return potentialTeamName;
-    }
-
     @NoArgsConstructor
     @AllArgsConstructor
     public class Update extends RedisMessage {
@@ -128,7 +117,7 @@ public class RedisTeams extends RedisFeature {
             RedisPlayer target = redisSupport.getRedisPlayers().get(playerId);
             if (target == null) return; // Print warn?
             String oldTeamName = target.getTeamName();
-            String newTeamName = checkTeamName(target, teamName.substring(0, teamName.length()-1), 65);
+            String newTeamName = teamNames.allocate(target.getUniqueId(), teamName.substring(0, teamName.length()-1));
             target.setTeamName(newTeamName);
             target.setTagPrefix(prefix);
             target.setTagSuffix(suffix);
@@ -27,13 +27,15 @@ public class ScoreRefresher extends TabFeature implements Refreshable {
     @Override
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
         if (!line.getParent().getPlayers().contains(refreshed)) return;
-        if (refreshed.getProperty(NUMBER_FORMAT_PROPERTY) == null) return; // Shrug
+        Property format = refreshed.getProperty(NUMBER_FORMAT_PROPERTY);
+        if (format == null) return; // Shrug
+        if (!format.update() && !force) return;
         refreshed.getScoreboard().setScore(
                 ScoreboardManagerImpl.OBJECTIVE_NAME,
                 line.getPlayerName(refreshed),
                 line.getNumber(refreshed),
                 null,
-                getNumberFormat(refreshed)
+                TabComponent.optimized(format.get())
         );
     }
 
@@ -13,6 +13,7 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.features.scoreboard.lines.*;
 import me.neznamy.tab.shared.placeholders.conditions.Condition;
+import me.neznamy.tab.shared.util.PlayerSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,7 +43,7 @@ public class ScoreboardImpl extends TabFeature implements me.neznamy.tab.api.sco
     private final List<Line> lines = new ArrayList<>();
 
     //players currently seeing this scoreboard
-    private final Set<TabPlayer> players = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<TabPlayer> players = new PlayerSet();
 
     /**
      * Constructs new instance with given parameters and registers lines to feature manager
@@ -224,6 +225,9 @@ public class ScoreboardImpl extends TabFeature implements me.neznamy.tab.api.sco
      */
     public void removePlayerFromSet(@NonNull TabPlayer player) {
         players.remove(player);
+        for (Line line : lines) {
+            ((ScoreboardLine) line).getShownPlayers().remove(player);
+        }
     }
 
     @Override
@@ -6,6 +6,7 @@ import me.neznamy.tab.shared.Property;
 import me.neznamy.tab.shared.chat.rgb.RGBUtils;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardImpl;
+import me.neznamy.tab.shared.util.ComponentCache;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -19,6 +20,14 @@ public class LongLine extends ScoreboardLine {
 
     private final String nameProperty = Property.randomName();
 
+    /** Split values of texts for 1.8 - 1.12 clients, shared by all players seeing the same text */
+    private final ComponentCache<String, String[]> splitCache18 = new ComponentCache<>(100, (text, clientVersion) ->
+            splitText(playerName, RGBUtils.getInstance().convertRGBtoLegacy(text), Limitations.SCOREBOARD_SCORE_LENGTH_1_8));
+
+    /** Split values of texts for 1.5 - 1.7 clients, shared by all players seeing the same text */
+    private final ComponentCache<String, String[]> splitCache17 = new ComponentCache<>(100, (text, clientVersion) ->
+            splitText(playerName, RGBUtils.getInstance().convertRGBtoLegacy(text), Limitations.SCOREBOARD_SCORE_LENGTH_1_7));
+
     /**
      * Constructs new instance with given parameters
      *
@@ -41,11 +50,7 @@ public class LongLine extends ScoreboardLine {
                 updateTeam(refreshed, refreshed.getProperty(textProperty).get(), "");
             } else {
                 removeLine(refreshed, refreshed.getProperty(nameProperty).get());
-                String[] values = splitText(
-                        getPlayerName(lineNumber),
-                        RGBUtils.getInstance().convertRGBtoLegacy(refreshed.getProperty(textProperty).get()),
-                        refreshed.getVersion().getMinorVersion() >= 8 ? Limitations.SCOREBOARD_SCORE_LENGTH_1_8 : Limitations.SCOREBOARD_SCORE_LENGTH_1_7
-                );
+                String[] values = split(refreshed, refreshed.getProperty(textProperty).get());
                 addLine(refreshed, values[1], values[0], values[2]);
                 refreshed.setProperty(this, nameProperty, values[1]);
             }
@@ -61,16 +66,26 @@ public class LongLine extends ScoreboardLine {
             addLine(p, playerName, value, "");
             p.setProperty(this, nameProperty, playerName);
         } else {
-            String[] values = splitText(
-                    playerName,
-                    RGBUtils.getInstance().convertRGBtoLegacy(value),
-                    p.getVersion().getMinorVersion() >= 8 ? Limitations.SCOREBOARD_SCORE_LENGTH_1_8 : Limitations.SCOREBOARD_SCORE_LENGTH_1_7
-            );
+            String[] values = split(p, value);
             addLine(p, values[1], values[0], values[2]);
             p.setProperty(this, nameProperty, values[1]);
         }
     }
 
+    /**
+     * Returns prefix, name and suffix of text for 1.12- client. The returned
+     * array is shared and must not be modified.
+     *
+     * @param   player
+     *          Player to split text for
+     * @param   text
+     *          Text to split
+     * @return  Split text as an array of 3 elements
+     */
+    private String[] split(@NonNull TabPlayer player, @NonNull String text) {
+        return (player.getVersion().getMinorVersion() >= 8 ? splitCache18 : splitCache17).get(text, player.getVersion());
+    }
+
     @Override
     public void unregister(@NonNull TabPlayer p) {
         if (parent.getPlayers().contains(p)) {
@@ -15,11 +15,11 @@ import me.neznamy.tab.shared.platform.Scoreboard;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardImpl;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardManagerImpl;
+import me.neznamy.tab.shared.util.PlayerSet;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 /**
  * Abstract class representing a line of scoreboard
@@ -47,7 +47,7 @@ public abstract class ScoreboardLine extends TabFeature implements Line, Refresh
 
     private final ScoreRefresher scoreRefresher;
 
-    private final Set<TabPlayer> shownPlayers = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<TabPlayer> shownPlayers = new PlayerSet();
     
     /**
      * Constructs new instance with given parameters
@@ -7,6 +7,7 @@ import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.shared.chat.rgb.RGBUtils;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
+import me.neznamy.tab.shared.util.ComponentCache;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -19,6 +20,17 @@ public class StableDynamicLine extends ScoreboardLine {
 
     private final String[] EMPTY_ARRAY = new String[0];
 
+    /**
+     * Prefix/suffix of texts converted for 1.13 - 1.15 clients, shared across all lines,
+     * since all players seeing the same text receive the same result.
+     */
+    private static final ComponentCache<String, String[]> legacyCache = new ComponentCache<>(1000,
+            (text, clientVersion) -> new String[] {RGBUtils.getInstance().convertRGBtoLegacy(text), ""});
+
+    /** Prefix/suffix of texts converted and split for 1.5 - 1.12 clients, shared across all lines */
+    private static final ComponentCache<String, String[]> splitCache = new ComponentCache<>(1000,
+            (text, clientVersion) -> splitLegacy(RGBUtils.getInstance().convertRGBtoLegacy(text)));
+
     /**
      * Constructs new instance with given parameters
      *
@@ -75,9 +87,6 @@ public class StableDynamicLine extends ScoreboardLine {
         boolean emptyBefore = scoreProperty.get().isEmpty();
         if (!scoreProperty.update() && !force) return EMPTY_ARRAY;
         String replaced = scoreProperty.get();
-        if (!p.getVersion().supportsRGB()) {
-            replaced = RGBUtils.getInstance().convertRGBtoLegacy(replaced); //converting RGB to legacy here to avoid splitting in the middle of RGB code
-        }
         String[] split = split(p, replaced);
         if (!replaced.isEmpty()) {
             if (emptyBefore) {
@@ -99,7 +108,8 @@ public class StableDynamicLine extends ScoreboardLine {
     }
 
     /**
-     * Splits text into 2 values (prefix/suffix) based on client version and text itself
+     * Returns text converted for player's client version and split into 2 values (prefix/suffix).
+     * The returned array is shared and must not be modified.
      *
      * @param   p
      *          player to split text for
@@ -108,23 +118,26 @@ public class StableDynamicLine extends ScoreboardLine {
      * @return  array of 2 elements for prefix and suffix
      */
     private String[] split(@NonNull TabPlayer p, @NonNull String text) {
-        if (p.getVersion().getMinorVersion() >= 13) return new String[] {text, ""};
-        int charLimit = Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13;
-        if (text.length() > charLimit) {
-            StringBuilder prefix = new StringBuilder(text);
-            StringBuilder suffix = new StringBuilder(text);
-            prefix.setLength(charLimit);
-            suffix.delete(0, charLimit);
-            if (prefix.charAt(charLimit-1) == EnumChatFormat.COLOR_CHAR) {
-                prefix.setLength(prefix.length()-1);
-                suffix.insert(0, EnumChatFormat.COLOR_CHAR);
-            }
-            String prefixString = prefix.toString();
-            suffix.insert(0, EnumChatFormat.getLastColors(RGBUtils.getInstance().convertRGBtoLegacy(prefixString)));
-            return new String[] {prefixString, suffix.toString()};
-        } else {
-            return new String[] {text, ""};
-        }
+        if (p.getVersion().supportsRGB()) return new String[] {text, ""};
+        if (p.getVersion().getMinorVersion() >= 13) return legacyCache.get(text, p.getVersion());
+        return splitCache.get(text, p.getVersion());
+    }
+
+    /**
+     * Splits legacy text into prefix and suffix with 1.12- prefix length limit, carrying
+     * last colors of prefix over to suffix.
+     *
+     * @param   text
+     *          text to split, already converted to legacy colors
+     * @return  array of 2 elements for prefix and suffix
+     */
+    @NotNull
+    private static String[] splitLegacy(@NotNull String text) {
+        int splitIndex = Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13;
+        if (text.length() <= splitIndex) return new String[] {text, ""};
+        if (text.charAt(splitIndex-1) == EnumChatFormat.COLOR_CHAR) splitIndex--;
+        String prefix = text.substring(0, splitIndex);
+        return new String[] {prefix, EnumChatFormat.getLastColors(prefix) + text.substring(splitIndex)};
     }
 
     @Override
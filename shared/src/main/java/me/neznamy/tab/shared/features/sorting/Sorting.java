@@ -10,6 +10,7 @@ import me.neznamy.tab.api.tablist.SortingManager;
 import me.neznamy.tab.shared.Limitations;
 import me.neznamy.tab.shared.features.types.JoinListener;
 import me.neznamy.tab.shared.features.types.Loadable;
+import me.neznamy.tab.shared.features.types.QuitListener;
 import me.neznamy.tab.shared.features.types.Refreshable;
 import me.neznamy.tab.shared.features.types.TabFeature;
 import me.neznamy.tab.shared.platform.Scoreboard;
@@ -18,7 +19,6 @@ import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.layout.LayoutManagerImpl;
 import me.neznamy.tab.shared.features.nametags.NameTag;
-import me.neznamy.tab.shared.features.redis.RedisPlayer;
 import me.neznamy.tab.shared.features.redis.RedisSupport;
 import me.neznamy.tab.shared.features.sorting.types.Groups;
 import me.neznamy.tab.shared.features.sorting.types.Permissions;
@@ -34,11 +34,14 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Class for handling player sorting rules
  */
-public class Sorting extends TabFeature implements SortingManager, JoinListener, Loadable, Refreshable {
+public class Sorting extends TabFeature implements SortingManager, JoinListener, QuitListener, Loadable, Refreshable {
 
     private NameTag nameTags;
     private LayoutManagerImpl layout;
     private RedisSupport redis;
+
+    /** Registry of team names in use by local players and players on other proxies */
+    @Getter private final TeamNameRegistry teamNames = new TeamNameRegistry();
     
     //map of all registered sorting types
     private final Map<String, BiFunction<Sorting, String, SortingType>> types = new LinkedHashMap<>();
@@ -99,6 +102,11 @@ public class Sorting extends TabFeature implements SortingManager, JoinListener,
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         constructTeamNames(connectedPlayer);
     }
+
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        teamNames.release(disconnectedPlayer);
+    }
     
     /**
      * Compiles sorting type list into classes
@@ -126,10 +134,9 @@ public class Sorting extends TabFeature implements SortingManager, JoinListener,
      *          player to build team name for
      */
     public void constructTeamNames(@NotNull TabPlayer p) {
-        p.sortingData.teamNameNote = "";
         StringBuilder shortName = new StringBuilder();
-        for (SortingType type : usedSortingTypes) {
-            shortName.append(type.getChars(p));
+        for (int i = 0; i < usedSortingTypes.length; i++) {
+            shortName.append(usedSortingTypes[i].getChars(p, i));
         }
         StringBuilder fullName = new StringBuilder(shortName);
         if (layout != null) {
@@ -140,45 +147,32 @@ public class Sorting extends TabFeature implements SortingManager, JoinListener,
         if (shortName.length() >= Limitations.TEAM_NAME_LENGTH) {
             shortName.setLength(Limitations.TEAM_NAME_LENGTH-1);
         }
-        String finalShortName = checkTeamName(p, shortName, 'A');
+        String finalShortName = teamNames.allocate(p, shortName.toString());
         p.sortingData.shortTeamName = finalShortName;
         p.sortingData.fullTeamName = fullName.append(finalShortName.charAt(finalShortName.length() - 1)).toString();
-
-        // Do not randomly override note
-        if (p.sortingData.forcedTeamName != null) {
-            p.sortingData.teamNameNote = "Set using API";
-        }
     }
 
     /**
-     * Checks if team name is available and proceeds to try new values until free name is found
+     * Builds user-friendly explanation of player's current team name from values
+     * saved when the team name was last constructed. Only used by /tab debug.
      *
      * @param   p
-     *          player to build team name for
-     * @param   currentName
-     *          current up to 15 character long team name start
-     * @param   id
-     *          current character to check as 16th character
-     * @return  first available full team name
+     *          Player to explain team name of
+     * @return  Explanation of player's team name
      */
-    private @NotNull String checkTeamName(@NotNull TabPlayer p, @NotNull StringBuilder currentName, int id) {
-        String potentialTeamName = currentName.toString() + (char)id;
-        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all == p) continue;
-            if (potentialTeamName.equals(all.sortingData.shortTeamName)) {
-                return checkTeamName(p, currentName, id+1);
-            }
-        }
-        if (redis != null && redis.getRedisTeams() != null) {
-            for (RedisPlayer all : redis.getRedisPlayers().values()) {
-                if (all.getTeamName().equals(potentialTeamName)) {
-                    return checkTeamName(p, currentName, id+1);
-                }
-            }
+    @NotNull
+    public String getTeamNameNote(@NotNull TabPlayer p) {
+        if (p.sortingData.forcedTeamName != null) return "Set using API";
+        String[] values = p.sortingData.sortingValues;
+        if (values == null) return "";
+        StringBuilder note = new StringBuilder();
+        for (int i = 0; i < usedSortingTypes.length && i < values.length; i++) {
+            if (values[i] == null) continue;
+            note.append(usedSortingTypes[i].getNote(p, values[i], p.sortingData.sortingPositions[i]));
         }
-        return potentialTeamName;
+        return note.toString();
     }
-    
+
     /**
      * Converts sorting types into user-friendly sorting types into /tab debug
      *
@@ -205,7 +199,6 @@ public class Sorting extends TabFeature implements SortingManager, JoinListener,
         p.ensureLoaded();
         if (Objects.equals(p.sortingData.forcedTeamName, name)) return;
         if (name != null && name.length() > Limitations.TEAM_NAME_LENGTH) throw new IllegalArgumentException("Team name cannot be more than 16 characters long.");
-        if (name != null) p.sortingData.teamNameNote = "Set using API";
         NameTag nametag = TAB.getInstance().getNameTagManager();
         if (nametag != null) nametag.unregisterTeam(p, p.sortingData.getShortTeamName());
         p.sortingData.forcedTeamName = name;
@@ -243,8 +236,16 @@ public class Sorting extends TabFeature implements SortingManager, JoinListener,
         /** Full sorting string, used for sorting in Layout (and maybe for 1.18+ in the future) */
         public String fullTeamName;
 
-        /** Note explaining player's current team name */
-        public String teamNameNote;
+        /**
+         * Values sorting types computed sorting characters from, by sorting type index.
+         * Kept to explain the team name in /tab debug without building the text on every change.
+         */
+        @Nullable
+        public String[] sortingValues;
+
+        /** Positions in sorting lists matching {@link #sortingValues}, {@code 0} if sorting type has no list */
+        @Nullable
+        public int[] sortingPositions;
 
         /** Forced team name using API */
         @Nullable
@@ -259,5 +260,24 @@ public class Sorting extends TabFeature implements SortingManager, JoinListener,
         public String getShortTeamName() {
             return forcedTeamName != null ? forcedTeamName : shortTeamName;
         }
+
+        /**
+         * Saves value and position a sorting type computed sorting characters from.
+         *
+         * @param   index
+         *          Index of the sorting type
+         * @param   value
+         *          Value the characters were computed from
+         * @param   position
+         *          Position of value in sorting list, {@code 0} if sorting type has no list
+         */
+        public void setSortingValue(int index, @NotNull String value, int position) {
+            if (sortingValues == null || sortingValues.length <= index) {
+                sortingValues = sortingValues == null ? new String[index + 1] : Arrays.copyOf(sortingValues, index + 1);
+                sortingPositions = sortingPositions == null ? new int[index + 1] : Arrays.copyOf(sortingPositions, index + 1);
+            }
+            sortingValues[index] = value;
+            sortingPositions[index] = position;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package me.neznamy.tab.shared.features.sorting;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of generated team names making sure each of them is only used once.
+ * A team name is made of a sorting prefix and one extra character, starting with
+ * {@code 'A'}, which is incremented until a free name is found. Allocated names
+ * are indexed by name and by owner and each prefix keeps a hint of the lowest
+ * character that may be free, so allocation does not need to compare the name
+ * against all other players.
+ * <p>
+ * Owners are local players and UUIDs of players on other proxies connected via redis.
+ */
+public class TeamNameRegistry {
+
+    /** First character used to make team names unique */
+    private static final char FIRST_ID = 'A';
+
+    /** Owners of allocated team names */
+    private final Map<String, Object> owners = new HashMap<>();
+
+    /** Team names allocated by each owner */
+    private final Map<Object, String> names = new HashMap<>();
+
+    /** Allocation state of each prefix currently in use */
+    private final Map<String, PrefixState> prefixes = new HashMap<>();
+
+    /**
+     * Allocates the first free team name starting with given prefix for specified owner.
+     * If the owner already had a team name allocated, it is released first, so the owner
+     * may end up with the same name again.
+     *
+     * @param   owner
+     *          Owner of the team name
+     * @param   prefix
+     *          Up to 15 characters long team name start
+     * @return  Allocated team name
+     */
+    @NotNull
+    public synchronized String allocate(@NonNull Object owner, @NonNull String prefix) {
+        release(owner);
+        PrefixState state = prefixes.computeIfAbsent(prefix, p -> new PrefixState());
+        int id = state.lowestFree;
+        String name = prefix + (char) id;
+        while (owners.containsKey(name)) {
+            name = prefix + (char) ++id;
+        }
+        state.lowestFree = id + 1;
+        state.allocated++;
+        owners.put(name, owner);
+        names.put(owner, name);
+        return name;
+    }
+
+    /**
+     * Releases team name allocated by specified owner, if any.
+     *
+     * @param   owner
+     *          Owner to release team name of
+     */
+    public synchronized void release(@NonNull Object owner) {
+        String name = names.remove(owner);
+        if (name == null) return;
+        owners.remove(name);
+        String prefix = name.substring(0, name.length() - 1);
+        PrefixState state = prefixes.get(prefix);
+        if (--state.allocated == 0) {
+            prefixes.remove(prefix);
+        } else {
+            state.lowestFree = Math.min(state.lowestFree, name.charAt(name.length() - 1));
+        }
+    }
+
+    /**
+     * Allocation state of a team name prefix.
+     */
+    private static class PrefixState {
+
+        /** Lowest character which may not be used by any team name with this prefix */
+        private int lowestFree = FIRST_ID;
+
+        /** Amount of team names allocated with this prefix */
+        private int allocated;
+    }
+}
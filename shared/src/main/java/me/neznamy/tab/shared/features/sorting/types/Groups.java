@@ -30,17 +30,25 @@ public class Groups extends SortingType {
     }
 
     @Override
-    public String getChars(@NotNull TabPlayer p) {
+    public String getChars(@NotNull TabPlayer p, int index) {
         String group = p.getGroup().toLowerCase();
         int position;
         if (!sortedGroups.containsKey(group)) {
             TAB.getInstance().getConfigHelper().runtime().groupNotInSortingList(sortedGroups.keySet(), group, p);
             position = sortedGroups.size() + 1;
-            p.sortingData.teamNameNote += "\n-> &cPrimary group (&e" + p.getGroup() + "&c) is not in sorting list. &r";
         } else {
             position = sortedGroups.get(group);
-            p.sortingData.teamNameNote += "\n-> Primary group (&e" + p.getGroup() + "&r) is &a#" + position + "&r in sorting list.";
         }
+        p.sortingData.setSortingValue(index, p.getGroup(), position);
         return String.valueOf((char) (position + 47));
     }
+
+    @Override
+    @NotNull
+    public String getNote(@NotNull TabPlayer p, @NotNull String value, int position) {
+        if (position > sortedGroups.size()) {
+            return "\n-> &cPrimary group (&e" + value + "&c) is not in sorting list. &r";
+        }
+        return "\n-> Primary group (&e" + value + "&r) is &a#" + position + "&r in sorting list.";
+    }
 }
\ No newline at end of file
@@ -41,23 +41,34 @@ public class Permissions extends SortingType {
     }
 
     @Override
-    public String getChars(@NotNull TabPlayer p) {
+    public String getChars(@NotNull TabPlayer p, int index) {
         int position = 0;
+        String highestPermission = "";
         for (String permission : sortedGroups.keySet()) {
             if (p.hasPermission(permission)) {
                 position = sortedGroups.get(permission.toLowerCase());
-                p.sortingData.teamNameNote += "\n-> Highest sorting permission: &e" + permission + " &a(#" + position + " in list). &r";
-                if (p.hasPermission(TabConstants.Permission.TEST_PERMISSION)) {
-                    p.sortingData.teamNameNote += "&cThis user appears to have all permissions. Are they OP? &r";
-                }
+                highestPermission = permission;
                 break;
             }
         }
         if (position == 0) {
             TAB.getInstance().getConfigHelper().runtime().noPermissionFromSortingList(sortedGroups.keySet(), p);
             position = sortedGroups.size()+1;
-            p.sortingData.teamNameNote += "\n-> &cPlayer does not have any of the defined permissions. &r";
         }
+        p.sortingData.setSortingValue(index, highestPermission, position);
         return String.valueOf((char) (position + 47));
     }
+
+    @Override
+    @NotNull
+    public String getNote(@NotNull TabPlayer p, @NotNull String value, int position) {
+        if (position > sortedGroups.size()) {
+            return "\n-> &cPlayer does not have any of the defined permissions. &r";
+        }
+        String note = "\n-> Highest sorting permission: &e" + value + " &a(#" + position + " in list). &r";
+        if (p.hasPermission(TabConstants.Permission.TEST_PERMISSION)) {
+            note += "&cThis user appears to have all permissions. Are they OP? &r";
+        }
+        return note;
+    }
 }
\ No newline at end of file
@@ -59,18 +59,24 @@ public class Placeholder extends SortingType {
     }
 
     @Override
-    public String getChars(@NotNull TabPlayer p) {
+    public String getChars(@NotNull TabPlayer p, int index) {
         String output = EnumChatFormat.color(setPlaceholders(p));
-        p.sortingData.teamNameNote += "\n-> " + sortingPlaceholder.getIdentifier() + " returned \"&e" + output + "&r\"";
         int position;
         if (!sortingMap.containsKey(output.toLowerCase(Locale.US))) {
             TAB.getInstance().getConfigHelper().runtime().valueNotInPredefinedValues(sortingPlaceholder.getIdentifier(), sortingMap.keySet(), output, p);
             position = sortingMap.size()+1;
-            p.sortingData.teamNameNote += "&c (not in list)&r. ";
         } else {
             position = sortingMap.get(output.toLowerCase(Locale.US));
-            p.sortingData.teamNameNote += "&r &a(#" + position + " in list). &r";
         }
+        p.sortingData.setSortingValue(index, output, position);
         return String.valueOf((char) (position + 47));
     }
+
+    @Override
+    @NotNull
+    public String getNote(@NotNull TabPlayer p, @NotNull String value, int position) {
+        String note = "\n-> " + sortingPlaceholder.getIdentifier() + " returned \"&e" + value + "&r\"";
+        if (position > sortingMap.size()) return note + "&c (not in list)&r. ";
+        return note + "&r &a(#" + position + " in list). &r";
+    }
 }
\ No newline at end of file
@@ -22,9 +22,9 @@ public class PlaceholderAtoZ extends SortingType {
     }
 
     @Override
-    public String getChars(@NotNull TabPlayer p) {
+    public String getChars(@NotNull TabPlayer p, int index) {
         String output = setPlaceholders(p);
-        p.sortingData.teamNameNote += "\n-> " + sortingPlaceholder.getIdentifier() + " returned \"&e" + output + "&r\". &r";
+        p.sortingData.setSortingValue(index, output, 0);
         return sorting.isCaseSensitiveSorting() ? output : output.toLowerCase();
     }
 }
\ No newline at end of file
@@ -22,9 +22,10 @@ public class PlaceholderZtoA extends SortingType {
     }
 
     @Override
-    public String getChars(@NotNull TabPlayer p) {
-        char[] chars = setPlaceholders(p).toCharArray();
-        p.sortingData.teamNameNote += "\n-> " + sortingPlaceholder.getIdentifier() + " returned \"&e" + new String(chars) + "&r\". &r";
+    public String getChars(@NotNull TabPlayer p, int index) {
+        String output = setPlaceholders(p);
+        p.sortingData.setSortingValue(index, output, 0);
+        char[] chars = output.toCharArray();
         for (int i=0; i<chars.length; i++) {
             char c = chars[i];
             if (c >= 65 && c <= 90) {
@@ -89,20 +89,25 @@ public abstract class SortingType {
      */
     public String compressNumber(double number) {
         int wholePart = (int) number;
-        char decimalChar = (char) ((number - wholePart) * (Character.MAX_VALUE - 1));
-        // The \ symbol breaks json syntax, skip it (and reduce range) (why is it not being escaped by json writer?)
-        if (decimalChar >= '\\') decimalChar++;
-        StringBuilder sb = new StringBuilder();
-        while (wholePart > 0) {
-            char digit = (char) (wholePart % (Character.MAX_VALUE - 1));
-            if (digit >= '\\') digit++;
-            sb.append(digit);
-            wholePart /= Character.MAX_VALUE;
-        }
-        sb.reverse();
-        if (sb.length() == 1) sb.insert(0, (char) 0); // Avoid a single # if number is < 65535
-        sb.append(decimalChar);
-        return sb.toString();
+        char decimalChar = skipBackslash((char) ((number - wholePart) * (Character.MAX_VALUE - 1)));
+        if (wholePart <= 0) return String.valueOf(decimalChar);
+        // Integer.MAX_VALUE fits into 2 digits, a single digit gets a leading 0 to avoid a single # if number is < 65535
+        char lowDigit = skipBackslash((char) (wholePart % (Character.MAX_VALUE - 1)));
+        wholePart /= Character.MAX_VALUE;
+        char highDigit = wholePart > 0 ? skipBackslash((char) (wholePart % (Character.MAX_VALUE - 1))) : 0;
+        return new String(new char[] {highDigit, lowDigit, decimalChar});
+    }
+
+    /**
+     * Shifts characters starting with {@code \} by one, because the symbol breaks json syntax
+     * (why is it not being escaped by json writer?), reducing the range.
+     *
+     * @param   c
+     *          Character to shift
+     * @return  Shifted character
+     */
+    private char skipBackslash(char c) {
+        return c >= '\\' ? (char) (c + 1) : c;
     }
 
     /**
@@ -130,10 +135,31 @@ public abstract class SortingType {
 
     /**
      * Returns current sorting characters of this sorting type for specified player
+     * and saves the value they were computed from using
+     * {@link Sorting.PlayerData#setSortingValue(int, String, int)} under given index.
      *
      * @param   p
      *          player to get chars for
+     * @param   index
+     *          Index of this sorting type in the list of used sorting types
      * @return  an as-short-as-possible character sequence for unique sorting
      */
-    public abstract String getChars(@NotNull TabPlayer p);
+    public abstract String getChars(@NotNull TabPlayer p, int index);
+
+    /**
+     * Returns user-friendly explanation of sorting characters computed from given values,
+     * displayed in /tab debug.
+     *
+     * @param   p
+     *          Player the values belong to
+     * @param   value
+     *          Value saved when computing the characters
+     * @param   position
+     *          Position saved when computing the characters, {@code 0} if not used
+     * @return  User-friendly explanation of sorting characters
+     */
+    @NotNull
+    public String getNote(@NotNull TabPlayer p, @NotNull String value, int position) {
+        return "\n-> " + sortingPlaceholder.getIdentifier() + " returned \"&e" + value + "&r\". &r";
+    }
 }
\ No newline at end of file
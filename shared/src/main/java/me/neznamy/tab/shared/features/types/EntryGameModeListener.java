@@ -0,0 +1,24 @@
+package me.neznamy.tab.shared.features.types;
+
+import me.neznamy.tab.shared.platform.TabPlayer;
+
+import java.util.UUID;
+
+/**
+ * An interface for features listening to game mode of tablist entries in packets
+ */
+public interface EntryGameModeListener {
+
+    /**
+     * Called when a packet adding an entry or changing its game mode is about to be sent.
+     *
+     * @param   viewer
+     *          Player who received the packet
+     * @param   packetId
+     *          UUID of the entry
+     * @param   gameMode
+     *          Original game mode in the packet
+     * @return  New game mode to use
+     */
+    int onEntryGameModeChange(TabPlayer viewer, UUID packetId, int gameMode);
+}
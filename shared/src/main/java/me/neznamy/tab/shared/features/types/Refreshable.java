@@ -29,6 +29,13 @@ public interface Refreshable {
      */
     @NotNull String getRefreshDisplayName();
 
+    /**
+     * Returns id of CPU usage metric of {@link #refresh(TabPlayer, boolean)} of this feature.
+     *
+     * @return  Id of CPU usage metric of refreshing this feature
+     */
+    int getRefreshMetricId();
+
     /**
      * Registers this feature as one using specified placeholders
      *
@@ -12,6 +12,9 @@ public abstract class TabFeature {
     /** Flag tracking whether this instance is active or not */
     private boolean active = true;
 
+    /** Id of CPU usage metric of refreshing this feature, {@code -1} if not resolved yet */
+    private int refreshMetricId = -1;
+
     /**
      * Marks this instance as no longer active.
      */
@@ -34,6 +37,20 @@ public abstract class TabFeature {
     @NotNull
     public abstract String getFeatureName();
 
+    /**
+     * Returns id of CPU usage metric of refreshing this feature. Resolved on first call
+     * from feature name and refresh display name, since features implementing
+     * {@link Refreshable} are refreshed very frequently.
+     *
+     * @return  Id of CPU usage metric of refreshing this feature
+     */
+    public int getRefreshMetricId() {
+        if (refreshMetricId == -1) {
+            refreshMetricId = TAB.getInstance().getCPUManager().getMetricId(getFeatureName(), ((Refreshable) this).getRefreshDisplayName());
+        }
+        return refreshMetricId;
+    }
+
     /**
      * Returns config file.
      *
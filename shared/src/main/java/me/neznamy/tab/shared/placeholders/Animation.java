@@ -1,7 +1,9 @@
 package me.neznamy.tab.shared.placeholders;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import lombok.Getter;
 import lombok.NonNull;
@@ -10,6 +12,7 @@ import me.neznamy.tab.shared.chat.rgb.RGBUtils;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -23,21 +26,26 @@ public class Animation {
 
     /** Animation's name defined in configuration */
     @Getter private final String name;
-    
+
     /** All defined frames of the animation */
     private final String[] messages;
-    
+
     /** Configured change interval for animation to jump to the next frame */
-    private final int interval;
+    @Getter private final int interval;
 
     /**
-     * Refresh interval of placeholder created from this animation.
-     * It may be lower than change interval due to nested placeholders,
-     * which may need to refresh faster for any reason,
-     * such as this being a slow animation with a fast nested animation.
+     * Frames split into segments, where even indexes are static text and odd indexes
+     * are identifiers of nested placeholders. {@code null} if no frame contains
+     * any nested placeholders.
      */
-    @Getter private final int refresh;
-    
+    @Nullable private final String[][] segments;
+
+    /** Nested placeholders used in all frames */
+    private final Set<String> nestedPlaceholders = new LinkedHashSet<>();
+
+    /** Index of currently displayed frame */
+    private volatile int frame;
+
     /**
      * Constructs new instance with given arguments which are fixed if necessary, such as when
      * refresh is not divisible by {@link TabConstants.Placeholder#MINIMUM_REFRESH_INTERVAL}
@@ -56,36 +64,110 @@ public class Animation {
         this.name = name;
         messages = TAB.getInstance().getConfigHelper().startup().fixAnimationFrames(name, list).toArray(new String[0]);
         this.interval = TAB.getInstance().getConfigHelper().startup().fixAnimationInterval(name, interval);
-        int refresh = this.interval;
-        List<String> nestedPlaceholders = new ArrayList<>();
         for (int i=0; i<messages.length; i++) {
             messages[i] = RGBUtils.getInstance().applyCleanGradients(messages[i]);
             messages[i] = EnumChatFormat.color(messages[i]);
             nestedPlaceholders.addAll(placeholderManager.detectPlaceholders(messages[i]));
         }
-        for (String placeholder : nestedPlaceholders) {
-            int localRefresh;
-            if (placeholder.startsWith("%animation:")) {
-                //nested animations may not be loaded into the system yet due to load order, manually getting the refresh interval
-                String nestedAnimation = placeholder.substring("%animation:".length(), placeholder.length()-1);
-                localRefresh = TAB.getInstance().getConfiguration().getAnimationFile().hasConfigOption(nestedAnimation + ".change-interval") ?
-                        TAB.getInstance().getConfiguration().getAnimationFile().getInt(nestedAnimation + ".change-interval") : this.interval;
-            } else {
-                localRefresh = placeholderManager.getPlaceholder(placeholder).getRefresh();
-            }
-            if (localRefresh != -1 && localRefresh < refresh) {
-                refresh = localRefresh;
+        if (nestedPlaceholders.isEmpty()) {
+            segments = null;
+        } else {
+            segments = new String[messages.length][];
+            for (int i=0; i<messages.length; i++) {
+                segments[i] = split(messages[i]);
             }
         }
-        this.refresh = refresh;
     }
 
     /**
-     * Returns current up-to-date message depending on current system time
+     * Splits frame into static text and nested placeholders.
+     *
+     * @param   message
+     *          Frame to split
+     * @return  Array with static text on even indexes and placeholders on odd indexes
+     */
+    @NotNull
+    private String[] split(@NotNull String message) {
+        List<String> parts = new ArrayList<>();
+        int index = 0;
+        for (String placeholder : placeholderManager.detectPlaceholders(message)) {
+            int start = message.indexOf(placeholder, index);
+            parts.add(message.substring(index, start));
+            parts.add(placeholder);
+            index = start + placeholder.length();
+        }
+        parts.add(message.substring(index));
+        return parts.toArray(new String[0]);
+    }
+
+    /**
+     * Returns {@code true} if any frame contains nested placeholders and the animation
+     * must be evaluated for each player, {@code false} if not.
+     *
+     * @return  {@code true} if animation has nested placeholders, {@code false} if not
+     */
+    public boolean hasNestedPlaceholders() {
+        return segments != null;
+    }
+
+    /**
+     * Registers this animation as parent of all nested placeholders and marks them as used,
+     * so their changes get propagated to the animation.
+     */
+    public void finishSetup() {
+        String identifier = TabConstants.Placeholder.animation(name);
+        List<String> placeholders = new ArrayList<>();
+        for (String placeholder : nestedPlaceholders) {
+            if (placeholder.equals(identifier) || placeholder.startsWith("%rel_")) continue;
+            placeholderManager.getPlaceholder(placeholder).addParent(identifier);
+            placeholders.add(placeholder);
+        }
+        placeholderManager.addUsedPlaceholders(placeholders);
+    }
+
+    /**
+     * Moves the animation to frame which should be displayed at given time.
+     *
+     * @param   loopTime
+     *          Time since the animations started in milliseconds
+     * @return  {@code true} if the frame changed, {@code false} if not
+     */
+    public boolean advance(long loopTime) {
+        int newFrame = (int) ((loopTime % ((long) messages.length * interval)) / interval);
+        if (newFrame == frame) return false;
+        frame = newFrame;
+        return true;
+    }
+
+    /**
+     * Returns currently displayed frame
      *
      * @return  current message
      */
     public @NotNull String getMessage() {
-        return messages[(((placeholderManager.getLoopTime())%(messages.length*interval))/interval)];
+        return messages[frame];
+    }
+
+    /**
+     * Returns currently displayed frame with nested placeholders replaced for given player.
+     *
+     * @param   player
+     *          Player to replace nested placeholders for
+     * @return  current message with replaced placeholders
+     */
+    public @NotNull String getMessage(@NotNull TabPlayer player) {
+        if (segments == null) return messages[frame];
+        String identifier = TabConstants.Placeholder.animation(name);
+        String[] parts = segments[frame];
+        StringBuilder sb = new StringBuilder();
+        for (int i=0; i<parts.length; i++) {
+            String part = parts[i];
+            if (i % 2 == 0 || part.equals(identifier) || part.startsWith("%rel_")) {
+                sb.append(part);
+            } else {
+                sb.append(placeholderManager.getPlaceholder(part).set(part, player));
+            }
+        }
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package me.neznamy.tab.shared.placeholders;
+
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
+import me.neznamy.tab.shared.features.types.Refreshable;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Scheduler advancing frames of all animations at once in a single task, which ticks
+ * at the greatest common divisor of their change intervals. Animations without nested
+ * placeholders are registered as server placeholders, so a frame is only evaluated once
+ * for everyone. Features using animations that changed frame are refreshed once per tick
+ * for each player, even if they use multiple animations. Placeholders containing
+ * animations, such as conditions or output replacements, are updated together with them.
+ */
+public class AnimationScheduler {
+
+    /** Placeholder manager for fast access */
+    @NotNull private final PlaceholderManagerImpl placeholderManager;
+
+    /** Registered animations */
+    private final List<Animation> animations = new ArrayList<>();
+
+    /** Placeholders of registered animations */
+    private final List<TabPlaceholder> placeholders = new ArrayList<>();
+
+    /** Interval between ticks in milliseconds */
+    private int tick;
+
+    /** Time since animations started in milliseconds */
+    private long loopTime;
+
+    /**
+     * Constructs new instance with given placeholder manager.
+     *
+     * @param   placeholderManager
+     *          Placeholder manager to register placeholders to
+     */
+    public AnimationScheduler(@NotNull PlaceholderManagerImpl placeholderManager) {
+        this.placeholderManager = placeholderManager;
+    }
+
+    /**
+     * Registers animation placeholder and adds it to the scheduler.
+     *
+     * @param   animation
+     *          Animation to register
+     */
+    public void addAnimation(@NotNull Animation animation) {
+        String identifier = TabConstants.Placeholder.animation(animation.getName());
+        animations.add(animation);
+        if (animation.hasNestedPlaceholders()) {
+            placeholders.add(placeholderManager.registerPlayerPlaceholder(identifier, -1, p -> animation.getMessage((TabPlayer) p)));
+        } else {
+            placeholders.add(placeholderManager.registerServerPlaceholder(identifier, -1, animation::getMessage));
+        }
+        tick = gcd(tick, animation.getInterval());
+    }
+
+    /**
+     * Links nested placeholders of all animations and starts the scheduler.
+     * Must be called after all animations were added, since animations may
+     * be nested in other animations.
+     */
+    public void start() {
+        if (animations.isEmpty()) return;
+        animations.forEach(Animation::finishSetup);
+        TAB.getInstance().getCPUManager().startRepeatingMeasuredTask(tick, "Animations", "Advancing frames", this::tick);
+    }
+
+    private void tick() {
+        loopTime += tick;
+        Set<Refreshable> updateAll = new HashSet<>();
+        Map<TabPlayer, Set<Refreshable>> update = new HashMap<>();
+        for (int i=0; i<animations.size(); i++) {
+            if (!animations.get(i).advance(loopTime)) continue;
+            TabPlaceholder placeholder = placeholders.get(i);
+            Set<Refreshable> usage = placeholderManager.getPlaceholderUsage(placeholder.getIdentifier());
+            if (placeholder instanceof ServerPlaceholderImpl) {
+                ServerPlaceholderImpl server = (ServerPlaceholderImpl) placeholder;
+                if (server.hasValueChanged(server.request())) {
+                    for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                        server.updateParents(all);
+                    }
+                    updateAll.addAll(usage);
+                }
+            } else {
+                if (usage.isEmpty()) continue; // Evaluated on request
+                PlayerPlaceholderImpl player = (PlayerPlaceholderImpl) placeholder;
+                for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                    if (player.hasValueChanged(all, player.request(all))) {
+                        player.updateParents(all);
+                        update.computeIfAbsent(all, k -> new HashSet<>()).addAll(usage);
+                    }
+                }
+            }
+        }
+        if (updateAll.isEmpty() && update.isEmpty()) return;
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            if (!all.isLoaded()) continue; // Updated on join
+            Set<Refreshable> features = update.get(all);
+            if (features == null) {
+                features = updateAll;
+            } else {
+                features.addAll(updateAll);
+            }
+            for (Refreshable r : features) {
+                TAB.getInstance().getCPUManager().refreshAndMeasure(r, all, false);
+            }
+        }
+    }
+
+    private int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,340 @@
+package me.neznamy.tab.shared.placeholders;
+
+import me.neznamy.tab.api.placeholder.PlaceholderManager;
+import me.neznamy.tab.api.placeholder.ServerPlaceholder;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import org.jetbrains.annotations.NotNull;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalField;
+import java.time.temporal.WeekFields;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Shared service computing values of time, date and memory placeholders. Time and date
+ * are formatted when the smallest unit displayed by their formats changes, memory
+ * usage is sampled once per tick. New values are only published when the text changes.
+ */
+public class ClockService {
+
+    /** Name of this service in cpu usage */
+    private static final String NAME = "Time and memory placeholders";
+
+    /** Interval of memory sampling in milliseconds */
+    private static final int MEMORY_INTERVAL = 200;
+
+    /** Maximum delay between two clock ticks to recover from system clock changes */
+    private static final long MAX_CLOCK_DELAY = 60000;
+
+    /** Time offset configured in config in milliseconds */
+    private final long timeOffset;
+
+    /** Zone used for formatting */
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /** Formatter for %time% */
+    @NotNull private final DateTimeFormatter timeFormat;
+
+    /** Formatter for %date% */
+    @NotNull private final DateTimeFormatter dateFormat;
+
+    /** Smallest unit displayed by either of the formats, {@code null} if milliseconds are displayed */
+    private final ChronoUnit clockUnit;
+
+    /** Decimal formatter for 2 decimal places, only used from the processing thread */
+    @NotNull private final DecimalFormat decimal2;
+
+    private final ServerPlaceholder timePlaceholder;
+    private final ServerPlaceholder datePlaceholder;
+    private final ServerPlaceholder memoryUsedPlaceholder;
+    private final ServerPlaceholder memoryUsedGbPlaceholder;
+
+    private volatile String time;
+    private volatile String date;
+    private volatile String memoryUsed;
+    private volatile String memoryUsedGb;
+
+    /**
+     * Constructs new instance, registers placeholders into given manager and starts ticking.
+     *
+     * @param   manager
+     *          Placeholder manager to register placeholders to
+     */
+    public ClockService(@NotNull PlaceholderManager manager) {
+        timeOffset = (long) (TAB.getInstance().getConfiguration().getConfig().getDouble("placeholders.time-offset", 0) * 3600000);
+        String timePattern = TAB.getInstance().getConfiguration().getConfig().getString("placeholders.time-format", "[HH:mm:ss / h:mm a]");
+        String datePattern = TAB.getInstance().getConfiguration().getConfig().getString("placeholders.date-format", "dd.MM.yyyy");
+        timeFormat = createFormatter(timePattern, "[HH:mm:ss / h:mm a]");
+        dateFormat = createFormatter(datePattern, "dd.MM.yyyy");
+        ChronoUnit timeUnit = getUnit(timePattern);
+        ChronoUnit dateUnit = getUnit(datePattern);
+        clockUnit = timeUnit == null || dateUnit == null ? null : timeUnit.compareTo(dateUnit) < 0 ? timeUnit : dateUnit;
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols();
+        symbols.setDecimalSeparator('.');
+        decimal2 = new DecimalFormat("#.##", symbols);
+
+        ZonedDateTime now = now();
+        time = timeFormat.format(now);
+        date = dateFormat.format(now);
+        sampleMemory();
+        timePlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.TIME, -1, () -> time);
+        datePlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.DATE, -1, () -> date);
+        memoryUsedPlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.MEMORY_USED, -1, () -> memoryUsed);
+        memoryUsedGbPlaceholder = manager.registerServerPlaceholder(TabConstants.Placeholder.MEMORY_USED_GB, -1, () -> memoryUsedGb);
+
+        scheduleClockTick(now);
+        TAB.getInstance().getCPUManager().startRepeatingMeasuredTask(MEMORY_INTERVAL, NAME, "Sampling memory", () -> {
+            String oldUsed = memoryUsed;
+            String oldUsedGb = memoryUsedGb;
+            sampleMemory();
+            if (!memoryUsed.equals(oldUsed)) memoryUsedPlaceholder.updateValue(memoryUsed);
+            if (!memoryUsedGb.equals(oldUsedGb)) memoryUsedGbPlaceholder.updateValue(memoryUsedGb);
+        });
+    }
+
+    private void scheduleClockTick(@NotNull ZonedDateTime now) {
+        long delay;
+        if (clockUnit == null) {
+            delay = TabConstants.Placeholder.MINIMUM_REFRESH_INTERVAL;
+        } else {
+            delay = Math.min(Duration.between(now, now.truncatedTo(clockUnit).plus(1, clockUnit)).toMillis(), MAX_CLOCK_DELAY);
+        }
+        TAB.getInstance().getCPUManager().runTaskLater((int) Math.max(delay, 1), NAME, "Formatting time", this::clockTick);
+    }
+
+    private void clockTick() {
+        ZonedDateTime now = now();
+        String newTime = timeFormat.format(now);
+        String newDate = dateFormat.format(now);
+        if (!newTime.equals(time)) {
+            time = newTime;
+            timePlaceholder.updateValue(newTime);
+        }
+        if (!newDate.equals(date)) {
+            date = newDate;
+            datePlaceholder.updateValue(newDate);
+        }
+        scheduleClockTick(now);
+    }
+
+    @NotNull
+    private ZonedDateTime now() {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(System.currentTimeMillis() + timeOffset), zone);
+    }
+
+    private void sampleMemory() {
+        long used = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        memoryUsed = String.valueOf((int) (used/1024/1024));
+        memoryUsedGb = decimal2.format((float)used/1024/1024/1024);
+    }
+
+    /**
+     * Returns the smallest unit displayed by given date format pattern, used to know when
+     * the formatted text may change. Returns {@code null} if the pattern displays milliseconds.
+     * Units larger than a day are reported as days.
+     *
+     * @param   pattern
+     *          Date format pattern
+     * @return  Smallest unit displayed by the pattern
+     */
+    private ChronoUnit getUnit(@NotNull String pattern) {
+        ChronoUnit unit = ChronoUnit.DAYS;
+        boolean quoted = false;
+        for (char c : pattern.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted) continue;
+            switch (c) {
+                case 'S':
+                    return null;
+                case 's':
+                    unit = ChronoUnit.SECONDS;
+                    break;
+                case 'm':
+                    if (unit != ChronoUnit.SECONDS) unit = ChronoUnit.MINUTES;
+                    break;
+                case 'H': case 'h': case 'k': case 'K': case 'a': case 'z': case 'Z': case 'X':
+                    if (unit == ChronoUnit.DAYS) unit = ChronoUnit.HOURS;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return unit;
+    }
+
+    /**
+     * Creates formatter from date format pattern configured in {@link java.text.SimpleDateFormat}
+     * syntax, which is what users have in their configs. If it's not valid, a message is printed
+     * into console and formatter from {@code defaultValue} is returned.
+     *
+     * @param   pattern
+     *          Configured date format
+     * @param   defaultValue
+     *          Value to use if entered format is not valid
+     * @return  Formatter for given pattern
+     */
+    @NotNull
+    private DateTimeFormatter createFormatter(@NotNull String pattern, @NotNull String defaultValue) {
+        try {
+            DateTimeFormatter formatter = convertPattern(pattern);
+            formatter.format(ZonedDateTime.now(zone)); // Check for fields which cannot be formatted
+            return formatter;
+        } catch (RuntimeException e) {
+            TAB.getInstance().getConfigHelper().startup().invalidDateFormat(pattern, e.getMessage());
+            return convertPattern(defaultValue);
+        }
+    }
+
+    /**
+     * Converts {@link java.text.SimpleDateFormat} pattern into a {@link DateTimeFormatter}
+     * producing the same output. Letters with the same meaning in both syntaxes are passed
+     * as they are, letters with a different meaning or allowed count are translated and
+     * characters with special meaning only in {@link DateTimeFormatter} patterns are
+     * appended as literals.
+     *
+     * @param   pattern
+     *          Pattern to convert
+     * @return  Formatter for given pattern
+     * @throws  IllegalArgumentException
+     *          If pattern is not valid
+     */
+    @NotNull
+    private DateTimeFormatter convertPattern(@NotNull String pattern) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    builder.appendLiteral('\'');
+                    i += 2;
+                    continue;
+                }
+                StringBuilder literal = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= pattern.length()) throw new IllegalArgumentException("Unterminated quote in pattern");
+                    if (pattern.charAt(i) == '\'') {
+                        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                            literal.append('\'');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    literal.append(pattern.charAt(i++));
+                }
+                builder.appendLiteral(literal.toString());
+                continue;
+            }
+            if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+                builder.appendLiteral(c);
+                i++;
+                continue;
+            }
+            int count = 1;
+            while (i + count < pattern.length() && pattern.charAt(i + count) == c) count++;
+            appendLetter(builder, c, count);
+            i += count;
+        }
+        return builder.toFormatter(Locale.ENGLISH);
+    }
+
+    /**
+     * Appends field represented by a run of {@link java.text.SimpleDateFormat} pattern letters.
+     *
+     * @param   builder
+     *          Builder to append field to
+     * @param   letter
+     *          Pattern letter
+     * @param   count
+     *          How many times the letter is repeated
+     */
+    private void appendLetter(@NotNull DateTimeFormatterBuilder builder, char letter, int count) {
+        switch (letter) {
+            case 'u': // Day number of week (1 = Monday), "u" is year in DateTimeFormatter
+                appendNumber(builder, ChronoField.DAY_OF_WEEK, count, 1);
+                return;
+            case 'F': // Day of week in month
+                appendNumber(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count, 1);
+                return;
+            case 'S': // Milliseconds, "S" is fraction of second in DateTimeFormatter
+                appendNumber(builder, ChronoField.MILLI_OF_SECOND, count, 3);
+                return;
+            case 'a': // Any count is allowed, DateTimeFormatter only allows one
+                builder.appendPattern("a");
+                return;
+            case 'Z': // Any count is RFC 822 zone, DateTimeFormatter uses different styles
+                builder.appendPattern("Z");
+                return;
+            case 'E': case 'M': case 'L': case 'z': // Full text from 4 letters, DateTimeFormatter has narrow text from 5
+                builder.appendPattern(repeat(letter, Math.min(count, 4)));
+                return;
+            case 'd': case 'H': case 'h': case 'k': case 'K': case 'm': case 's': case 'w': case 'W':
+                if (count > 2) {
+                    appendNumber(builder, getField(letter), count, count);
+                    return;
+                }
+                break;
+            case 'D':
+                if (count > 3) {
+                    appendNumber(builder, ChronoField.DAY_OF_YEAR, count, count);
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        builder.appendPattern(repeat(letter, count));
+    }
+
+    /**
+     * Returns field of numeric pattern letter which can be padded to more than 2 digits
+     * in {@link java.text.SimpleDateFormat}.
+     *
+     * @param   letter
+     *          Pattern letter
+     * @return  Field of the letter
+     */
+    @NotNull
+    private TemporalField getField(char letter) {
+        switch (letter) {
+            case 'd': return ChronoField.DAY_OF_MONTH;
+            case 'H': return ChronoField.HOUR_OF_DAY;
+            case 'h': return ChronoField.CLOCK_HOUR_OF_AMPM;
+            case 'k': return ChronoField.CLOCK_HOUR_OF_DAY;
+            case 'K': return ChronoField.HOUR_OF_AMPM;
+            case 'm': return ChronoField.MINUTE_OF_HOUR;
+            case 's': return ChronoField.SECOND_OF_MINUTE;
+            case 'w': return WeekFields.of(Locale.ENGLISH).weekOfWeekBasedYear();
+            default: return WeekFields.of(Locale.ENGLISH).weekOfMonth();
+        }
+    }
+
+    private void appendNumber(@NotNull DateTimeFormatterBuilder builder, @NotNull TemporalField field, int minWidth, int maxDigits) {
+        builder.appendValue(field, minWidth, Math.max(minWidth, maxDigits), SignStyle.NOT_NEGATIVE);
+    }
+
+    @NotNull
+    private String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -1,7 +1,6 @@
 package me.neznamy.tab.shared.placeholders;
 
 import lombok.Getter;
-import lombok.NonNull;
 import me.neznamy.tab.shared.hook.LuckPermsHook;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.api.placeholder.PlaceholderManager;
@@ -13,7 +12,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -68,34 +66,7 @@ public class UniversalPlaceholderRegistry {
     }
 
     private void registerServerPlaceholders(@NotNull PlaceholderManager manager) {
-        double timeOffset = TAB.getInstance().getConfiguration().getConfig().getDouble("placeholders.time-offset", 0);
-        SimpleDateFormat timeFormat = createDateFormat(TAB.getInstance().getConfiguration().getConfig().getString("placeholders.time-format", "[HH:mm:ss / h:mm a]"), "[HH:mm:ss / h:mm a]");
-        SimpleDateFormat dateFormat = createDateFormat(TAB.getInstance().getConfiguration().getConfig().getString("placeholders.date-format", "dd.MM.yyyy"), "dd.MM.yyyy");
-        manager.registerServerPlaceholder(TabConstants.Placeholder.TIME, 500, () -> timeFormat.format(new Date(System.currentTimeMillis() + (int)(timeOffset*3600000))));
-        manager.registerServerPlaceholder(TabConstants.Placeholder.DATE, 60000, () -> dateFormat.format(new Date(System.currentTimeMillis() + (int)(timeOffset*3600000))));
-        manager.registerServerPlaceholder(TabConstants.Placeholder.MEMORY_USED, 200, () -> ((int) ((Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory())/1024/1024)));
-        manager.registerServerPlaceholder(TabConstants.Placeholder.MEMORY_USED_GB, 200, () -> decimal2.format((float)(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) /1024/1024/1024));
-        manager.registerServerPlaceholder(TabConstants.Placeholder.ONLINE, 1000, () -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (!player.isVanished()) count++;
-            }
-            return count;
-        });
-        manager.registerServerPlaceholder(TabConstants.Placeholder.STAFF_ONLINE, 2000, () -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (player.hasPermission(TabConstants.Permission.STAFF) && !player.isVanished()) count++;
-            }
-            return count;
-        });
-        manager.registerServerPlaceholder(TabConstants.Placeholder.NON_STAFF_ONLINE, 2000, () -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (!player.hasPermission(TabConstants.Permission.STAFF) && !player.isVanished()) count++;
-            }
-            return count;
-        });
+        new ClockService(manager);
     }
 
     @SuppressWarnings("unchecked")
@@ -103,20 +74,6 @@ public class UniversalPlaceholderRegistry {
         manager.registerPlayerPlaceholder(TabConstants.Placeholder.GROUP, -1, me.neznamy.tab.api.TabPlayer::getGroup);
         manager.registerPlayerPlaceholder(TabConstants.Placeholder.PING, 500, p -> ((TabPlayer)p).getPing());
         manager.registerPlayerPlaceholder(TabConstants.Placeholder.VANISHED, 1000, p -> ((TabPlayer)p).isVanished());
-        manager.registerPlayerPlaceholder(TabConstants.Placeholder.WORLD_ONLINE, 1000, p -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (((TabPlayer)p).getWorld().equals(player.getWorld()) && !player.isVanished()) count++;
-            }
-            return count;
-        });
-        manager.registerPlayerPlaceholder(TabConstants.Placeholder.SERVER_ONLINE, 1000, p -> {
-            int count = 0;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                if (((TabPlayer)p).getServer().equals(player.getServer()) && !player.isVanished()) count++;
-            }
-            return count;
-        });
         manager.registerPlayerPlaceholder(TabConstants.Placeholder.GAMEMODE, 100, p -> ((TabPlayer)p).getGamemode());
         if (LuckPermsHook.getInstance().isInstalled()) {
             int refresh = TAB.getInstance().getConfiguration().getPermissionRefreshInterval();
@@ -125,14 +82,14 @@ public class UniversalPlaceholderRegistry {
             manager.registerPlayerPlaceholder(TabConstants.Placeholder.LUCKPERMS_SUFFIX, refresh,
                     p -> LuckPermsHook.getInstance().getSuffix((TabPlayer) p));
         }
+        AnimationScheduler animations = new AnimationScheduler((PlaceholderManagerImpl) manager);
         for (Object s : TAB.getInstance().getConfiguration().getAnimationFile().getValues().keySet()) {
-            Animation a = new Animation(
+            animations.addAnimation(new Animation(
                     (PlaceholderManagerImpl) manager,
                     s.toString(),
                     TAB.getInstance().getConfiguration().getAnimationFile().getStringList(s + ".texts"),
                     TAB.getInstance().getConfiguration().getAnimationFile().getInt(s + ".change-interval", 0)
-            );
-            manager.registerPlayerPlaceholder(TabConstants.Placeholder.animation(a.getName()), a.getRefresh(), p -> a.getMessage());
+            ));
         }
         Condition.clearConditions();
         Map<String, Map<Object, Object>> conditions = TAB.getInstance().getConfiguration().getConfig().getConfigurationSection("conditions");
@@ -154,24 +111,6 @@ public class UniversalPlaceholderRegistry {
             manager.registerPlayerPlaceholder(TabConstants.Placeholder.condition(c.getName()), c.getRefresh(), p -> c.getText((TabPlayer)p));
         }
         Condition.finishSetups();
-    }
-
-    /**
-     * Evaluates inserted date format. If it's not valid, a message is printed into console
-     * and format with {@code defaultValue} is returned.
-     *
-     * @param   value
-     *          date format to evaluate
-     * @param   defaultValue
-     *          value to use if entered format is not valid
-     * @return  evaluated date format
-     */
-    private SimpleDateFormat createDateFormat(@NonNull String value, @NonNull String defaultValue) {
-        try {
-            return new SimpleDateFormat(value, Locale.ENGLISH);
-        } catch (IllegalArgumentException e) {
-            TAB.getInstance().getConfigHelper().startup().invalidDateFormat(value);
-            return new SimpleDateFormat(defaultValue);
-        }
+        animations.start(); // After conditions, which may be nested in animations
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package me.neznamy.tab.shared.placeholders.expansion;
 
 import lombok.NonNull;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 
@@ -10,17 +11,17 @@ import org.jetbrains.annotations.NotNull;
 public class EmptyTabExpansion implements TabExpansion {
 
     @Override
-    public void setRawPropertyValue(@NotNull TabPlayer player, @NotNull String property, @NotNull String value) {
+    public void setRawPropertyValue(@NotNull TabPlayer player, int slot, @NotNull String value) {
         // Do nothing
     }
 
     @Override
-    public void setPlaceholderValue(@NotNull TabPlayer player, @NotNull String placeholder, @NotNull String value) {
+    public void setPlaceholderValue(@NotNull TabPlayer player, @NotNull TabPlaceholder placeholder, @NotNull String value) {
         // Do nothing
     }
 
     @Override
-    public void setValue(@NonNull TabPlayer player, @NonNull String key, @NonNull String value) {/*Do nothing*/}
+    public void setValue(@NonNull TabPlayer player, int slot, @NonNull String value) {/*Do nothing*/}
 
     @Override
     public void unregisterExpansion() {/* Do nothing */}
@@ -1,13 +1,169 @@
 package me.neznamy.tab.shared.placeholders.expansion;
 
-import java.util.HashMap;
+import me.neznamy.tab.shared.TabConstants;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
- * Class storing placeholders for plugin's PlaceholderAPI expansion.
+ * Class storing placeholders for plugin's PlaceholderAPI expansion. Every key is
+ * assigned a slot once, shared by all players, and values are stored in an array
+ * indexed by slot. Callers setting values frequently resolve the slot once using
+ * {@link #getSlot(String)}. Slots changed using {@link #setTracked(int, String)}
+ * are remembered until next flush.
  */
 public class PlayerExpansionValues {
 
-    /** Map of placeholder values */
-    public final Map<String, String> values = new HashMap<>();
+    /** Slot index by key */
+    private static final Map<String, Integer> SLOTS = new ConcurrentHashMap<>();
+
+    /** Keys by slot index, replaced when a new key is added */
+    private static volatile String[] keys = new String[0];
+
+    public static final int SCOREBOARD_NAME = getSlot("scoreboard_name");
+    public static final int SCOREBOARD_VISIBLE = getSlot("scoreboard_visible");
+    public static final int BOSSBAR_VISIBLE = getSlot("bossbar_visible");
+    public static final int NAMETAG_PREVIEW = getSlot("nametag_preview");
+    public static final int NAMETAG_VISIBILITY = getSlot("nametag_visibility");
+
+    static {
+        for (String property : Arrays.asList(TabConstants.Property.TABPREFIX, TabConstants.Property.CUSTOMTABNAME,
+                TabConstants.Property.TABSUFFIX, TabConstants.Property.TAGPREFIX, TabConstants.Property.CUSTOMTAGNAME,
+                TabConstants.Property.TAGSUFFIX, TabConstants.Property.ABOVENAME, TabConstants.Property.NAMETAG,
+                TabConstants.Property.BELOWNAME)) {
+            getSlot(property);
+            getSlot(property + "_raw");
+        }
+    }
+
+    /** Values by slot, only contains slots which existed when last value was set */
+    private String[] values = new String[keys.length];
+
+    /** Slots changed since last flush */
+    private final BitSet dirty = new BitSet();
+
+    /**
+     * Returns slot of given key. If the key does not have a slot yet, a new one is assigned.
+     *
+     * @param   key
+     *          Name of placeholder
+     * @return  Slot of the key
+     */
+    public static int getSlot(@NotNull String key) {
+        Integer slot = SLOTS.get(key);
+        if (slot != null) return slot;
+        synchronized (SLOTS) {
+            slot = SLOTS.get(key);
+            if (slot != null) return slot;
+            String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+            newKeys[keys.length] = key;
+            keys = newKeys;
+            SLOTS.put(key, keys.length - 1);
+            return keys.length - 1;
+        }
+    }
+
+    /**
+     * Sets value of given slot without tracking the change.
+     *
+     * @param   slot
+     *          Slot of placeholder from {@link #getSlot(String)}
+     * @param   value
+     *          Placeholder value
+     */
+    public synchronized void set(int slot, @NotNull String value) {
+        ensureCapacity(slot);
+        values[slot] = value;
+    }
+
+    /**
+     * Sets value of given slot and marks it as changed if it is different than before.
+     * Returns {@code true} if this call was the first change since last flush, meaning
+     * a flush should be scheduled, {@code false} if value did not change or a flush
+     * is already pending.
+     *
+     * @param   slot
+     *          Slot of placeholder from {@link #getSlot(String)}
+     * @param   value
+     *          Placeholder value
+     * @return  {@code true} if values changed from flushed to changed state, {@code false} if not
+     */
+    public synchronized boolean setTracked(int slot, @NotNull String value) {
+        ensureCapacity(slot);
+        if (value.equals(values[slot])) return false;
+        values[slot] = value;
+        boolean wasDirty = !dirty.isEmpty();
+        dirty.set(slot);
+        return !wasDirty;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot >= values.length) values = Arrays.copyOf(values, Math.max(slot + 1, keys.length));
+    }
+
+    /**
+     * Returns value of given key or {@code null} if not set.
+     *
+     * @param   key
+     *          Name of placeholder
+     * @return  Value of the key or {@code null} if not set
+     */
+    @Nullable
+    public String get(@NotNull String key) {
+        Integer slot = SLOTS.get(key);
+        return slot == null ? null : get(slot);
+    }
+
+    /**
+     * Returns value of given slot or {@code null} if not set.
+     *
+     * @param   slot
+     *          Slot of placeholder from {@link #getSlot(String)}
+     * @return  Value of the slot or {@code null} if not set
+     */
+    @Nullable
+    public synchronized String get(int slot) {
+        return slot < values.length ? values[slot] : null;
+    }
+
+    /**
+     * Returns {@code true} if any value changed since last flush, {@code false} if not.
+     *
+     * @return  {@code true} if any value changed since last flush, {@code false} if not
+     */
+    public synchronized boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Passes all values changed since last flush to given consumer and marks them as flushed.
+     *
+     * @param   consumer
+     *          Consumer accepting key and value
+     */
+    public synchronized void flush(@NotNull BiConsumer<String, String> consumer) {
+        String[] keys = PlayerExpansionValues.keys;
+        for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+            consumer.accept(keys[slot], values[slot]);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Passes all set values to given consumer.
+     *
+     * @param   consumer
+     *          Consumer accepting key and value
+     */
+    public synchronized void forEach(@NotNull BiConsumer<String, String> consumer) {
+        String[] keys = PlayerExpansionValues.keys;
+        for (int i=0; i<values.length; i++) {
+            if (values[i] != null) consumer.accept(keys[i], values[i]);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package me.neznamy.tab.shared.placeholders.expansion;
 
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 
@@ -17,7 +18,7 @@ public interface TabExpansion {
      *          Whether scoreboard is visible or not
      */
     default void setScoreboardVisible(@NotNull TabPlayer player, boolean visible) {
-        setValue(player, "scoreboard_visible", visible ? "Enabled" : "Disabled");
+        setValue(player, PlayerExpansionValues.SCOREBOARD_VISIBLE, visible ? "Enabled" : "Disabled");
     }
 
     /**
@@ -29,7 +30,7 @@ public interface TabExpansion {
      *          Name of currently visible scoreboard
      */
     default void setScoreboardName(@NotNull TabPlayer player, @NotNull String name) {
-        setValue(player, "scoreboard_name", name);
+        setValue(player, PlayerExpansionValues.SCOREBOARD_NAME, name);
     }
 
     /**
@@ -41,7 +42,7 @@ public interface TabExpansion {
      *          Whether bossbar is visible or not
      */
     default void setBossBarVisible(@NotNull TabPlayer player, boolean visible) {
-        setValue(player, "bossbar_visible", visible ? "Enabled" : "Disabled");
+        setValue(player, PlayerExpansionValues.BOSSBAR_VISIBLE, visible ? "Enabled" : "Disabled");
     }
 
     /**
@@ -53,7 +54,7 @@ public interface TabExpansion {
      *          Whether player is previewing nametag or not
      */
     default void setNameTagPreview(@NotNull TabPlayer player, boolean previewing) {
-        setValue(player, "nametag_preview", previewing ? "Enabled" : "Disabled");
+        setValue(player, PlayerExpansionValues.NAMETAG_PREVIEW, previewing ? "Enabled" : "Disabled");
     }
 
     /**
@@ -65,7 +66,7 @@ public interface TabExpansion {
      *          Whether player wants to see nametags or not
      */
     default void setNameTagVisibility(@NotNull TabPlayer player, boolean visible) {
-        setValue(player, "nametag_visibility", visible ? "Enabled" : "Disabled");
+        setValue(player, PlayerExpansionValues.NAMETAG_VISIBILITY, visible ? "Enabled" : "Disabled");
     }
 
     /**
@@ -74,12 +75,12 @@ public interface TabExpansion {
      * @param   player
      *          Player to set placeholder value for
      * @param   placeholder
-     *          Identifier of internal placeholder
+     *          Internal placeholder
      * @param   value
      *          Placeholder value
      */
-    default void setPlaceholderValue(@NotNull TabPlayer player, @NotNull String placeholder, @NotNull String value) {
-        setValue(player, "placeholder_" + placeholder.substring(1, placeholder.length()-1), value);
+    default void setPlaceholderValue(@NotNull TabPlayer player, @NotNull TabPlaceholder placeholder, @NotNull String value) {
+        setValue(player, placeholder.getExpansionSlot(), value);
     }
 
     /**
@@ -87,13 +88,13 @@ public interface TabExpansion {
      *
      * @param   player
      *          Player to set placeholder value for
-     * @param   property
-     *          Name of property
+     * @param   slot
+     *          Slot of property from {@link PlayerExpansionValues#getSlot(String)}
      * @param   value
      *          Value of property
      */
-    default void setPropertyValue(@NotNull TabPlayer player, @NotNull String property, @NotNull String value) {
-        setValue(player, property, value);
+    default void setPropertyValue(@NotNull TabPlayer player, int slot, @NotNull String value) {
+        setValue(player, slot, value);
     }
 
     /**
@@ -101,13 +102,13 @@ public interface TabExpansion {
      *
      * @param   player
      *          Player to set placeholder value for
-     * @param   property
-     *          Name of property
+     * @param   slot
+     *          Slot of raw property value from {@link PlayerExpansionValues#getSlot(String)}
      * @param   value
      *          Raw value of property
      */
-    default void setRawPropertyValue(@NotNull TabPlayer player, @NotNull String property, @NotNull String value) {
-        setValue(player, property + "_raw", value);
+    default void setRawPropertyValue(@NotNull TabPlayer player, int slot, @NotNull String value) {
+        setValue(player, slot, value);
     }
 
     /**
@@ -115,12 +116,12 @@ public interface TabExpansion {
      *
      * @param   player
      *          Player to set placeholder value for
-     * @param   key
-     *          Name of placeholder
+     * @param   slot
+     *          Slot of placeholder from {@link PlayerExpansionValues#getSlot(String)}
      * @param   value
      *          Placeholder value
      */
-    void setValue(@NotNull TabPlayer player, @NotNull String key, @NotNull String value);
+    void setValue(@NotNull TabPlayer player, int slot, @NotNull String value);
 
     /**
      * Unregisters the expansion from PlaceholderAPI.
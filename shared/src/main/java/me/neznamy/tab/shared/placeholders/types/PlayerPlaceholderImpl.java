@@ -6,12 +6,10 @@ import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.types.Refreshable;
 import me.neznamy.tab.shared.platform.TabPlayer;
+import me.neznamy.tab.shared.util.PlayerMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.function.Function;
 
 /**
@@ -23,7 +21,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
     @NonNull private final Function<me.neznamy.tab.api.TabPlayer, Object> function;
 
     /** Last known values for each online player after applying replacements and nested placeholders */
-    private final Map<TabPlayer, String> lastValues = Collections.synchronizedMap(new WeakHashMap<>());
+    private final PlayerMap<String> lastValues = new PlayerMap<>();
 
     /**
      * Constructs new instance with given parameters
@@ -52,9 +50,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
         if (hasValueChanged((TabPlayer) player, value)) {
             if (!player.isLoaded()) return; // Updated on join
             for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier)) {
-                long startTime = System.nanoTime();
-                r.refresh((TabPlayer) player, false);
-                TAB.getInstance().getCPUManager().addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
+                TAB.getInstance().getCPUManager().refreshAndMeasure(r, (TabPlayer) player, false);
             }
         }
     }
@@ -76,7 +72,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
         if (lastValue == null || (!identifier.equals(newValue) && !newValue.equals(lastValue))) {
             lastValues.put(p, newValue);
             updateParents(p);
-            TAB.getInstance().getPlaceholderManager().getTabExpansion().setPlaceholderValue(p, identifier, newValue);
+            TAB.getInstance().getPlaceholderManager().getTabExpansion().setPlaceholderValue(p, this, newValue);
             return true;
         }
         return false;
@@ -103,6 +99,16 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
         return lastValues.getOrDefault(player, identifier);
     }
 
+    /**
+     * Removes last known value of specified player.
+     *
+     * @param   player
+     *          Player who left
+     */
+    public void removeLastValue(@NonNull TabPlayer player) {
+        lastValues.remove(player);
+    }
+
     /**
      * Calls the placeholder request function and returns the output.
      * If the placeholder threw an exception, it is logged in {@code placeholder-errors.log}
@@ -1,9 +1,6 @@
 package me.neznamy.tab.shared.placeholders.types;
 
-import java.util.Collections;
-import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.function.BiFunction;
 
 import lombok.NonNull;
@@ -13,6 +10,7 @@ import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.api.placeholder.RelationalPlaceholder;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.util.PlayerMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,8 +23,7 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     @NonNull private final BiFunction<me.neznamy.tab.api.TabPlayer, me.neznamy.tab.api.TabPlayer, Object> function;
 
     /** Last known values for each online player duo after applying replacements and nested placeholders */
-    @NonNull private final Map<me.neznamy.tab.api.TabPlayer, Map<me.neznamy.tab.api.TabPlayer, String>> lastValues =
-            Collections.synchronizedMap(new WeakHashMap<>());
+    @NonNull private final PlayerMap<PlayerMap<String>> lastValues = new PlayerMap<>();
 
     /**
      * Constructs new instance with given parameters
@@ -55,9 +52,7 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     public void updateValue(@NonNull me.neznamy.tab.api.TabPlayer viewer, @NonNull me.neznamy.tab.api.TabPlayer target, @Nullable Object value) {
         if (hasValueChanged((TabPlayer) viewer, (TabPlayer) target, value)) {
             for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier)) {
-                long startTime = System.nanoTime();
-                r.refresh((TabPlayer) target, true);
-                TAB.getInstance().getCPUManager().addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
+                TAB.getInstance().getCPUManager().refreshAndMeasure(r, (TabPlayer) target, true);
             }
         }
     }
@@ -76,7 +71,7 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     public boolean hasValueChanged(@NonNull TabPlayer viewer, @NonNull TabPlayer target, @Nullable Object value) {
         if (value == null) return false; //bridge placeholders, they are updated using updateValue method
         String newValue = replacements.findReplacement(String.valueOf(value));
-        Map<me.neznamy.tab.api.TabPlayer, String> viewerMap = lastValues.computeIfAbsent(viewer, v -> Collections.synchronizedMap(new WeakHashMap<>()));
+        PlayerMap<String> viewerMap = lastValues.computeIfAbsent(viewer, v -> new PlayerMap<>());
         if (!viewerMap.getOrDefault(target, identifier).equals(newValue)) {
             viewerMap.put(target, newValue);
             updateParents(viewer);
@@ -92,20 +87,16 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
         for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
             Object value = request(viewer, target);
             String s = replacements.findReplacement(String.valueOf(value));
-            lastValues.computeIfAbsent(viewer, v -> Collections.synchronizedMap(new WeakHashMap<>())).put(target, s);
+            lastValues.computeIfAbsent(viewer, v -> new PlayerMap<>()).put(target, s);
             if (!target.isLoaded()) return; // Updated on join
             for (Refreshable f : usage) {
-                long time = System.nanoTime();
-                f.refresh(target, true);
-                TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), f.getRefreshDisplayName(), System.nanoTime()-time);
+                TAB.getInstance().getCPUManager().refreshAndMeasure(f, target, true);
             }
             updateParents(target);
         }
         if (!viewer.isLoaded()) return; // Updated on join
         for (Refreshable f : usage) {
-            long time = System.nanoTime();
-            f.refresh(viewer, true);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), f.getRefreshDisplayName(), System.nanoTime()-time);
+            TAB.getInstance().getCPUManager().refreshAndMeasure(f, viewer, true);
         }
         updateParents(viewer);
     }
@@ -123,13 +114,27 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     public String getLastValue(@NonNull TabPlayer viewer, @NonNull TabPlayer target) {
         return setPlaceholders(
                 EnumChatFormat.color(
-                        lastValues.computeIfAbsent(viewer, v -> Collections.synchronizedMap(new WeakHashMap<>()))
+                        lastValues.computeIfAbsent(viewer, v -> new PlayerMap<>())
                                 .computeIfAbsent(target, t -> retrieveValue(viewer, target))
                 ),
                 target
         );
     }
 
+    /**
+     * Removes all last known values where specified player is viewer or target.
+     *
+     * @param   player
+     *          Player who left
+     */
+    public void removeLastValues(@NonNull TabPlayer player) {
+        lastValues.remove(player);
+        for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+            PlayerMap<String> viewerMap = lastValues.get(viewer);
+            if (viewerMap != null) viewerMap.remove(player);
+        }
+    }
+
     @NotNull
     private String retrieveValue(@NotNull TabPlayer viewer, @NotNull TabPlayer target) {
         Object output = request(viewer, target);
@@ -53,10 +53,8 @@ public class ServerPlaceholderImpl extends TabPlaceholder implements ServerPlace
         if (hasValueChanged(value)) {
             for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier)) {
                 for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                    if (!all.isLoaded()) return; // Updated on join
-                    long startTime = System.nanoTime();
-                    r.refresh(all, false);
-                    TAB.getInstance().getCPUManager().addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
+                    if (!all.isLoaded()) continue; // Updated on join
+                    TAB.getInstance().getCPUManager().refreshAndMeasure(r, all, false);
                 }
             }
         }
@@ -69,7 +67,7 @@ public class ServerPlaceholderImpl extends TabPlaceholder implements ServerPlace
             lastValue = newValue;
             for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
                 updateParents(player);
-                TAB.getInstance().getPlaceholderManager().getTabExpansion().setPlaceholderValue(player, identifier, newValue);
+                TAB.getInstance().getPlaceholderManager().getTabExpansion().setPlaceholderValue(player, this, newValue);
             }
             return true;
         }
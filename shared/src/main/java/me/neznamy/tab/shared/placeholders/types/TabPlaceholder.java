@@ -1,9 +1,11 @@
 package me.neznamy.tab.shared.placeholders.types;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.placeholders.PlaceholderReplacementPattern;
+import me.neznamy.tab.shared.placeholders.expansion.PlayerExpansionValues;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.api.placeholder.Placeholder;
 import me.neznamy.tab.shared.TAB;
@@ -43,6 +45,10 @@ public abstract class TabPlaceholder implements Placeholder {
      */
     protected final List<String> parents = new ArrayList<>();
 
+    /** Slot of this placeholder in expansion values, resolved on first use */
+    @Getter(AccessLevel.NONE)
+    private int expansionSlot = -1;
+
     /**
      * Constructs new instance with given parameters and loads placeholder output replacements
      *
@@ -163,6 +169,19 @@ public abstract class TabPlaceholder implements Placeholder {
         }
     }
 
+    /**
+     * Returns slot of this placeholder's {@code placeholder_<identifier>} value
+     * in expansion values. The slot is only looked up on first call.
+     *
+     * @return  Slot of this placeholder in expansion values
+     */
+    public int getExpansionSlot() {
+        if (expansionSlot == -1) {
+            expansionSlot = PlayerExpansionValues.getSlot("placeholder_" + identifier.substring(1, identifier.length()-1));
+        }
+        return expansionSlot;
+    }
+
     /**
      * Updates the placeholder with force mark for requested player
      *
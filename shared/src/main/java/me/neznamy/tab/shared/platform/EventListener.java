@@ -36,7 +36,7 @@ public interface EventListener<T> {
     default void quit(@NotNull UUID player) {
         if (TAB.getInstance().isPluginDisabled()) return;
         TAB.getInstance().getCPUManager().runTask(() ->
-                TAB.getInstance().getFeatureManager().onQuit(TAB.getInstance().getPlayer(player)));
+                TAB.getInstance().getFeatureManager().onQuit(player));
     }
 
     /**
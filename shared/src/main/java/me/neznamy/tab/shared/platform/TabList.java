@@ -6,6 +6,7 @@ import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.chat.TabComponent;
 import me.neznamy.tab.shared.features.redis.RedisPlayer;
 import me.neznamy.tab.shared.features.redis.RedisSupport;
+import me.neznamy.tab.shared.util.PlayerMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,7 +34,7 @@ public abstract class TabList<P extends TabPlayer, C> {
     protected boolean antiOverride;
 
     /** Expected names based on configuration, saving to restore them if another plugin overrides them */
-    private final Map<TabPlayer, C> expectedDisplayNames = Collections.synchronizedMap(new WeakHashMap<>());
+    private final PlayerMap<C> expectedDisplayNames = new PlayerMap<>();
 
     private final RedisSupport redisSupport = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.REDIS_BUNGEE);
 
@@ -188,6 +189,16 @@ public abstract class TabList<P extends TabPlayer, C> {
         return expectedDisplayNames.get(player);
     }
 
+    /**
+     * Forgets expected display name of specified player. Called when the player quits.
+     *
+     * @param   player
+     *          Player who quit
+     */
+    public void removeExpectedDisplayName(@NonNull TabPlayer player) {
+        expectedDisplayNames.remove(player);
+    }
+
     /**
      * Converts TAB component into platform's component.
      *
@@ -49,6 +49,13 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
     /** Player's tablist UUID */
     @Getter private final UUID tablistId;
 
+    /**
+     * Dense index of this player, unique among online players and reused by
+     * another player after this one quits. Used as an index for player-keyed
+     * data structures, such as {@link me.neznamy.tab.shared.util.PlayerSet}.
+     */
+    @Getter private final int slot = TAB.getInstance().allocatePlayerSlot();
+
     /**
      * World the player is currently in, {@code "N/A"} if TAB is
      * installed on proxy and bukkit bridge is not installed
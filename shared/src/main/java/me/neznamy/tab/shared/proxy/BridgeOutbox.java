@@ -0,0 +1,127 @@
+package me.neznamy.tab.shared.proxy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plugin messages waiting to be sent to the bridge of a player. Messages are collected
+ * until the current processing cycle finishes. Messages overridden by a newer message
+ * with the same key are dropped. If enabled, all messages are then framed into a single
+ * plugin message.
+ */
+@RequiredArgsConstructor
+public class BridgeOutbox {
+
+    /** Maximum size of a batch, plugin messages sent to server are limited to 32767 bytes */
+    private static final int MAX_BATCH_SIZE = 32000;
+
+    /** Length of batch header, which is "Batch" written as UTF followed by message count */
+    private static final int HEADER_SIZE = 11;
+
+    /** Player to send messages to */
+    @NotNull private final ProxyTabPlayer player;
+
+    /** Whether messages should be framed into a single plugin message or sent one by one */
+    private final boolean batching;
+
+    /** Messages waiting to be sent in order, keyed by their coalescing key or a unique object */
+    private final Map<Object, OutgoingMessage> pending = new LinkedHashMap<>();
+
+    /** Buffer reused for encoding batches */
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+    /** Flag tracking whether flush task is already scheduled */
+    private boolean flushScheduled;
+
+    /**
+     * Adds message to the outbox and schedules flush if not scheduled yet.
+     *
+     * @param   message
+     *          Message to send
+     */
+    public synchronized void add(@NotNull OutgoingMessage message) {
+        Object key = message.getCoalescingKey();
+        if (key == null) {
+            key = new Object();
+        } else {
+            // Remove instead of replacing to move the message to the end and keep order with other messages
+            pending.remove(key);
+        }
+        pending.put(key, message);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            TAB.getInstance().getCPUManager().runTask(this::flush);
+        }
+    }
+
+    /**
+     * Sends all pending messages.
+     */
+    public void flush() {
+        List<OutgoingMessage> messages;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            messages = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        if (!batching || messages.size() == 1) {
+            for (OutgoingMessage message : messages) {
+                player.sendPluginMessage(message.write().toByteArray());
+            }
+            return;
+        }
+        sendBatches(messages);
+    }
+
+    @SneakyThrows
+    private synchronized void sendBatches(@NotNull List<OutgoingMessage> messages) {
+        DataOutputStream out = new DataOutputStream(buffer);
+        int count = 0;
+        startBatch(out);
+        for (OutgoingMessage message : messages) {
+            byte[] bytes = message.write().toByteArray();
+            if (buffer.size() + 4 + bytes.length > MAX_BATCH_SIZE) {
+                if (count > 0) {
+                    sendBatch(count);
+                    count = 0;
+                    startBatch(out);
+                }
+                if (HEADER_SIZE + 4 + bytes.length > MAX_BATCH_SIZE) {
+                    player.sendPluginMessage(bytes);
+                    continue;
+                }
+            }
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            count++;
+        }
+        if (count > 0) sendBatch(count);
+    }
+
+    @SneakyThrows
+    private void startBatch(@NotNull DataOutputStream out) {
+        buffer.reset();
+        out.writeUTF("Batch");
+        out.writeInt(0); // Message count, written when sending
+    }
+
+    private void sendBatch(int count) {
+        byte[] batch = buffer.toByteArray();
+        batch[HEADER_SIZE-4] = (byte) (count >>> 24);
+        batch[HEADER_SIZE-3] = (byte) (count >>> 16);
+        batch[HEADER_SIZE-2] = (byte) (count >>> 8);
+        batch[HEADER_SIZE-1] = (byte) count;
+        player.sendPluginMessage(batch);
+    }
+}
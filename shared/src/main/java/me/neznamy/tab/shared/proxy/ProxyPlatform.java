@@ -12,6 +12,7 @@ import me.neznamy.tab.shared.features.types.TabFeature;
 import me.neznamy.tab.api.placeholder.Placeholder;
 import me.neznamy.tab.shared.platform.Platform;
 import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.features.OnlineCounter;
 import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
 import me.neznamy.tab.shared.features.nametags.NameTag;
 import me.neznamy.tab.shared.placeholders.UniversalPlaceholderRegistry;
@@ -47,6 +48,8 @@ public abstract class ProxyPlatform implements Platform {
         registeredMessages.put("PlaceholderError", PlaceholderError::new);
         registeredMessages.put("UpdateGameMode", UpdateGameMode::new);
         registeredMessages.put("Permission", HasPermission::new);
+        registeredMessages.put("InvalidatePermissions", InvalidatePermissions::new);
+        registeredMessages.put("NameTagXState", NameTagXState::new);
         registeredMessages.put("Invisible", Invisible::new);
         registeredMessages.put("Disguised", Disguised::new);
         registeredMessages.put("Boat", OnBoat::new);
@@ -73,13 +76,8 @@ public abstract class ProxyPlatform implements Platform {
         //internal dynamic %online_<server>% placeholder
         if (identifier.startsWith("%online_")) {
             String server = identifier.substring(8, identifier.length()-1);
-            pl.registerServerPlaceholder(identifier, 1000, () -> {
-                int count = 0;
-                for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                    if (player.getServer().equals(server) && !player.isVanished()) count++;
-                }
-                return count;
-            });
+            OnlineCounter counter = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.ONLINE_COUNTER);
+            counter.registerServerPlaceholder(identifier, server);
             return;
         }
         Placeholder placeholder;
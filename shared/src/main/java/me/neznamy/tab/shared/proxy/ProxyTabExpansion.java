@@ -1,21 +1,51 @@
 package me.neznamy.tab.shared.proxy;
 
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.placeholders.expansion.PlayerExpansionValues;
 import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.proxy.message.outgoing.ExpansionPlaceholder;
+import me.neznamy.tab.shared.proxy.message.outgoing.ExpansionValues;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Expansion handler for proxies via bridge.
+ * Expansion handler for proxies via bridge. Changed values are collected
+ * and sent to the bridge together once the current task finishes. With
+ * deltas enabled, they are sent as a single versioned message per player,
+ * otherwise as a message per value.
  */
 public class ProxyTabExpansion implements TabExpansion {
 
+    /** Whether values are sent as a single delta per player or a message per value */
+    private final boolean deltas = TAB.getInstance().getConfiguration().isBridgeExpansionDeltas();
+
     @Override
-    public void setValue(@NotNull TabPlayer player, @NotNull String key, @NotNull String value) {
-        player.expansionValues.values.put(key, value);
-        ((ProxyTabPlayer)player).sendPluginMessage(new ExpansionPlaceholder(key, value));
+    public void setValue(@NotNull TabPlayer player, int slot, @NotNull String value) {
+        if (!player.expansionValues.setTracked(slot, value)) return;
+        TAB.getInstance().getCPUManager().runTask(() -> {
+            if (!player.isOnline()) return;
+            sendChanges((ProxyTabPlayer) player);
+        });
+    }
+
+    private void sendChanges(@NotNull ProxyTabPlayer player) {
+        PlayerExpansionValues values = player.expansionValues;
+        if (!deltas) {
+            values.flush((key, value) -> player.sendPluginMessage(new ExpansionPlaceholder(key, value)));
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        values.flush((key, value) -> {
+            keys.add(key);
+            changed.add(value);
+        });
+        if (keys.isEmpty()) return;
+        player.setExpansionVersion(player.getExpansionVersion() + 1);
+        player.sendPluginMessage(new ExpansionValues(player.getExpansionVersion(), false, keys, changed));
     }
 
     @Override
@@ -30,8 +60,17 @@ public class ProxyTabExpansion implements TabExpansion {
      *          Player to resend all values to
      */
     public void resendAllValues(@NotNull ProxyTabPlayer player) {
-        for (Map.Entry<String, String> entry : player.expansionValues.values.entrySet()) {
-            player.sendPluginMessage(new ExpansionPlaceholder(entry.getKey(), entry.getValue()));
+        if (!deltas) {
+            player.expansionValues.forEach((key, value) -> player.sendPluginMessage(new ExpansionPlaceholder(key, value)));
+            return;
         }
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        player.expansionValues.forEach((key, value) -> {
+            keys.add(key);
+            values.add(value);
+        });
+        player.setExpansionVersion(player.getExpansionVersion() + 1);
+        player.sendPluginMessage(new ExpansionValues(player.getExpansionVersion(), true, keys, values));
     }
 }
@@ -47,6 +47,18 @@ public abstract class ProxyTabPlayer extends TabPlayer {
     /** Map of player's requested permissions */
     private final Map<String, Boolean> permissions = new HashMap<>();
 
+    /** Time of last permission request sent to bridge for each permission */
+    private final Map<String, Long> permissionRequests = new HashMap<>();
+
+    /** Whether bridge on current server notifies about permission changes, allowing longer caching */
+    private boolean permissionInvalidation;
+
+    /** Plugin messages waiting to be sent to bridge */
+    private final BridgeOutbox bridgeOutbox = new BridgeOutbox(this, TAB.getInstance().getConfiguration().isBridgeMessageBatching());
+
+    /** Version of last expansion values delta sent to bridge */
+    private int expansionVersion;
+
     /**
      * Constructs new instance with given parameters and sends a message
      * to bridge about this player joining with join data
@@ -76,6 +88,8 @@ public abstract class ProxyTabPlayer extends TabPlayer {
      */
     public void sendJoinPluginMessage() {
         bridgeConnected = false; // Reset on server switch
+        permissionRequests.clear();
+        permissionInvalidation = false;
 
         PlayerJoin.UnlimitedNametagSettings settings = null;
         NameTagX nametagx = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.UNLIMITED_NAME_TAGS);
@@ -140,19 +154,47 @@ public abstract class ProxyTabPlayer extends TabPlayer {
     @Override
     public boolean hasPermission(@NotNull String permission) {
         if (TAB.getInstance().getConfiguration().isBukkitPermissions()) {
-            sendPluginMessage(new PermissionRequest(permission));
-            return permissions != null && permissions.getOrDefault(permission, false);
+            requestPermission(permission);
+            return permissions.getOrDefault(permission, false);
         }
         return hasPermission0(permission);
     }
 
     /**
-     * Sends plugin message to the player.
+     * Requests permission value from bridge unless it was already requested recently.
+     * If bridge notifies about permission changes, values are kept for much longer.
+     * Otherwise, they are requested again every half of permission refresh interval
+     * to avoid sending duplicate requests from features refreshing at the same time.
+     *
+     * @param   permission
+     *          Permission to request
+     */
+    private void requestPermission(@NotNull String permission) {
+        long time = System.currentTimeMillis();
+        long ttl = permissionInvalidation ? TAB.getInstance().getConfiguration().getBridgePermissionCacheTtl() :
+                TAB.getInstance().getConfiguration().getPermissionRefreshInterval() / 2;
+        Long lastRequest = permissionRequests.get(permission);
+        if (lastRequest != null && time - lastRequest < ttl) return;
+        permissionRequests.put(permission, time);
+        sendPluginMessage(new PermissionRequest(permission));
+    }
+
+    /**
+     * Marks all cached permission values as outdated, so they are requested from bridge
+     * again on next check. Called when bridge notifies about permission change.
+     */
+    public void invalidatePermissions() {
+        permissionInvalidation = true;
+        permissionRequests.clear();
+    }
+
+    /**
+     * Queues plugin message to be sent to the player at the end of current processing cycle.
      *
      * @param   message
      *          Plugin message to send
      */
     public void sendPluginMessage(@NotNull OutgoingMessage message) {
-        sendPluginMessage(message.write().toByteArray());
+        bridgeOutbox.add(message);
     }
 }
\ No newline at end of file
@@ -1,22 +1,81 @@
 package me.neznamy.tab.shared.proxy.features.unlimitedtags;
 
+import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.nametags.unlimited.ArmorStandManager;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.nametags.unlimited.NameTagX;
 import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
-import me.neznamy.tab.shared.proxy.message.outgoing.nametags.Destroy;
-import me.neznamy.tab.shared.proxy.message.outgoing.nametags.SetText;
+import me.neznamy.tab.shared.proxy.message.outgoing.nametags.*;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
- * Armor stand manager for proxies.
+ * Armor stand manager for proxies. Changes of lines are collected into a bitmask
+ * and flushed once per processing cycle. If bridge supports line deltas, all changes
+ * and state flags are sent in a single {@link SetLines} message, otherwise each
+ * changed line is sent as {@link SetText}.
  */
 public class ProxyArmorStandManager implements ArmorStandManager {
 
-    private final NameTagX nameTagX;
+    /** Flag of armor stands being enabled */
+    public static final int ENABLED = 1;
+
+    /** Flag of owner previewing own armor stands */
+    public static final int PREVIEW = 2;
+
+    /** Flag of armor stands being paused */
+    public static final int PAUSED = 4;
+
+    /** Milliseconds to wait for bridge to report its state before sending everything again */
+    private static final int STATE_TIMEOUT = 3000;
+
     private final ProxyTabPlayer owner;
 
+    /** Defined lines, fixed for the lifetime of this manager */
+    private final String[] lines;
+
+    /** Texts of lines last queued for sending */
+    private final String[] texts;
+
+    /** Whether changes are sent as deltas or not */
+    private final boolean deltas;
+
+    /** Bitmask of lines changed since last flush */
+    private long dirtyLines;
+
+    /** Current state flags */
+    private int flags;
+
+    /** Flags included in last sent delta */
+    private int sentFlags = -1;
+
+    /**
+     * Version of last sent delta. Starts at a random epoch, so a recreated manager
+     * does not match the version bridge has stored from the previous one.
+     */
+    private int version = ThreadLocalRandom.current().nextInt();
+
+    /** Whether flush is already scheduled or not */
+    private boolean flushScheduled;
+
+    /** Whether deltas are held back until bridge reports its state after a switch */
+    private boolean awaitingState;
+
+    /** Counter of {@link #awaitState()} calls to ignore timeouts of previous ones */
+    private int stateRequest;
+
+    /** State version reported by bridge before {@link #awaitState()} was called, {@code null} if none */
+    private Integer earlyState;
+
+    /** Time when {@link #earlyState} was received, older reports are not used */
+    private long earlyStateTime;
+
+    /** Whether armor stands were destroyed and nothing should be sent anymore */
+    private boolean destroyed;
+
     /**
      * Constructs new instance and loads lines.
      *
@@ -26,29 +85,146 @@ public class ProxyArmorStandManager implements ArmorStandManager {
      *          Owner of the armor stand manager
      */
     public ProxyArmorStandManager(@NotNull NameTagX nameTagX, @NotNull TabPlayer owner) {
-        this.nameTagX = nameTagX;
         this.owner = (ProxyTabPlayer) owner;
         owner.setProperty(nameTagX, TabConstants.Property.NAMETAG, owner.getProperty(TabConstants.Property.TAGPREFIX).getCurrentRawValue()
                 + owner.getProperty(TabConstants.Property.CUSTOMTAGNAME).getCurrentRawValue()
                 + owner.getProperty(TabConstants.Property.TAGSUFFIX).getCurrentRawValue());
-        for (String line : nameTagX.getDefinedLines()) {
-            String text = owner.getProperty(line).get();
-            this.owner.sendPluginMessage(new SetText(line, text));
+        lines = nameTagX.getDefinedLines().toArray(new String[0]);
+        texts = new String[lines.length];
+        deltas = TAB.getInstance().getConfiguration().isBridgeNameTagLineDeltas() && lines.length <= Long.SIZE;
+        if (!owner.disabledNametags.get() && !owner.disabledUnlimitedNametags.get()) flags = ENABLED;
+        for (int i=0; i<lines.length; i++) {
+            texts[i] = owner.getProperty(lines[i]).get();
         }
+        markAll();
+    }
+
+    /**
+     * Returns {@code true} if changes are sent as deltas, {@code false} if not.
+     *
+     * @return  {@code true} if changes are sent as deltas, {@code false} if not
+     */
+    public boolean isSendingDeltas() {
+        return deltas;
     }
 
     @Override
-    public void destroy() {
+    public synchronized void destroy() {
+        destroyed = true;
+        dirtyLines = 0;
         owner.sendPluginMessage(new Destroy());
     }
 
     @Override
-    public void refresh(boolean force) {
-        for (String line : nameTagX.getDefinedLines()) {
-            if (owner.getProperty(line).update() || force) {
-                String text = owner.getProperty(line).get();
-                owner.sendPluginMessage(new SetText(line, text));
+    public synchronized void refresh(boolean force) {
+        for (int i=0; i<lines.length; i++) {
+            owner.getProperty(lines[i]).update();
+            String text = owner.getProperty(lines[i]).get();
+            if (!text.equals(texts[i]) || force && !deltas) {
+                texts[i] = text;
+                dirtyLines |= 1L << i;
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Sets state flag to given value. Only used when sending deltas.
+     *
+     * @param   flag
+     *          Flag to set
+     * @param   value
+     *          New value of the flag
+     */
+    public synchronized void setFlag(int flag, boolean value) {
+        flags = value ? flags | flag : flags & ~flag;
+        scheduleFlush();
+    }
+
+    /**
+     * Marks all lines as changed and schedules a flush. Used when the
+     * server is known to have lost state of the lines.
+     */
+    public synchronized void markAll() {
+        dirtyLines = lines.length == Long.SIZE ? -1L : (1L << lines.length) - 1;
+        sentFlags = -1;
+        scheduleFlush();
+    }
+
+    /**
+     * Holds back deltas until bridge on the new server reports which state it has.
+     * If the report already arrived, it is processed immediately. If it does not arrive
+     * in {@link #STATE_TIMEOUT} milliseconds, everything is sent again.
+     * Only used when sending deltas.
+     */
+    public synchronized void awaitState() {
+        if (earlyState != null && System.currentTimeMillis() - earlyStateTime < STATE_TIMEOUT) {
+            int bridgeVersion = earlyState;
+            earlyState = null;
+            applyState(bridgeVersion);
+            return;
+        }
+        earlyState = null;
+        awaitingState = true;
+        int request = ++stateRequest;
+        TAB.getInstance().getCPUManager().runTaskLater(STATE_TIMEOUT, TabConstants.Feature.UNLIMITED_NAME_TAGS,
+                TabConstants.CpuUsageCategory.SERVER_SWITCH, () -> onStateTimeout(request));
+    }
+
+    /**
+     * Processes state version reported by bridge. If it matches last sent version,
+     * bridge still has all lines and only changes since then are sent. Otherwise,
+     * everything is sent again. If the report arrives before the switch was processed,
+     * it is saved for {@link #awaitState()} called shortly after.
+     *
+     * @param   bridgeVersion
+     *          Version of last delta bridge has applied
+     */
+    public synchronized void onStateConfirmed(int bridgeVersion) {
+        if (!deltas) return;
+        if (!awaitingState) {
+            earlyState = bridgeVersion;
+            earlyStateTime = System.currentTimeMillis();
+            return;
+        }
+        applyState(bridgeVersion);
+    }
+
+    private void applyState(int bridgeVersion) {
+        awaitingState = false;
+        if (bridgeVersion != version) {
+            markAll();
+        } else {
+            scheduleFlush();
+        }
+    }
+
+    private synchronized void onStateTimeout(int request) {
+        if (!awaitingState || request != stateRequest) return;
+        awaitingState = false;
+        markAll();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled || destroyed || awaitingState) return;
+        if (dirtyLines == 0 && (!deltas || flags == sentFlags)) return;
+        flushScheduled = true;
+        TAB.getInstance().getCPUManager().runTask(this::flush);
+    }
+
+    private synchronized void flush() {
+        flushScheduled = false;
+        if (destroyed || awaitingState || !owner.isOnline()) return;
+        if (deltas) {
+            if (dirtyLines == 0 && flags == sentFlags) return;
+            owner.sendPluginMessage(new SetLines(++version, flags, dirtyLines, lines, Arrays.copyOf(texts, texts.length)));
+            sentFlags = flags;
+        } else {
+            for (long dirty = dirtyLines; dirty != 0; dirty &= dirty - 1) {
+                int index = Long.numberOfTrailingZeros(dirty);
+                owner.sendPluginMessage(new SetText(lines[index], texts[index]));
             }
         }
+        dirtyLines = 0;
     }
 }
@@ -1,8 +1,10 @@
 package me.neznamy.tab.shared.proxy.features.unlimitedtags;
 
+import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.nametags.unlimited.NameTagX;
 import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
+import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
 import me.neznamy.tab.shared.proxy.message.outgoing.nametags.*;
 import org.jetbrains.annotations.NotNull;
 
@@ -18,43 +20,75 @@ public class ProxyNameTagX extends NameTagX {
         super(ProxyArmorStandManager::new);
     }
 
+    /**
+     * Sets state flag of player's armor stands. If armor stand manager sends deltas, the flag
+     * is included in the next delta, otherwise given message is sent. If armor stand manager
+     * was not created yet and deltas are enabled, nothing is done, since it loads
+     * current state on creation.
+     *
+     * @param   player
+     *          Player to set flag of
+     * @param   flag
+     *          Flag to set
+     * @param   value
+     *          New value of the flag
+     * @param   message
+     *          Message to send if deltas are not used
+     */
+    private void setFlag(@NotNull TabPlayer player, int flag, boolean value, @NotNull OutgoingMessage message) {
+        ProxyArmorStandManager asm = (ProxyArmorStandManager) player.unlimitedNametagData.armorStandManager;
+        if (asm != null && asm.isSendingDeltas()) {
+            asm.setFlag(flag, value);
+        } else if (asm != null || !TAB.getInstance().getConfiguration().isBridgeNameTagLineDeltas()) {
+            ((ProxyTabPlayer)player).sendPluginMessage(message);
+        }
+    }
+
     @Override
     public void onServerChange(@NotNull TabPlayer p, @NotNull String from, @NotNull String to) {
         super.onServerChange(p, from, to);
+        ProxyArmorStandManager asm = (ProxyArmorStandManager) p.unlimitedNametagData.armorStandManager;
+        if (asm == null) return; // Loads all lines on creation
+        if (asm.isSendingDeltas()) {
+            asm.awaitState();
+            return;
+        }
         if (p.unlimitedNametagData.previewing) {
             ((ProxyTabPlayer)p).sendPluginMessage(new Preview(true));
         }
-        for (String line : getDefinedLines()) {
-            String text = p.getProperty(line).get();
-            ((ProxyTabPlayer)p).sendPluginMessage(new SetText(line, text));
-        }
+        asm.markAll();
     }
 
     @Override
     public void onWorldChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
         super.onWorldChange(changed, from, to);
-        for (String line : getDefinedLines()) {
-            String text = changed.getProperty(line).get();
-            ((ProxyTabPlayer)changed).sendPluginMessage(new SetText(line, text));
+        ProxyArmorStandManager asm = (ProxyArmorStandManager) changed.unlimitedNametagData.armorStandManager;
+        if (asm == null) return; // Loads all lines on creation
+        if (asm.isSendingDeltas()) {
+            asm.awaitState();
+            return;
         }
+        asm.markAll();
     }
 
     @Override
     public void onUnlimitedDisableConditionChange(TabPlayer p, boolean disabledNow) {
         super.onUnlimitedDisableConditionChange(p, disabledNow);
-        ((ProxyTabPlayer)p).sendPluginMessage(new SetEnabled(!disabledNow && !p.disabledNametags.get()));
+        boolean enabled = !disabledNow && !p.disabledNametags.get();
+        setFlag(p, ProxyArmorStandManager.ENABLED, enabled, new SetEnabled(enabled));
     }
 
     @Override
     public void addDisabledPlayer(@NotNull TabPlayer player) {
         super.addDisabledPlayer(player);
-        ((ProxyTabPlayer)player).sendPluginMessage(new SetEnabled(false));
+        setFlag(player, ProxyArmorStandManager.ENABLED, false, new SetEnabled(false));
     }
 
     @Override
     public void onDisableConditionChange(TabPlayer p, boolean disabledNow) {
         super.onDisableConditionChange(p, disabledNow);
-        ((ProxyTabPlayer)p).sendPluginMessage(new SetEnabled(!disabledNow && !p.disabledUnlimitedNametags.get()));
+        boolean enabled = !disabledNow && !p.disabledUnlimitedNametags.get();
+        setFlag(p, ProxyArmorStandManager.ENABLED, enabled, new SetEnabled(enabled));
     }
 
     @Override
@@ -64,17 +98,17 @@ public class ProxyNameTagX extends NameTagX {
 
     @Override
     public void setNameTagPreview(@NotNull TabPlayer player, boolean status) {
-        ((ProxyTabPlayer)player).sendPluginMessage(new Preview(status));
+        setFlag(player, ProxyArmorStandManager.PREVIEW, status, new Preview(status));
     }
 
     @Override
     public void resumeArmorStands(@NotNull TabPlayer player) {
-        ((ProxyTabPlayer)player).sendPluginMessage(new Resume());
+        setFlag(player, ProxyArmorStandManager.PAUSED, false, new Resume());
     }
 
     @Override
     public void pauseArmorStands(@NotNull TabPlayer player) {
-        ((ProxyTabPlayer)player).sendPluginMessage(new Pause());
+        setFlag(player, ProxyArmorStandManager.PAUSED, true, new Pause());
     }
 
     @Override
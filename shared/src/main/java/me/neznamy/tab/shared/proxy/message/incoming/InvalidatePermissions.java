@@ -0,0 +1,18 @@
+package me.neznamy.tab.shared.proxy.message.incoming;
+
+import com.google.common.io.ByteArrayDataInput;
+import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+public class InvalidatePermissions implements IncomingMessage {
+
+    @Override
+    public void read(@NotNull ByteArrayDataInput in) {
+        // No data
+    }
+
+    @Override
+    public void process(@NotNull ProxyTabPlayer player) {
+        player.invalidatePermissions();
+    }
+}
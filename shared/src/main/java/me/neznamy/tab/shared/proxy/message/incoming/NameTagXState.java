@@ -0,0 +1,23 @@
+package me.neznamy.tab.shared.proxy.message.incoming;
+
+import com.google.common.io.ByteArrayDataInput;
+import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
+import me.neznamy.tab.shared.proxy.features.unlimitedtags.ProxyArmorStandManager;
+import org.jetbrains.annotations.NotNull;
+
+public class NameTagXState implements IncomingMessage {
+
+    private int version;
+
+    @Override
+    public void read(@NotNull ByteArrayDataInput in) {
+        version = in.readInt();
+    }
+
+    @Override
+    public void process(@NotNull ProxyTabPlayer player) {
+        if (player.unlimitedNametagData.armorStandManager instanceof ProxyArmorStandManager) {
+            ((ProxyArmorStandManager) player.unlimitedNametagData.armorStandManager).onStateConfirmed(version);
+        }
+    }
+}
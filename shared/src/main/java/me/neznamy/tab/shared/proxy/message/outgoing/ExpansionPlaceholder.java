@@ -5,6 +5,8 @@ import com.google.common.io.ByteStreams;
 import lombok.AllArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+
 @AllArgsConstructor
 @SuppressWarnings("UnstableApiUsage")
 public class ExpansionPlaceholder implements OutgoingMessage {
@@ -21,4 +23,10 @@ public class ExpansionPlaceholder implements OutgoingMessage {
         out.writeUTF(value);
         return out;
     }
+
+    @Override
+    @NotNull
+    public Object getCoalescingKey() {
+        return Arrays.asList("Expansion", placeholder);
+    }
 }
@@ -0,0 +1,38 @@
+package me.neznamy.tab.shared.proxy.message.outgoing;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import lombok.AllArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Delta of expansion values of a player. Contains all values changed since
+ * previous delta, or all values if {@code full} is set. Never coalesced,
+ * since each delta builds on the previous one.
+ */
+@AllArgsConstructor
+@SuppressWarnings("UnstableApiUsage")
+public class ExpansionValues implements OutgoingMessage {
+
+    private int version;
+    private boolean full;
+    private List<String> keys;
+    private List<String> values;
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("ExpansionValues");
+        out.writeInt(version);
+        out.writeBoolean(full);
+        out.writeInt(keys.size());
+        for (int i=0; i<keys.size(); i++) {
+            out.writeUTF(keys.get(i));
+            out.writeUTF(values.get(i));
+        }
+        return out;
+    }
+}
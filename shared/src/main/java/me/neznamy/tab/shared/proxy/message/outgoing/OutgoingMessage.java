@@ -2,9 +2,22 @@ package me.neznamy.tab.shared.proxy.message.outgoing;
 
 import com.google.common.io.ByteArrayDataOutput;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public interface OutgoingMessage {
 
     @NotNull
     ByteArrayDataOutput write();
+
+    /**
+     * Returns key identifying the value this message sets. If another message with the
+     * same key is sent before this one is flushed, this message is dropped and only the
+     * newer one is sent. Returns {@code null} if this message should always be sent.
+     *
+     * @return  Key of the value this message sets or {@code null} if it cannot be replaced
+     */
+    @Nullable
+    default Object getCoalescingKey() {
+        return null;
+    }
 }
@@ -5,6 +5,9 @@ import com.google.common.io.ByteStreams;
 import lombok.AllArgsConstructor;
 import me.neznamy.tab.shared.platform.Scoreboard;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
 
 @AllArgsConstructor
 @SuppressWarnings("UnstableApiUsage")
@@ -36,4 +39,10 @@ public class SetObjective implements OutgoingMessage {
         }
         return out;
     }
+
+    @Override
+    @Nullable
+    public Object getCoalescingKey() {
+        return action == Scoreboard.ObjectiveAction.UPDATE ? Arrays.asList("Objective", objectiveName) : null;
+    }
 }
@@ -5,6 +5,9 @@ import com.google.common.io.ByteStreams;
 import lombok.AllArgsConstructor;
 import me.neznamy.tab.shared.platform.Scoreboard;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
 
 @AllArgsConstructor
 @SuppressWarnings("UnstableApiUsage")
@@ -40,4 +43,10 @@ public class SetScore implements OutgoingMessage {
         }
         return out;
     }
+
+    @Override
+    @Nullable
+    public Object getCoalescingKey() {
+        return action == Scoreboard.ScoreAction.CHANGE ? Arrays.asList("Score", objective, scoreHolder) : null;
+    }
 }
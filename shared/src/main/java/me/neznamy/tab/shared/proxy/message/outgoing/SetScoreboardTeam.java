@@ -5,7 +5,9 @@ import com.google.common.io.ByteStreams;
 import lombok.AllArgsConstructor;
 import me.neznamy.tab.shared.platform.Scoreboard;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 @AllArgsConstructor
@@ -50,4 +52,10 @@ public class SetScoreboardTeam implements OutgoingMessage {
         }
         return out;
     }
+
+    @Override
+    @Nullable
+    public Object getCoalescingKey() {
+        return action == Scoreboard.TeamAction.UPDATE ? Arrays.asList("Team", name) : null;
+    }
 }
@@ -21,4 +21,10 @@ public class SetEnabled implements OutgoingMessage {
         out.writeBoolean(enabled);
         return out;
     }
-}
\ No newline at end of file
+
+    @Override
+    @NotNull
+    public Object getCoalescingKey() {
+        return "SetEnabled";
+    }
+}
@@ -0,0 +1,40 @@
+package me.neznamy.tab.shared.proxy.message.outgoing.nametags;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import lombok.AllArgsConstructor;
+import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Delta of unlimited nametag state of a player. Contains all state flags
+ * and texts of lines changed since previous delta, identified by a bitmask
+ * of line indexes. Never coalesced, since each delta builds on the previous one.
+ */
+@AllArgsConstructor
+@SuppressWarnings("UnstableApiUsage")
+public class SetLines implements OutgoingMessage {
+
+    private int version;
+    private int flags;
+    private long mask;
+    private String[] lines;
+    private String[] texts;
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("NameTagX");
+        out.writeUTF("SetLines");
+        out.writeInt(version);
+        out.writeByte(flags);
+        out.writeLong(mask);
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int index = Long.numberOfTrailingZeros(bits);
+            out.writeUTF(lines[index]);
+            out.writeUTF(texts[index]);
+        }
+        return out;
+    }
+}
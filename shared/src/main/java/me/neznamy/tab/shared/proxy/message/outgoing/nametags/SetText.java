@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+
 @AllArgsConstructor
 @SuppressWarnings("UnstableApiUsage")
 public class SetText implements OutgoingMessage {
@@ -23,4 +25,10 @@ public class SetText implements OutgoingMessage {
         out.writeUTF(text);
         return out;
     }
+
+    @Override
+    @NotNull
+    public Object getCoalescingKey() {
+        return Arrays.asList("SetText", line);
+    }
 }
@@ -6,13 +6,14 @@ import me.neznamy.tab.shared.ProtocolVersion;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 /**
  * Component cache to save resources when converting the same
- * values over and over.
+ * values over and over. Caches are shared by features running on
+ * different threads, so they are backed by concurrent maps.
  *
  * @param   <K>
  *          Source component
@@ -24,8 +25,8 @@ public class ComponentCache<K, V> {
 
     private final int cacheSize;
     private final BiFunction<K, ProtocolVersion, V> function;
-    private final Map<K, V> cacheModern = new HashMap<>();
-    private final Map<K, V> cacheLegacy = new HashMap<>();
+    private final Map<K, V> cacheModern = new ConcurrentHashMap<>();
+    private final Map<K, V> cacheLegacy = new ConcurrentHashMap<>();
 
     /**
      * Gets value from cache. If not present, it is created using given function, inserted
@@ -40,7 +41,12 @@ public class ComponentCache<K, V> {
     @SneakyThrows
     public @NotNull V get(@NotNull K key, @Nullable ProtocolVersion clientVersion) {
         Map<K, V> cache = clientVersion == null || clientVersion.supportsRGB() ? cacheModern : cacheLegacy;
+        V value = cache.get(key);
+        if (value != null) return value;
         if (cache.size() > cacheSize) cache.clear();
-        return cache.computeIfAbsent(key, k -> function.apply(k, clientVersion));
+        // Not using computeIfAbsent, because the function may use the same cache
+        value = function.apply(key, clientVersion);
+        if (value != null) cache.put(key, value);
+        return value;
     }
 }
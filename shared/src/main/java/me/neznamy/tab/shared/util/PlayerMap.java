@@ -0,0 +1,120 @@
+package me.neznamy.tab.shared.util;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Thread-safe map of per-player values backed by arrays indexed by {@link TabPlayer#getSlot()}.
+ * Keys are compared by identity, so values of players who left are never returned
+ * to a different player who got the same slot later. Values are expected to be
+ * removed explicitly when players quit.
+ *
+ * @param   <V>
+ *          Value type
+ */
+public class PlayerMap<V> {
+
+    /** Players by their slot */
+    private TabPlayer[] keys = new TabPlayer[16];
+
+    /** Values by slot of their player */
+    private Object[] values = new Object[16];
+
+    /**
+     * Returns value of specified player or {@code null} if not present.
+     *
+     * @param   player
+     *          Player to get value of
+     * @return  Value of player or {@code null} if not present
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized V get(@NonNull TabPlayer player) {
+        int slot = player.getSlot();
+        if (slot >= keys.length || keys[slot] != player) return null;
+        return (V) values[slot];
+    }
+
+    /**
+     * Returns value of specified player or given default value if not present.
+     *
+     * @param   player
+     *          Player to get value of
+     * @param   defaultValue
+     *          Value to return if player has no value
+     * @return  Value of player or default value if not present
+     */
+    public synchronized V getOrDefault(@NonNull TabPlayer player, V defaultValue) {
+        V value = get(player);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Returns {@code true} if specified player has a value, {@code false} if not.
+     *
+     * @param   player
+     *          Player to check
+     * @return  {@code true} if player has a value, {@code false} if not
+     */
+    public synchronized boolean containsKey(@NonNull TabPlayer player) {
+        int slot = player.getSlot();
+        return slot < keys.length && keys[slot] == player;
+    }
+
+    /**
+     * Sets value of specified player.
+     *
+     * @param   player
+     *          Player to set value of
+     * @param   value
+     *          Value to set
+     */
+    public synchronized void put(@NonNull TabPlayer player, @Nullable V value) {
+        int slot = player.getSlot();
+        if (slot >= keys.length) {
+            int length = Math.max(slot + 1, keys.length * 2);
+            keys = Arrays.copyOf(keys, length);
+            values = Arrays.copyOf(values, length);
+        }
+        keys[slot] = player;
+        values[slot] = value;
+    }
+
+    /**
+     * Returns value of specified player. If not present, it is computed using
+     * given function and saved. If the function returns {@code null}, nothing
+     * is saved and {@code null} is returned.
+     *
+     * @param   player
+     *          Player to get value of
+     * @param   function
+     *          Function for computing the value if not present
+     * @return  Value of player or {@code null} if not present and function returned {@code null}
+     */
+    @Nullable
+    public synchronized V computeIfAbsent(@NonNull TabPlayer player, @NonNull Function<TabPlayer, V> function) {
+        V value = get(player);
+        if (value == null) {
+            value = function.apply(player);
+            if (value != null) put(player, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes value of specified player.
+     *
+     * @param   player
+     *          Player to remove value of
+     */
+    public synchronized void remove(@NonNull TabPlayer player) {
+        if (!containsKey(player)) return;
+        int slot = player.getSlot();
+        keys[slot] = null;
+        values[slot] = null;
+    }
+}
@@ -0,0 +1,108 @@
+package me.neznamy.tab.shared.util;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Set of online players backed by an array indexed by {@link TabPlayer#getSlot()}.
+ * Membership checks are a single array lookup with identity comparison, which also
+ * makes entries of players who left and whose slot was reused by another player
+ * invisible. Players are expected to be removed explicitly when they quit.
+ * <p>
+ * This class is not thread-safe, same as the set it replaces.
+ */
+public class PlayerSet extends AbstractSet<TabPlayer> {
+
+    /** Players by their slot */
+    private TabPlayer[] players = new TabPlayer[16];
+
+    /** Slots currently occupied in {@link #players} */
+    private final BitSet occupied = new BitSet();
+
+    /** Amount of players in this set */
+    private int size;
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof TabPlayer)) return false;
+        int slot = ((TabPlayer) o).getSlot();
+        return slot < players.length && players[slot] == o;
+    }
+
+    @Override
+    public boolean add(@NonNull TabPlayer player) {
+        int slot = player.getSlot();
+        if (slot >= players.length) players = Arrays.copyOf(players, Math.max(slot + 1, players.length * 2));
+        TabPlayer previous = players[slot];
+        if (previous == player) return false;
+        players[slot] = player;
+        if (previous == null) {
+            occupied.set(slot);
+            size++;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        removeSlot(((TabPlayer) o).getSlot());
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(players, null);
+        occupied.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @NotNull
+    public Iterator<TabPlayer> iterator() {
+        return new Iterator<TabPlayer>() {
+
+            private int next = occupied.nextSetBit(0);
+            private int current = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public TabPlayer next() {
+                if (next == -1) throw new NoSuchElementException();
+                current = next;
+                next = occupied.nextSetBit(next + 1);
+                return players[current];
+            }
+
+            @Override
+            public void remove() {
+                if (current == -1 || players[current] == null) throw new IllegalStateException();
+                removeSlot(current);
+            }
+        };
+    }
+
+    /**
+     * Removes player in specified slot.
+     *
+     * @param   slot
+     *          Slot to clear
+     */
+    private void removeSlot(int slot) {
+        players[slot] = null;
+        occupied.clear(slot);
+        size--;
+    }
+}
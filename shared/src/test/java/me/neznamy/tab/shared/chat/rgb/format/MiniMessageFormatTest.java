@@ -0,0 +1,58 @@
+package me.neznamy.tab.shared.chat.rgb.format;
+
+import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.hook.AdventureHook;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MiniMessageFormatTest {
+
+    /** Serializer keeping RGB colors to compare components regardless of their structure */
+    private static final LegacyComponentSerializer SERIALIZER = LegacyComponentSerializer.builder()
+            .hexColors().useUnusualXRepeatedCharacterHexFormat().build();
+
+    private final MiniMessageFormat format = new MiniMessageFormat();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<red>Red</red> and <blue>blue",
+            "<#123456>Hex <bold>bold</bold> text",
+            "<gradient:#FF0000:#0000FF>Gradient text</gradient>",
+            "<rainbow>Rainbow",
+            "<italic><underlined>Styled</underlined> only italic",
+            "Plain <green>green</green> plain",
+            "<color:#ABCDEF>Named hex</color> <strikethrough><obfuscated>magic"
+    })
+    void directConversionMatchesRoundTrip(String text) {
+        TabComponent direct = format.toComponent(text);
+        assertNotNull(direct, "Text should be converted directly");
+        TabComponent roundTrip = TabComponent.fromColoredText(format.reformat(text));
+        assertEquals(SERIALIZER.serialize(AdventureHook.toAdventureComponent(roundTrip, true)),
+                SERIALIZER.serialize(AdventureHook.toAdventureComponent(direct, true)));
+        assertEquals(roundTrip.toLegacyText(), direct.toLegacyText());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"<#123456>|cText", "<color:#123456>|4Text", "<bold>Bold</bold> <#ABCDEF>|aText"})
+    void forcedLegacyColorFallsBack(String text) {
+        assertNull(format.toComponent(text));
+    }
+
+    @Test
+    void forcedLegacyColorIsApplied() {
+        TabComponent component = TabComponent.fromColoredText("<#123456>|cText");
+        assertEquals("§cText", component.toLegacyText());
+        assertEquals("§x§1§2§3§4§5§6Text", SERIALIZER.serialize(AdventureHook.toAdventureComponent(component, true)));
+    }
+
+    @Test
+    void textWithOtherFormatsFallsBack() {
+        assertNull(format.toComponent("No tags"));
+        assertNull(format.toComponent("§cLegacy <red>and MiniMessage"));
+        assertNull(format.toComponent("<red>Text with #123456 hex"));
+    }
+}
@@ -0,0 +1,202 @@
+package me.neznamy.tab.shared.config.mysql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MySQLTest {
+
+    private static final String UUID = "069a79f4-44e9-4726-a5be-fca90e38aaf5";
+
+    private String url;
+    private MySQL mysql;
+
+    /** Connection outside of the pool for preparing and checking data */
+    private Connection direct;
+
+    @BeforeEach
+    void connect() throws SQLException {
+        url = "jdbc:h2:mem:" + java.util.UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        mysql = new MySQL(url, new Properties());
+        direct = DriverManager.getConnection(url);
+        mysql.createPropertyTable("tab_groups", "group");
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        mysql.closeConnection();
+        direct.close();
+    }
+
+    @Test
+    void poolNeverOpensMoreThanThreeConnections() throws Exception {
+        direct.createStatement().execute("create alias SLEEP for 'java.lang.Thread.sleep'");
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i=0; i<20; i++) {
+            futures.add(executor.submit(() -> {
+                mysql.query("select SLEEP(20)", rs -> {});
+                return null;
+            }));
+        }
+        int maxSessions = 0;
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+            maxSessions = Math.max(maxSessions, sessions() - 1); // Without the direct connection
+        }
+        executor.shutdown();
+        assertTrue(maxSessions <= 3, "Pool opened " + maxSessions + " connections");
+        assertTrue(sessions() - 1 <= 3);
+    }
+
+    @Test
+    void queuedChangesAreWrittenInBatches() throws Exception {
+        for (int i=0; i<100; i++) {
+            mysql.queuePropertyChange("tab_groups", "group", "group" + i, "tabprefix", null, null, "old" + i);
+        }
+        mysql.queuePropertyChange("tab_groups", "group", "group5", "tabprefix", null, null, "new5");
+        mysql.queuePropertyChange("tab_groups", "group", "group6", "tabprefix", null, "world", "world6");
+        mysql.queuePropertyChange("tab_groups", "group", "group7", "tabprefix", null, null, null);
+        mysql.queueRemoval("tab_groups", "group", "group8");
+        awaitDatabaseThread();
+        Map<String, String> values = values();
+        assertEquals(99, values.size()); // group6 has a per-world value too
+        assertEquals("new5", values.get("group5"));
+        assertEquals("world6", values.get("group6@world"));
+        assertFalse(values.containsKey("group7"));
+        assertFalse(values.containsKey("group8"));
+
+        mysql.queuePropertyChange("tab_groups", "group", "group1", "tabprefix", null, null, "changed");
+        mysql.queueRemoval("tab_groups", "group", "group2");
+        awaitDatabaseThread();
+        values = values();
+        assertEquals("changed", values.get("group1"));
+        assertFalse(values.containsKey("group2"));
+        assertEquals(98, values.size());
+    }
+
+    @Test
+    void failedBatchIsRolledBackAndQueuedAgain() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        mysql.runAsync(() -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            mysql.queuePropertyChange("tab_groups", "group", "admin", "tabprefix", null, null, "admin");
+            mysql.queuePropertyChange("tab_groups", "group", "vip", "tabprefix", null, null, "old");
+            mysql.queuePropertyChange("tab_groups", "group", "owner", "tabprefix", null, null, "lost");
+            mysql.queuePropertyChange("tab_missing", "group", "missing", "tabprefix", null, null, "missing");
+            assertThrows(SQLException.class, mysql::flush);
+            assertTrue(values().isEmpty(), "Failed transaction was not rolled back");
+
+            // Changed while failed changes were being written
+            mysql.queuePropertyChange("tab_groups", "group", "vip", "tabprefix", null, null, "new");
+            mysql.queueRemoval("tab_groups", "group", "owner");
+            mysql.createPropertyTable("tab_missing", "group");
+            mysql.flush();
+        } finally {
+            gate.countDown();
+        }
+        Map<String, String> values = values();
+        assertEquals(2, values.size());
+        assertEquals("admin", values.get("admin"));
+        assertEquals("new", values.get("vip"));
+        ResultSet rs = direct.createStatement().executeQuery("select `value` from tab_missing");
+        assertTrue(rs.next());
+        assertEquals("missing", rs.getString(1));
+    }
+
+    @Test
+    void failedFlushIsRetried() throws Exception {
+        mysql.queuePropertyChange("tab_missing", "group", "admin", "tabprefix", null, null, "admin");
+        awaitDatabaseThread();
+        mysql.createPropertyTable("tab_missing", "group");
+        long end = System.currentTimeMillis() + 15000;
+        while (System.currentTimeMillis() < end) {
+            ResultSet rs = direct.createStatement().executeQuery("select `value` from tab_missing");
+            if (rs.next()) {
+                assertEquals("admin", rs.getString(1));
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Failed changes were not written again");
+    }
+
+    @Test
+    void legacyTableIsMigrated() throws Exception {
+        direct.createStatement().execute("create table tab_legacy (`group` varchar(64), `property` varchar(16), `value` varchar(1024), world varchar(64), server varchar(64))");
+        direct.createStatement().execute("insert into tab_legacy values ('admin', 'tabprefix', 'old', null, null)");
+        direct.createStatement().execute("insert into tab_legacy values ('admin', 'tabprefix', 'world', 'world', null)");
+        mysql.createPropertyTable("tab_legacy", "group");
+        mysql.createPropertyTable("tab_legacy", "group");
+        mysql.queuePropertyChange("tab_legacy", "group", "admin", "tabprefix", null, null, "new");
+        awaitDatabaseThread();
+        Map<String, String> values = new HashMap<>();
+        mysql.query("select * from tab_legacy", rs -> assertNull(values.put(MySQL.getScope(rs, "world") + "," + MySQL.getScope(rs, "server"), rs.getString("value"))));
+        assertEquals(2, values.size());
+        assertEquals("new", values.get("null,null"));
+        assertEquals("world", values.get("world,null"));
+    }
+
+    @Test
+    void closeWritesQueuedChanges() throws Exception {
+        mysql.queuePropertyChange("tab_groups", "group", "admin", "tabprefix", null, null, "admin");
+        mysql.closeConnection();
+        assertEquals("admin", values().get("admin"));
+    }
+
+    @Test
+    void uuidRowsAreLoadedLast() throws Exception {
+        MySQLUserConfiguration users = new MySQLUserConfiguration(mysql);
+        PreparedStatement insert = direct.prepareStatement("insert into tab_users (`user`, `property`, `value`) values (?, 'tabprefix', ?)");
+        for (int i=0; i<5; i++) {
+            insert.setString(1, UUID);
+            insert.setString(2, "uuid" + i);
+            insert.execute();
+            insert.setString(1, "notch");
+            insert.setString(2, "name" + i);
+            insert.execute();
+        }
+        List<String[]> rows = users.loadRows("notch", UUID);
+        assertEquals(10, rows.size());
+        for (int i=0; i<rows.size(); i++) {
+            assertEquals(i < 5 ? "notch" : UUID, rows.get(i)[0]);
+        }
+    }
+
+    private void awaitDatabaseThread() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        mysql.runAsync(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private int sessions() throws SQLException {
+        ResultSet rs = direct.createStatement().executeQuery("select count(*) from information_schema.sessions");
+        rs.next();
+        return rs.getInt(1);
+    }
+
+    /**
+     * Returns values in tab_groups as group (with @world if per-world) to value.
+     */
+    private Map<String, String> values() throws SQLException {
+        Map<String, String> values = new HashMap<>();
+        ResultSet rs = direct.createStatement().executeQuery("select `group`, `value`, world from tab_groups");
+        while (rs.next()) {
+            String key = rs.getString(1) + (rs.getString(3).isEmpty() ? "" : "@" + rs.getString(3));
+            assertNull(values.put(key, rs.getString(2)), "Duplicate row of " + key);
+        }
+        return values;
+    }
+}
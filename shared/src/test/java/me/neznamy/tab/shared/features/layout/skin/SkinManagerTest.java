@@ -0,0 +1,211 @@
+package me.neznamy.tab.shared.features.layout.skin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import me.neznamy.tab.shared.platform.TabList.Skin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkinManagerTest {
+
+    private static final String PLAYER_RESPONSE =
+            "{\"textures\":{\"raw\":{\"value\":\"player-value\",\"signature\":\"player-signature\"}}}";
+
+    private static final String MINESKIN_RESPONSE =
+            "{\"data\":{\"texture\":{\"value\":\"mineskin-value\",\"signature\":\"mineskin-signature\"}}}";
+
+    @TempDir
+    File folder;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    /** Requests received by path */
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    /** Responses by path, missing path returns 404 */
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+
+    /** Released to let blocked requests respond */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /** Whether requests wait for {@link #release} or not */
+    private volatile boolean blockRequests;
+
+    private final List<SkinManager> managers = new ArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        managers.forEach(SkinManager::unload);
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        try {
+            if (blockRequests) release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String response = responses.get(path);
+        if (response == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private SkinManager createManager(Consumer<String> onResolve) {
+        return createManager(onResolve, 60000);
+    }
+
+    private SkinManager createManager(Consumer<String> onResolve, long retryDelay) {
+        Map<String, SkinSource> sources = new HashMap<>();
+        sources.put("player", new PlayerSkin(baseUrl + "/user/"));
+        sources.put("mineskin", new MineSkin(baseUrl + "/get/"));
+        sources.put("texture", new Texture(baseUrl + "/generate/"));
+        SkinManager manager = new SkinManager(folder, sources, "player:Default", Collections.emptyMap(), onResolve, retryDelay);
+        managers.add(manager);
+        return manager;
+    }
+
+    private int requestCount(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Test
+    void sourcesParseResponses() {
+        responses.put("/user/Notch", PLAYER_RESPONSE);
+        responses.put("/get/id/12345", MINESKIN_RESPONSE);
+        responses.put("/get/uuid/abcdef", MINESKIN_RESPONSE);
+        responses.put("/generate/", MINESKIN_RESPONSE);
+        assertEquals(Arrays.asList("player-value", "player-signature"), new PlayerSkin(baseUrl + "/user/").download("Notch"));
+        assertEquals(Arrays.asList("mineskin-value", "mineskin-signature"), new MineSkin(baseUrl + "/get/").download("12345"));
+        assertEquals(Arrays.asList("mineskin-value", "mineskin-signature"), new MineSkin(baseUrl + "/get/").download("abcdef"));
+        assertEquals(Arrays.asList("mineskin-value", "mineskin-signature"), new Texture(baseUrl + "/generate/").download("abc"));
+    }
+
+    @Test
+    void skinIsDownloadedOnceAndResolved() throws Exception {
+        responses.put("/user/Default", PLAYER_RESPONSE);
+        responses.put("/user/Notch", PLAYER_RESPONSE);
+        blockRequests = true;
+        BlockingQueue<String> resolved = new LinkedBlockingQueue<>();
+        SkinManager manager = createManager(resolved::add);
+        for (int i=0; i<50; i++) {
+            assertNull(manager.getSkin("player:Notch"), "Skin should not be resolved before download finishes");
+        }
+        release.countDown();
+        Set<String> done = new HashSet<>();
+        while (done.size() < 2) {
+            String skin = resolved.poll(10, TimeUnit.SECONDS);
+            assertNotNull(skin, "Download did not finish");
+            done.add(skin);
+        }
+        assertEquals(1, requestCount("/user/Notch"));
+        Skin skin = manager.getSkin("player:Notch");
+        assertNotNull(skin);
+        assertEquals("player-value", skin.getValue());
+        assertEquals("player-signature", skin.getSignature());
+        assertSame(manager.getDefaultSkin(), manager.getDefaultSkin(5));
+    }
+
+    @Test
+    void failedSourceIsRetriedAfterDelay() throws Exception {
+        responses.put("/user/Default", PLAYER_RESPONSE);
+        responses.put("/user/Broken", "{}"); // Missing fields make the source throw
+        SkinManager manager = createManager(skin -> {}, 500);
+        manager.getSkin("player:Broken");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (requestCount("/user/Broken") < 1) {
+            assertTrue(System.currentTimeMillis() < deadline, "Skin was never requested");
+            Thread.sleep(10);
+        }
+        for (int i=0; i<20; i++) {
+            Thread.sleep(10);
+            manager.getSkin("player:Broken");
+        }
+        assertEquals(1, requestCount("/user/Broken"), "Failed skin was requested again before retry delay passed");
+        while (requestCount("/user/Broken") < 2) {
+            assertTrue(System.currentTimeMillis() < deadline, "Skin was never requested again after retry delay");
+            Thread.sleep(10);
+            manager.getSkin("player:Broken");
+        }
+    }
+
+    @Test
+    void unloadWaitsForRunningDownloads() throws Exception {
+        responses.put("/user/Default", PLAYER_RESPONSE);
+        responses.put("/user/Notch", PLAYER_RESPONSE);
+        blockRequests = true;
+        SkinManager manager = createManager(skin -> {});
+        manager.getSkin("player:Notch");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (requestCount("/user/Notch") < 1) {
+            assertTrue(System.currentTimeMillis() < deadline, "Skin was never requested");
+            Thread.sleep(10);
+        }
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+        manager.unload();
+        server.stop(0);
+
+        SkinManager restarted = createManager(skin -> fail("Skin " + skin + " was not saved on unload"));
+        assertNotNull(restarted.getSkin("player:Notch"));
+    }
+
+    @Test
+    void downloadedSkinsAreLoadedFromCache() throws Exception {
+        responses.put("/user/Default", PLAYER_RESPONSE);
+        responses.put("/get/id/12345", MINESKIN_RESPONSE);
+        CountDownLatch latch = new CountDownLatch(2);
+        SkinManager manager = createManager(skin -> latch.countDown());
+        manager.getSkin("mineskin:12345");
+        assertTrue(latch.await(10, TimeUnit.SECONDS), "Download did not finish");
+        manager.unload();
+        server.stop(0);
+
+        SkinManager restarted = createManager(skin -> fail("Cached skin " + skin + " was downloaded again"));
+        Skin skin = restarted.getSkin("mineskin:12345");
+        assertNotNull(skin);
+        assertEquals("mineskin-value", skin.getValue());
+        assertNotNull(restarted.getDefaultSkin());
+    }
+}
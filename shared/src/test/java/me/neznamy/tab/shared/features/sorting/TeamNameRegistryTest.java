@@ -0,0 +1,86 @@
+package me.neznamy.tab.shared.features.sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamNameRegistryTest {
+
+    /** Sorting prefix of a group, 15 characters like a real one */
+    private static final String PREFIX = "0000000Default_";
+
+    private static final int PLAYERS = 2000;
+
+    @Test
+    void sameGroupJoinsGetUniqueNames() {
+        TeamNameRegistry registry = new TeamNameRegistry();
+        Set<String> names = new HashSet<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i=0; i<PLAYERS; i++) {
+                String name = registry.allocate(new Object(), PREFIX);
+                assertTrue(name.startsWith(PREFIX));
+                assertEquals(PREFIX.length() + 1, name.length());
+                assertTrue(names.add(name), "Duplicate team name " + name);
+            }
+        });
+    }
+
+    @Test
+    void namesAreUniqueAgainstRemotePlayers() {
+        TeamNameRegistry registry = new TeamNameRegistry();
+        Set<String> names = new HashSet<>();
+        for (int i=0; i<PLAYERS; i++) {
+            Object owner = i % 2 == 0 ? new Object() : UUID.randomUUID();
+            assertTrue(names.add(registry.allocate(owner, PREFIX)));
+        }
+    }
+
+    @Test
+    void releasedNamesAreReused() {
+        TeamNameRegistry registry = new TeamNameRegistry();
+        List<Object> owners = new ArrayList<>();
+        for (int i=0; i<PLAYERS; i++) {
+            Object owner = new Object();
+            owners.add(owner);
+            registry.allocate(owner, PREFIX);
+        }
+        Object quitting = owners.get(5);
+        registry.release(quitting);
+        assertEquals(PREFIX + (char) ('A' + 5), registry.allocate(new Object(), PREFIX));
+        assertEquals(PREFIX + (char) ('A' + PLAYERS), registry.allocate(new Object(), PREFIX));
+    }
+
+    @Test
+    void reallocationKeepsNameOfOnlyOwner() {
+        TeamNameRegistry registry = new TeamNameRegistry();
+        Object owner = new Object();
+        String name = registry.allocate(owner, PREFIX);
+        assertEquals(name, registry.allocate(owner, PREFIX));
+    }
+
+    @Test
+    void churnKeepsNamesUnique() {
+        TeamNameRegistry registry = new TeamNameRegistry();
+        Random random = new Random(0);
+        Map<Object, String> online = new HashMap<>();
+        List<Object> owners = new ArrayList<>();
+        for (int i=0; i<PLAYERS * 5; i++) {
+            if (!owners.isEmpty() && random.nextInt(3) == 0) {
+                Object owner = owners.remove(random.nextInt(owners.size()));
+                registry.release(owner);
+                online.remove(owner);
+            } else {
+                Object owner = new Object();
+                owners.add(owner);
+                online.put(owner, registry.allocate(owner, random.nextBoolean() ? PREFIX : "0000001Admin___"));
+            }
+            if (i % 500 == 0) {
+                assertEquals(online.size(), new HashSet<>(online.values()).size());
+            }
+        }
+        assertEquals(online.size(), new HashSet<>(online.values()).size());
+    }
+}
@@ -0,0 +1,45 @@
+package me.neznamy.tab.shared.placeholders.expansion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerExpansionValuesTest {
+
+    @Test
+    void slotsAreSharedAndStable() {
+        int slot = PlayerExpansionValues.getSlot("placeholder_test_stable");
+        assertEquals(slot, PlayerExpansionValues.getSlot("placeholder_test_stable"));
+        assertNotEquals(slot, PlayerExpansionValues.getSlot("placeholder_test_other"));
+        assertEquals(PlayerExpansionValues.SCOREBOARD_NAME, PlayerExpansionValues.getSlot("scoreboard_name"));
+    }
+
+    @Test
+    void onlyChangedValuesAreFlushed() {
+        PlayerExpansionValues values = new PlayerExpansionValues();
+        int slot = PlayerExpansionValues.getSlot("placeholder_test_flush");
+        assertTrue(values.setTracked(PlayerExpansionValues.SCOREBOARD_VISIBLE, "Enabled"));
+        assertFalse(values.setTracked(slot, "1"), "Flush should only be requested on first change");
+        assertFalse(values.setTracked(slot, "1"));
+        assertEquals("1", values.get("placeholder_test_flush"));
+        assertNull(values.get("placeholder_unknown"));
+
+        Map<String, String> flushed = new LinkedHashMap<>();
+        values.flush(flushed::put);
+        assertEquals(2, flushed.size());
+        assertEquals("Enabled", flushed.get("scoreboard_visible"));
+        assertEquals("1", flushed.get("placeholder_test_flush"));
+        assertFalse(values.isDirty());
+
+        assertFalse(values.setTracked(slot, "1"), "Equal value should not mark slot as changed");
+        assertFalse(values.isDirty());
+        assertTrue(values.setTracked(slot, "2"));
+        flushed.clear();
+        values.flush(flushed::put);
+        assertEquals(1, flushed.size());
+        assertEquals("2", flushed.get("placeholder_test_flush"));
+    }
+}
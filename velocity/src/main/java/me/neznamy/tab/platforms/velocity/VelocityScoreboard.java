@@ -0,0 +1,455 @@
+package me.neznamy.tab.platforms.velocity;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import lombok.NonNull;
+import me.neznamy.tab.shared.ProtocolVersion;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.chat.EnumChatFormat;
+import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.hook.AdventureHook;
+import me.neznamy.tab.shared.platform.impl.BridgeScoreboard;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+
+/**
+ * Scoreboard handler for Velocity. Because Velocity does not offer any
+ * Scoreboard API, packets are encoded by this class and written directly
+ * into player's connection. If the player's version is not supported or
+ * the connection cannot be accessed, packets are sent using the bridge instead.
+ * Versions newer than 1.20.2 are not supported, because they encode components
+ * as NBT and use different score packets.
+ * <p>
+ * Packets written while the connection is not in PLAY state (1.20.2+ players
+ * in configuration phase) are queued and written in the same order once the
+ * connection returns to PLAY state, so all packets go through the same path.
+ */
+public class VelocityScoreboard extends BridgeScoreboard {
+
+    /**
+     * Packet IDs of supported versions, ordered from the newest. Each row contains
+     * the first protocol version using the IDs followed by IDs of display objective,
+     * objective, score and team packets.
+     */
+    private static final int[][] PACKET_IDS = {
+            {ProtocolVersion.V1_20_2.getNetworkId(), 0x53, 0x5A, 0x5D, 0x5C},
+            {ProtocolVersion.V1_19_4.getNetworkId(), 0x51, 0x58, 0x5B, 0x5A},
+            {ProtocolVersion.V1_19_3.getNetworkId(), 0x4D, 0x54, 0x57, 0x56},
+            {ProtocolVersion.V1_19_1.getNetworkId(), 0x4F, 0x55, 0x58, 0x57},
+            {ProtocolVersion.V1_19.getNetworkId(),   0x4C, 0x52, 0x55, 0x54},
+            {ProtocolVersion.V1_17.getNetworkId(),   0x4C, 0x53, 0x56, 0x55},
+            {ProtocolVersion.V1_15.getNetworkId(),   0x43, 0x4A, 0x4D, 0x4C},
+            {ProtocolVersion.V1_14.getNetworkId(),   0x42, 0x49, 0x4C, 0x4B},
+            {ProtocolVersion.V1_13.getNetworkId(),   0x3E, 0x45, 0x48, 0x47},
+            {ProtocolVersion.V1_12_1.getNetworkId(), 0x3B, 0x42, 0x45, 0x44},
+            {ProtocolVersion.V1_12.getNetworkId(),   0x3A, 0x41, 0x44, 0x43},
+            {ProtocolVersion.V1_9.getNetworkId(),    0x38, 0x3F, 0x42, 0x41},
+            {ProtocolVersion.V1_8.getNetworkId(),    0x3D, 0x3B, 0x3C, 0x3E}
+    };
+
+    /** Newest supported version, newer versions encode components as NBT and use different score packets */
+    private static final int NEWEST_SUPPORTED_VERSION = ProtocolVersion.V1_20_2.getNetworkId();
+
+    /** Version where display slot is written as VarInt instead of byte */
+    private static final int DISPLAY_SLOT_VAR_INT_VERSION = ProtocolVersion.V1_20_2.getNetworkId();
+
+    /** ConnectedPlayer#getConnection method */
+    @Nullable private static final Method getConnection;
+
+    /** MinecraftConnection#write method */
+    @Nullable private static final Method write;
+
+    /** MinecraftConnection#getState method */
+    @Nullable private static final Method getState;
+
+    /** StateRegistry#PLAY constant returned by {@link #getState} */
+    @Nullable private static final Object PLAY_STATE;
+
+    /** First version with configuration phase, where connection may leave PLAY state */
+    private static final int CONFIGURATION_PHASE_VERSION = ProtocolVersion.V1_20_2.getNetworkId();
+
+    /** Delay between attempts to write queued packets in milliseconds */
+    private static final int PENDING_RETRY_DELAY = 50;
+
+    static {
+        Method connection = null;
+        Method writeMethod = null;
+        Method state = null;
+        Object play = null;
+        try {
+            Class<?> connectedPlayer = Class.forName("com.velocitypowered.proxy.connection.client.ConnectedPlayer");
+            connection = connectedPlayer.getMethod("getConnection");
+            writeMethod = connection.getReturnType().getMethod("write", Object.class);
+            state = connection.getReturnType().getMethod("getState");
+            Object[] states = state.getReturnType().getEnumConstants();
+            if (states != null) {
+                for (Object constant : states) {
+                    if ("PLAY".equals(constant.toString())) play = constant;
+                }
+            }
+            if (play == null) throw new NoSuchFieldException("PLAY");
+        } catch (ReflectiveOperationException e) {
+            connection = null;
+            writeMethod = null;
+            state = null;
+            play = null;
+            TAB.getInstance().debug("Failed to access Velocity connection, scoreboard packets will be sent using bridge: " + e);
+        }
+        getConnection = connection;
+        write = writeMethod;
+        getState = state;
+        PLAY_STATE = play;
+    }
+
+    /** Player's connection or {@code null} if packets cannot be written directly */
+    @Nullable private final Object connection;
+
+    /** Packet IDs for player's version (display objective, objective, score, team) */
+    private final int[] packetIds;
+
+    /** Player's protocol version */
+    private final int version;
+
+    /** Whether connection state must be checked before writing, {@code false} for versions without configuration phase */
+    private final boolean checkState;
+
+    /** Packets waiting for connection to return to PLAY state, guarded by itself */
+    private final Queue<ByteBuf> pending = new ArrayDeque<>();
+
+    /** Whether a task writing pending packets is scheduled, guarded by {@link #pending} */
+    private boolean flushScheduled;
+
+    /**
+     * Constructs new instance with given parameter.
+     *
+     * @param   player
+     *          Player this scoreboard will belong to
+     * @param   nativePackets
+     *          Whether packets should be written directly or sent using bridge
+     */
+    public VelocityScoreboard(@NonNull VelocityTabPlayer player, boolean nativePackets) {
+        super(player);
+        version = player.getVersion().getNetworkId();
+        packetIds = findPacketIds(version);
+        connection = nativePackets && packetIds != null ? findConnection(player) : null;
+        checkState = version >= CONFIGURATION_PHASE_VERSION;
+    }
+
+    @Nullable
+    private static int[] findPacketIds(int version) {
+        if (version > NEWEST_SUPPORTED_VERSION) return null;
+        for (int[] row : PACKET_IDS) {
+            if (version >= row[0]) return row;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Object findConnection(@NotNull VelocityTabPlayer player) {
+        if (getConnection == null) return null;
+        try {
+            return getConnection.invoke(player.getPlayer());
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            TAB.getInstance().debug("Failed to access connection of " + player.getName() + ", scoreboard packets will be sent using bridge: " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public void setDisplaySlot0(int slot, @NonNull String objective) {
+        ByteBuf buf = newPacket(1);
+        if (buf == null) {
+            super.setDisplaySlot0(slot, objective);
+            return;
+        }
+        if (version >= DISPLAY_SLOT_VAR_INT_VERSION) {
+            writeVarInt(buf, slot);
+        } else {
+            buf.writeByte(slot);
+        }
+        writeString(buf, objective);
+        send(buf);
+    }
+
+    @Override
+    public void registerObjective0(@NonNull String objectiveName, @NonNull String title, int display,
+                                   @Nullable Component numberFormat) {
+        ByteBuf buf = newPacket(2);
+        if (buf == null) {
+            super.registerObjective0(objectiveName, title, display, numberFormat);
+            return;
+        }
+        writeObjective(buf, objectiveName, ObjectiveAction.REGISTER, title, display);
+        send(buf);
+    }
+
+    @Override
+    public void unregisterObjective0(@NonNull String objectiveName) {
+        ByteBuf buf = newPacket(2);
+        if (buf == null) {
+            super.unregisterObjective0(objectiveName);
+            return;
+        }
+        writeString(buf, objectiveName);
+        buf.writeByte(ObjectiveAction.UNREGISTER);
+        send(buf);
+    }
+
+    @Override
+    public void updateObjective0(@NonNull String objectiveName, @NonNull String title, int display,
+                                 @Nullable Component numberFormat) {
+        ByteBuf buf = newPacket(2);
+        if (buf == null) {
+            super.updateObjective0(objectiveName, title, display, numberFormat);
+            return;
+        }
+        writeObjective(buf, objectiveName, ObjectiveAction.UPDATE, title, display);
+        send(buf);
+    }
+
+    @Override
+    public void registerTeam0(@NonNull String name, @NonNull String prefix, @NonNull String suffix,
+                              @NonNull NameVisibility visibility, @NonNull CollisionRule collision,
+                              @NonNull Collection<String> players, int options, @NonNull EnumChatFormat color) {
+        ByteBuf buf = newPacket(4);
+        if (buf == null) {
+            super.registerTeam0(name, prefix, suffix, visibility, collision, players, options, color);
+            return;
+        }
+        writeTeam(buf, name, TeamAction.CREATE, prefix, suffix, visibility, collision, options, color);
+        writeVarInt(buf, players.size());
+        for (String player : players) {
+            writeString(buf, player);
+        }
+        send(buf);
+    }
+
+    @Override
+    public void unregisterTeam0(@NonNull String name) {
+        ByteBuf buf = newPacket(4);
+        if (buf == null) {
+            super.unregisterTeam0(name);
+            return;
+        }
+        writeString(buf, name);
+        buf.writeByte(TeamAction.REMOVE);
+        send(buf);
+    }
+
+    @Override
+    public void updateTeam0(@NonNull String name, @NonNull String prefix, @NonNull String suffix,
+                            @NonNull NameVisibility visibility, @NonNull CollisionRule collision,
+                            int options, @NonNull EnumChatFormat color) {
+        ByteBuf buf = newPacket(4);
+        if (buf == null) {
+            super.updateTeam0(name, prefix, suffix, visibility, collision, options, color);
+            return;
+        }
+        writeTeam(buf, name, TeamAction.UPDATE, prefix, suffix, visibility, collision, options, color);
+        send(buf);
+    }
+
+    @Override
+    public void setScore0(@NonNull String objective, @NonNull String scoreHolder, int score,
+                          @Nullable Component displayName, @Nullable Component numberFormat) {
+        ByteBuf buf = newPacket(3);
+        if (buf == null) {
+            super.setScore0(objective, scoreHolder, score, displayName, numberFormat);
+            return;
+        }
+        writeString(buf, scoreHolder);
+        buf.writeByte(ScoreAction.CHANGE);
+        writeString(buf, objective);
+        writeVarInt(buf, score);
+        send(buf);
+    }
+
+    @Override
+    public void removeScore0(@NonNull String objective, @NonNull String scoreHolder) {
+        ByteBuf buf = newPacket(3);
+        if (buf == null) {
+            super.removeScore0(objective, scoreHolder);
+            return;
+        }
+        writeString(buf, scoreHolder);
+        buf.writeByte(ScoreAction.REMOVE);
+        writeString(buf, objective);
+        send(buf);
+    }
+
+    @Override
+    public void unfreeze() {
+        // Queued packets were meant for scoreboard the client drops when re-entering PLAY state,
+        // everything is registered again after this call
+        synchronized (pending) {
+            releasePending();
+        }
+        super.unfreeze();
+    }
+
+    /**
+     * Creates new buffer with packet ID written if packets are written
+     * directly, {@code null} if bridge should be used instead.
+     *
+     * @param   packet
+     *          Index of packet ID in {@link #PACKET_IDS}
+     * @return  New buffer with written packet ID or {@code null} if bridge should be used
+     */
+    @Nullable
+    private ByteBuf newPacket(int packet) {
+        if (connection == null) return null;
+        ByteBuf buf = ByteBufAllocator.DEFAULT.buffer();
+        writeVarInt(buf, packetIds[packet]);
+        return buf;
+    }
+
+    /**
+     * Writes the packet into player's connection if it is in PLAY state and no
+     * packets are waiting, otherwise queues it behind the waiting packets.
+     *
+     * @param   buf
+     *          Encoded packet
+     */
+    private void send(@NotNull ByteBuf buf) {
+        synchronized (pending) {
+            if (pending.isEmpty() && isInPlayState()) {
+                write(buf);
+                return;
+            }
+            pending.add(buf);
+            flushPending();
+        }
+    }
+
+    /**
+     * Writes all queued packets if connection is in PLAY state, otherwise schedules
+     * another attempt. Must be called while holding lock of {@link #pending}.
+     */
+    private void flushPending() {
+        if (!player.isOnline()) {
+            releasePending();
+            return;
+        }
+        if (isInPlayState()) {
+            ByteBuf buf;
+            while ((buf = pending.poll()) != null) {
+                write(buf);
+            }
+            return;
+        }
+        if (flushScheduled) return;
+        flushScheduled = true;
+        TAB.getInstance().getCPUManager().runTaskLater(PENDING_RETRY_DELAY, "Scoreboard management",
+                TabConstants.CpuUsageCategory.PENDING_PACKETS, () -> {
+            synchronized (pending) {
+                flushScheduled = false;
+                if (!pending.isEmpty()) flushPending();
+            }
+        });
+    }
+
+    /**
+     * Releases all queued packets without writing them. Must be called while
+     * holding lock of {@link #pending}.
+     */
+    private void releasePending() {
+        ByteBuf buf;
+        while ((buf = pending.poll()) != null) {
+            buf.release();
+        }
+    }
+
+    /**
+     * Returns {@code true} if scoreboard packets can be written into the connection,
+     * {@code false} if connection is in another state, such as configuration phase
+     * of 1.20.2+ players switching servers.
+     *
+     * @return  {@code true} if connection is in PLAY state, {@code false} if not
+     */
+    private boolean isInPlayState() {
+        if (!checkState) return true;
+        try {
+            return getState.invoke(connection) == PLAY_STATE;
+        } catch (ReflectiveOperationException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Writes the packet into player's connection.
+     *
+     * @param   buf
+     *          Encoded packet
+     */
+    private void write(@NotNull ByteBuf buf) {
+        try {
+            write.invoke(connection, buf);
+        } catch (ReflectiveOperationException e) {
+            buf.release();
+            TAB.getInstance().getErrorManager().printError("Failed to write scoreboard packet to " + player.getName(), e);
+        }
+    }
+
+    private void writeObjective(@NotNull ByteBuf buf, @NotNull String objectiveName, int action, @NotNull String title, int display) {
+        writeString(buf, objectiveName);
+        buf.writeByte(action);
+        if (version >= ProtocolVersion.V1_13.getNetworkId()) {
+            writeComponent(buf, title);
+            writeVarInt(buf, display);
+        } else {
+            writeString(buf, title);
+            writeString(buf, display == 1 ? "hearts" : "integer");
+        }
+    }
+
+    private void writeTeam(@NotNull ByteBuf buf, @NotNull String name, int action, @NotNull String prefix, @NotNull String suffix,
+                           @NotNull NameVisibility visibility, @NotNull CollisionRule collision, int options, @NotNull EnumChatFormat color) {
+        writeString(buf, name);
+        buf.writeByte(action);
+        if (version >= ProtocolVersion.V1_13.getNetworkId()) {
+            writeComponent(buf, name);
+            buf.writeByte(options);
+            writeString(buf, visibility.toString());
+            writeString(buf, collision.toString());
+            writeVarInt(buf, color.ordinal());
+            writeComponent(buf, prefix);
+            writeComponent(buf, suffix);
+        } else {
+            writeString(buf, name);
+            writeString(buf, prefix);
+            writeString(buf, suffix);
+            buf.writeByte(options);
+            writeString(buf, visibility.toString());
+            if (version >= ProtocolVersion.V1_9.getNetworkId()) {
+                writeString(buf, collision.toString());
+            }
+            buf.writeByte(0);
+        }
+    }
+
+    private void writeComponent(@NotNull ByteBuf buf, @NotNull String text) {
+        writeString(buf, AdventureHook.serialize(TabComponent.optimized(text).convert(player.getVersion())));
+    }
+
+    private void writeString(@NotNull ByteBuf buf, @NotNull String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(buf, bytes.length);
+        buf.writeBytes(bytes);
+    }
+
+    private void writeVarInt(@NotNull ByteBuf buf, int value) {
+        while ((value & -128) != 0) {
+            buf.writeByte(value & 127 | 128);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+}
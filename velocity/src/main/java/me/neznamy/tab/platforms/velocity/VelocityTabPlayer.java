@@ -8,7 +8,6 @@ import me.neznamy.tab.shared.chat.TabComponent;
 import me.neznamy.tab.shared.platform.impl.AdventureBossBar;
 import me.neznamy.tab.shared.platform.BossBar;
 import me.neznamy.tab.shared.platform.TabList;
-import me.neznamy.tab.shared.platform.impl.BridgeScoreboard;
 import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -23,7 +22,8 @@ public class VelocityTabPlayer extends ProxyTabPlayer {
 
     /** Player's scoreboard */
     @NotNull
-    private final BridgeScoreboard scoreboard = new BridgeScoreboard(this);
+    private final VelocityScoreboard scoreboard = new VelocityScoreboard(this,
+            TAB.getInstance().getConfiguration().isVelocityNativeScoreboard());
 
     /** Player's tab list */
     @NotNull